@@ -64,6 +64,11 @@ import java.time.format.DateTimeFormatter;
             obj.setMaxWorkerExecuteTimeUnit(java.util.concurrent.TimeUnit.valueOf((String)member.getValue()));
           }
           break;
+        case "useVirtualThreads":
+          if (member.getValue() instanceof Boolean) {
+            obj.setUseVirtualThreads((Boolean)member.getValue());
+          }
+          break;
         case "worker":
           if (member.getValue() instanceof Boolean) {
             obj.setWorker((Boolean)member.getValue());
@@ -110,6 +115,7 @@ import java.time.format.DateTimeFormatter;
     if (obj.getMaxWorkerExecuteTimeUnit() != null) {
       json.put("maxWorkerExecuteTimeUnit", obj.getMaxWorkerExecuteTimeUnit().name());
     }
+    json.put("useVirtualThreads", obj.isUseVirtualThreads());
     json.put("worker", obj.isWorker());
     if (obj.getWorkerPoolName() != null) {
       json.put("workerPoolName", obj.getWorkerPoolName());
@@ -29,6 +29,21 @@ import java.time.format.DateTimeFormatter;
             obj.setBlockedThreadCheckIntervalUnit(java.util.concurrent.TimeUnit.valueOf((String)member.getValue()));
           }
           break;
+        case "blockedThreadSamplingInterval":
+          if (member.getValue() instanceof Number) {
+            obj.setBlockedThreadSamplingInterval(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "blockedThreadSamplingIntervalUnit":
+          if (member.getValue() instanceof String) {
+            obj.setBlockedThreadSamplingIntervalUnit(java.util.concurrent.TimeUnit.valueOf((String)member.getValue()));
+          }
+          break;
+        case "blockedThreadSamplingThreshold":
+          if (member.getValue() instanceof Number) {
+            obj.setBlockedThreadSamplingThreshold(((Number)member.getValue()).intValue());
+          }
+          break;
         case "clusterHost":
           if (member.getValue() instanceof String) {
             obj.setClusterHost((String)member.getValue());
@@ -69,6 +84,26 @@ import java.time.format.DateTimeFormatter;
             obj.setEventBusOptions(new io.vertx.core.eventbus.EventBusOptions((JsonObject)member.getValue()));
           }
           break;
+        case "eventLoopCpuAffinity":
+          if (member.getValue() instanceof Boolean) {
+            obj.setEventLoopCpuAffinity((Boolean)member.getValue());
+          }
+          break;
+        case "eventLoopCpus":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.ArrayList<java.lang.Integer> list =  new java.util.ArrayList<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof Number)
+                list.add(((Number)item).intValue());
+            });
+            obj.setEventLoopCpus(list);
+          }
+          break;
+        case "eventLoopMetricsEnabled":
+          if (member.getValue() instanceof Boolean) {
+            obj.setEventLoopMetricsEnabled((Boolean)member.getValue());
+          }
+          break;
         case "eventLoopPoolSize":
           if (member.getValue() instanceof Number) {
             obj.setEventLoopPoolSize(((Number)member.getValue()).intValue());
@@ -134,6 +169,11 @@ import java.time.format.DateTimeFormatter;
             obj.setQuorumSize(((Number)member.getValue()).intValue());
           }
           break;
+        case "timerWheel":
+          if (member.getValue() instanceof Boolean) {
+            obj.setTimerWheel((Boolean)member.getValue());
+          }
+          break;
         case "warningExceptionTime":
           if (member.getValue() instanceof Number) {
             obj.setWarningExceptionTime(((Number)member.getValue()).longValue());
@@ -144,6 +184,11 @@ import java.time.format.DateTimeFormatter;
             obj.setWarningExceptionTimeUnit(java.util.concurrent.TimeUnit.valueOf((String)member.getValue()));
           }
           break;
+        case "workStealingWorkerPool":
+          if (member.getValue() instanceof Boolean) {
+            obj.setWorkStealingWorkerPool((Boolean)member.getValue());
+          }
+          break;
         case "workerPoolSize":
           if (member.getValue() instanceof Number) {
             obj.setWorkerPoolSize(((Number)member.getValue()).intValue());
@@ -165,6 +210,11 @@ import java.time.format.DateTimeFormatter;
     if (obj.getBlockedThreadCheckIntervalUnit() != null) {
       json.put("blockedThreadCheckIntervalUnit", obj.getBlockedThreadCheckIntervalUnit().name());
     }
+    json.put("blockedThreadSamplingInterval", obj.getBlockedThreadSamplingInterval());
+    if (obj.getBlockedThreadSamplingIntervalUnit() != null) {
+      json.put("blockedThreadSamplingIntervalUnit", obj.getBlockedThreadSamplingIntervalUnit().name());
+    }
+    json.put("blockedThreadSamplingThreshold", obj.getBlockedThreadSamplingThreshold());
     if (obj.getClusterHost() != null) {
       json.put("clusterHost", obj.getClusterHost());
     }
@@ -179,6 +229,13 @@ import java.time.format.DateTimeFormatter;
     if (obj.getEventBusOptions() != null) {
       json.put("eventBusOptions", obj.getEventBusOptions().toJson());
     }
+    json.put("eventLoopCpuAffinity", obj.isEventLoopCpuAffinity());
+    if (obj.getEventLoopCpus() != null) {
+      JsonArray array = new JsonArray();
+      obj.getEventLoopCpus().forEach(item -> array.add(item));
+      json.put("eventLoopCpus", array);
+    }
+    json.put("eventLoopMetricsEnabled", obj.isEventLoopMetricsEnabled());
     json.put("eventLoopPoolSize", obj.getEventLoopPoolSize());
     json.put("fileResolverCachingEnabled", obj.isFileResolverCachingEnabled());
     if (obj.getFileSystemOptions() != null) {
@@ -202,10 +259,12 @@ import java.time.format.DateTimeFormatter;
     }
     json.put("preferNativeTransport", obj.getPreferNativeTransport());
     json.put("quorumSize", obj.getQuorumSize());
+    json.put("timerWheel", obj.isTimerWheel());
     json.put("warningExceptionTime", obj.getWarningExceptionTime());
     if (obj.getWarningExceptionTimeUnit() != null) {
       json.put("warningExceptionTimeUnit", obj.getWarningExceptionTimeUnit().name());
     }
+    json.put("workStealingWorkerPool", obj.isWorkStealingWorkerPool());
     json.put("workerPoolSize", obj.getWorkerPoolSize());
   }
 }
@@ -24,6 +24,11 @@ import java.time.format.DateTimeFormatter;
             obj.setClientAuth(io.vertx.core.http.ClientAuth.valueOf((String)member.getValue()));
           }
           break;
+        case "clusterConnections":
+          if (member.getValue() instanceof Number) {
+            obj.setClusterConnections(((Number)member.getValue()).intValue());
+          }
+          break;
         case "clusterPingInterval":
           if (member.getValue() instanceof Number) {
             obj.setClusterPingInterval(((Number)member.getValue()).longValue());
@@ -49,6 +54,11 @@ import java.time.format.DateTimeFormatter;
             obj.setClustered((Boolean)member.getValue());
           }
           break;
+        case "compressionThreshold":
+          if (member.getValue() instanceof Number) {
+            obj.setCompressionThreshold(((Number)member.getValue()).intValue());
+          }
+          break;
         case "connectTimeout":
           if (member.getValue() instanceof Number) {
             obj.setConnectTimeout(((Number)member.getValue()).intValue());
@@ -103,6 +113,11 @@ import java.time.format.DateTimeFormatter;
             obj.setIdleTimeoutUnit(java.util.concurrent.TimeUnit.valueOf((String)member.getValue()));
           }
           break;
+        case "inlineDelivery":
+          if (member.getValue() instanceof Boolean) {
+            obj.setInlineDelivery((Boolean)member.getValue());
+          }
+          break;
         case "jdkSslEngineOptions":
           if (member.getValue() instanceof JsonObject) {
             obj.setJdkSslEngineOptions(new io.vertx.core.net.JdkSSLEngineOptions((JsonObject)member.getValue()));
@@ -173,6 +188,11 @@ import java.time.format.DateTimeFormatter;
             obj.setReusePort((Boolean)member.getValue());
           }
           break;
+        case "routingStrategy":
+          if (member.getValue() instanceof String) {
+            obj.setRoutingStrategy(io.vertx.core.eventbus.RoutingStrategy.valueOf((String)member.getValue()));
+          }
+          break;
         case "sendBufferSize":
           if (member.getValue() instanceof Number) {
             obj.setSendBufferSize(((Number)member.getValue()).intValue());
@@ -188,6 +208,11 @@ import java.time.format.DateTimeFormatter;
             obj.setSsl((Boolean)member.getValue());
           }
           break;
+        case "subscriptionCacheMaxAge":
+          if (member.getValue() instanceof Number) {
+            obj.setSubscriptionCacheMaxAge(((Number)member.getValue()).longValue());
+          }
+          break;
         case "tcpCork":
           if (member.getValue() instanceof Boolean) {
             obj.setTcpCork((Boolean)member.getValue());
@@ -238,6 +263,16 @@ import java.time.format.DateTimeFormatter;
             obj.setUsePooledBuffers((Boolean)member.getValue());
           }
           break;
+        case "writeCoalescing":
+          if (member.getValue() instanceof Boolean) {
+            obj.setWriteCoalescing((Boolean)member.getValue());
+          }
+          break;
+        case "writeCoalescingMaxBytes":
+          if (member.getValue() instanceof Number) {
+            obj.setWriteCoalescingMaxBytes(((Number)member.getValue()).intValue());
+          }
+          break;
       }
     }
   }
@@ -251,6 +286,7 @@ import java.time.format.DateTimeFormatter;
     if (obj.getClientAuth() != null) {
       json.put("clientAuth", obj.getClientAuth().name());
     }
+    json.put("clusterConnections", obj.getClusterConnections());
     json.put("clusterPingInterval", obj.getClusterPingInterval());
     json.put("clusterPingReplyInterval", obj.getClusterPingReplyInterval());
     if (obj.getClusterPublicHost() != null) {
@@ -258,6 +294,7 @@ import java.time.format.DateTimeFormatter;
     }
     json.put("clusterPublicPort", obj.getClusterPublicPort());
     json.put("clustered", obj.isClustered());
+    json.put("compressionThreshold", obj.getCompressionThreshold());
     json.put("connectTimeout", obj.getConnectTimeout());
     if (obj.getCrlPaths() != null) {
       JsonArray array = new JsonArray();
@@ -286,6 +323,7 @@ import java.time.format.DateTimeFormatter;
     if (obj.getIdleTimeoutUnit() != null) {
       json.put("idleTimeoutUnit", obj.getIdleTimeoutUnit().name());
     }
+    json.put("inlineDelivery", obj.isInlineDelivery());
     if (obj.getJdkSslEngineOptions() != null) {
       json.put("jdkSslEngineOptions", obj.getJdkSslEngineOptions().toJson());
     }
@@ -314,9 +352,13 @@ import java.time.format.DateTimeFormatter;
     json.put("reconnectInterval", obj.getReconnectInterval());
     json.put("reuseAddress", obj.isReuseAddress());
     json.put("reusePort", obj.isReusePort());
+    if (obj.getRoutingStrategy() != null) {
+      json.put("routingStrategy", obj.getRoutingStrategy().name());
+    }
     json.put("sendBufferSize", obj.getSendBufferSize());
     json.put("soLinger", obj.getSoLinger());
     json.put("ssl", obj.isSsl());
+    json.put("subscriptionCacheMaxAge", obj.getSubscriptionCacheMaxAge());
     json.put("tcpCork", obj.isTcpCork());
     json.put("tcpFastOpen", obj.isTcpFastOpen());
     json.put("tcpKeepAlive", obj.isTcpKeepAlive());
@@ -329,5 +371,7 @@ import java.time.format.DateTimeFormatter;
     }
     json.put("useAlpn", obj.isUseAlpn());
     json.put("usePooledBuffers", obj.isUsePooledBuffers());
+    json.put("writeCoalescing", obj.isWriteCoalescing());
+    json.put("writeCoalescingMaxBytes", obj.getWriteCoalescingMaxBytes());
   }
 }
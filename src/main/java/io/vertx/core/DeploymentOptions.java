@@ -33,6 +33,7 @@ public class DeploymentOptions {
   public static final String DEFAULT_ISOLATION_GROUP = null;
   public static final boolean DEFAULT_HA = false;
   public static final int DEFAULT_INSTANCES = 1;
+  public static final boolean DEFAULT_USE_VIRTUAL_THREADS = false;
 
   private JsonObject config;
   private boolean worker;
@@ -45,6 +46,7 @@ public class DeploymentOptions {
   private int instances;
   private List<String> isolatedClasses;
   private TimeUnit maxWorkerExecuteTimeUnit;
+  private boolean useVirtualThreads;
 
   /**
    * Default constructor
@@ -59,6 +61,7 @@ public class DeploymentOptions {
     this.workerPoolSize = VertxOptions.DEFAULT_WORKER_POOL_SIZE;
     this.maxWorkerExecuteTime = VertxOptions.DEFAULT_MAX_WORKER_EXECUTE_TIME;
     this.maxWorkerExecuteTimeUnit = VertxOptions.DEFAULT_MAX_WORKER_EXECUTE_TIME_UNIT;
+    this.useVirtualThreads = DEFAULT_USE_VIRTUAL_THREADS;
   }
 
   /**
@@ -78,6 +81,7 @@ public class DeploymentOptions {
     setWorkerPoolSize(other.workerPoolSize);
     setMaxWorkerExecuteTime(other.maxWorkerExecuteTime);
     this.maxWorkerExecuteTimeUnit = other.maxWorkerExecuteTimeUnit;
+    this.useVirtualThreads = other.useVirtualThreads;
   }
 
   /**
@@ -348,6 +352,28 @@ public class DeploymentOptions {
     return this;
   }
 
+  /**
+   * @return whether the blocking code of the verticle runs on virtual threads
+   */
+  public boolean isUseVirtualThreads() {
+    return useVirtualThreads;
+  }
+
+  /**
+   * Set whether the blocking code of the verticle runs on virtual threads instead of the threads of a worker pool.
+   * <p>
+   * When set, the verticle uses a named worker executor created with {@link Vertx#createSharedVirtualWorkerExecutor},
+   * named after {@link #setWorkerPoolName} when set. The number of concurrent blocking tasks is then not bounded
+   * by {@link #setWorkerPoolSize}.
+   *
+   * @param useVirtualThreads {@code true} to use virtual threads
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeploymentOptions setUseVirtualThreads(boolean useVirtualThreads) {
+    this.useVirtualThreads = useVirtualThreads;
+    return this;
+  }
+
   /**
    * Convert this to JSON
    *
@@ -369,6 +395,7 @@ public class DeploymentOptions {
     if (worker != that.worker) return false;
     if (ha != that.ha) return false;
     if (instances != that.instances) return false;
+    if (useVirtualThreads != that.useVirtualThreads) return false;
     if (config != null ? !config.equals(that.config) : that.config != null) return false;
     if (isolationGroup != null ? !isolationGroup.equals(that.isolationGroup) : that.isolationGroup != null)
       return false;
@@ -390,6 +417,7 @@ public class DeploymentOptions {
     result = 31 * result + (workerPoolName != null ? workerPoolName.hashCode() : 0);
     result = 31 * result + workerPoolSize;
     result = 31 * result + Long.hashCode(maxWorkerExecuteTime);
+    result = 31 * result + (useVirtualThreads ? 1 : 0);
     return result;
   }
 }
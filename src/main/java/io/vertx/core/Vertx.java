@@ -573,6 +573,29 @@ public interface Vertx extends Measured {
    */
   WorkerExecutor createSharedWorkerExecutor(String name, int poolSize, long maxExecuteTime, TimeUnit maxExecuteTimeUnit);
 
+  /**
+   * Like {@link #createSharedVirtualWorkerExecutor(String, long, TimeUnit)} but with the {@link VertxOptions#setMaxWorkerExecuteTime} {@code maxExecuteTime}.
+   */
+  WorkerExecutor createSharedVirtualWorkerExecutor(String name);
+
+  /**
+   * Create a named worker executor running each blocking task on a virtual thread instead of a pooled thread, the
+   * executor should be closed when it's not needed anymore to release resources.<p/>
+   *
+   * The number of concurrent blocking tasks is not bounded by a pool size, ordered tasks are still executed
+   * in order and the max execute time is still reported by the blocked thread checker. The pool metrics of
+   * the executor report a max pool size of {@link Integer#MAX_VALUE}.<p/>
+   *
+   * When the JVM does not support virtual threads, a named worker executor with the {@link VertxOptions#setWorkerPoolSize}
+   * {@code poolSize} is created instead.
+   *
+   * @param name the name of the worker executor
+   * @param maxExecuteTime the value of max worker execute time
+   * @param maxExecuteTimeUnit the value of unit of max worker execute time
+   * @return the named worker executor
+   */
+  WorkerExecutor createSharedVirtualWorkerExecutor(String name, long maxExecuteTime, TimeUnit maxExecuteTimeUnit);
+
   /**
    * @return whether the native transport is used
    */
@@ -20,6 +20,8 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.metrics.MetricsOptions;
 import io.vertx.core.spi.cluster.ClusterManager;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -133,6 +135,41 @@ public class VertxOptions {
    */
   public static final boolean DEFAULT_PREFER_NATIVE_TRANSPORT = false;
 
+  /**
+   * The default value for using a work stealing worker pool = false
+   */
+  public static final boolean DEFAULT_WORK_STEALING_WORKER_POOL = false;
+
+  /**
+   * The default value of whether event loop statistics are recorded = false
+   */
+  public static final boolean DEFAULT_EVENT_LOOP_METRICS_ENABLED = false;
+
+  /**
+   * The default value for binding event loop threads to CPUs = false
+   */
+  public static final boolean DEFAULT_EVENT_LOOP_CPU_AFFINITY = false;
+
+  /**
+   * The default value for scheduling timers on a timer wheel = false
+   */
+  public static final boolean DEFAULT_TIMER_WHEEL = false;
+
+  /**
+   * The default value of the blocked thread sampling threshold = 0 (sampling disabled)
+   */
+  public static final int DEFAULT_BLOCKED_THREAD_SAMPLING_THRESHOLD = 0;
+
+  /**
+   * The default value of the blocked thread sampling interval = 10 ms
+   */
+  public static final long DEFAULT_BLOCKED_THREAD_SAMPLING_INTERVAL = 10;
+
+  /**
+   * The default value of the blocked thread sampling interval unit = TimeUnit.MILLISECONDS
+   */
+  public static final TimeUnit DEFAULT_BLOCKED_THREAD_SAMPLING_INTERVAL_UNIT = TimeUnit.MILLISECONDS;
+
   /**
    * The default value of warning exception time 5000000000 ns (5 seconds)
    * If a thread is blocked longer than this threshold, the warning log
@@ -161,6 +198,14 @@ public class VertxOptions {
   private EventBusOptions eventBusOptions = new EventBusOptions();
   private AddressResolverOptions addressResolverOptions = new AddressResolverOptions();
   private boolean preferNativeTransport = DEFAULT_PREFER_NATIVE_TRANSPORT;
+  private boolean workStealingWorkerPool = DEFAULT_WORK_STEALING_WORKER_POOL;
+  private boolean eventLoopMetricsEnabled = DEFAULT_EVENT_LOOP_METRICS_ENABLED;
+  private boolean eventLoopCpuAffinity = DEFAULT_EVENT_LOOP_CPU_AFFINITY;
+  private List<Integer> eventLoopCpus = new ArrayList<>();
+  private boolean timerWheel = DEFAULT_TIMER_WHEEL;
+  private int blockedThreadSamplingThreshold = DEFAULT_BLOCKED_THREAD_SAMPLING_THRESHOLD;
+  private long blockedThreadSamplingInterval = DEFAULT_BLOCKED_THREAD_SAMPLING_INTERVAL;
+  private TimeUnit blockedThreadSamplingIntervalUnit = DEFAULT_BLOCKED_THREAD_SAMPLING_INTERVAL_UNIT;
   private TimeUnit maxEventLoopExecuteTimeUnit = DEFAULT_MAX_EVENT_LOOP_EXECUTE_TIME_UNIT;
   private TimeUnit maxWorkerExecuteTimeUnit = DEFAULT_MAX_WORKER_EXECUTE_TIME_UNIT;
   private TimeUnit warningExceptionTimeUnit = DEFAULT_WARNING_EXCEPTION_TIME_UNIT;
@@ -197,6 +242,14 @@ public class VertxOptions {
     this.maxWorkerExecuteTimeUnit = other.maxWorkerExecuteTimeUnit;
     this.warningExceptionTimeUnit = other.warningExceptionTimeUnit;
     this.blockedThreadCheckIntervalUnit = other.blockedThreadCheckIntervalUnit;
+    this.workStealingWorkerPool = other.workStealingWorkerPool;
+    this.eventLoopMetricsEnabled = other.eventLoopMetricsEnabled;
+    this.eventLoopCpuAffinity = other.eventLoopCpuAffinity;
+    this.eventLoopCpus = other.eventLoopCpus != null ? new ArrayList<>(other.eventLoopCpus) : null;
+    this.timerWheel = other.timerWheel;
+    this.blockedThreadSamplingThreshold = other.blockedThreadSamplingThreshold;
+    this.blockedThreadSamplingInterval = other.blockedThreadSamplingInterval;
+    this.blockedThreadSamplingIntervalUnit = other.blockedThreadSamplingIntervalUnit;
   }
 
   /**
@@ -552,6 +605,211 @@ public class VertxOptions {
     return this;
   }
 
+  /**
+   * @return whether the worker pools use a work stealing scheduler
+   */
+  public boolean isWorkStealingWorkerPool() {
+    return workStealingWorkerPool;
+  }
+
+  /**
+   * Set whether the worker pools use a work stealing scheduler.
+   * <p>
+   * When enabled, each worker thread owns a task queue and idle worker threads steal tasks from the queues of the
+   * other threads, instead of all worker threads contending on the head of a single shared queue. This applies to the
+   * worker pool and to the named worker pools.
+   *
+   * @param workStealingWorkerPool {@code true} to use a work stealing scheduler
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setWorkStealingWorkerPool(boolean workStealingWorkerPool) {
+    this.workStealingWorkerPool = workStealingWorkerPool;
+    return this;
+  }
+
+  /**
+   * @return whether the event loop threads record task duration, scheduling lag and queue depth statistics
+   */
+  public boolean isEventLoopMetricsEnabled() {
+    return eventLoopMetricsEnabled;
+  }
+
+  /**
+   * Set whether the event loop threads record task duration, scheduling lag and queue depth statistics, the statistics
+   * are reported to the metrics SPI with {@link io.vertx.core.spi.metrics.VertxMetrics#eventLoopStatistics} every
+   * {@link #getBlockedThreadCheckInterval() blocked thread check interval}.
+   *
+   * @param eventLoopMetricsEnabled true to record event loop statistics
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setEventLoopMetricsEnabled(boolean eventLoopMetricsEnabled) {
+    this.eventLoopMetricsEnabled = eventLoopMetricsEnabled;
+    return this;
+  }
+
+  /**
+   * @return whether event loop threads are bound to CPUs
+   */
+  public boolean isEventLoopCpuAffinity() {
+    return eventLoopCpuAffinity;
+  }
+
+  /**
+   * Set whether event loop threads are bound to CPUs.
+   * <p>
+   * When enabled, each event loop thread is bound to a CPU of {@link #getEventLoopCpus()}, or to a CPU of each
+   * physical core read from {@code /sys/devices/system/cpu} when no CPUs are configured. The worker threads are
+   * bound to the remaining CPUs, if any, so they do not run on the event loop cores.
+   * <p>
+   * Threads are bound with Java Thread Affinity which must be on the class path, otherwise a warning is logged and
+   * the threads are not bound.
+   *
+   * @param eventLoopCpuAffinity {@code true} to bind event loop threads to CPUs
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setEventLoopCpuAffinity(boolean eventLoopCpuAffinity) {
+    this.eventLoopCpuAffinity = eventLoopCpuAffinity;
+    return this;
+  }
+
+  /**
+   * @return the CPUs the event loop threads are bound to
+   */
+  public List<Integer> getEventLoopCpus() {
+    return eventLoopCpus;
+  }
+
+  /**
+   * Set the CPUs the event loop threads are bound to when {@link #isEventLoopCpuAffinity()} is enabled, the n-th
+   * event loop thread is bound to the n-th CPU of the list modulo the size of the list.
+   * <p>
+   * When the list is empty, one CPU per physical core is used. The CPUs must be allowed by the affinity mask of the
+   * process, otherwise the creation of the Vert.x instance fails with an {@link IllegalArgumentException}.
+   *
+   * @param eventLoopCpus the CPU indexes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setEventLoopCpus(List<Integer> eventLoopCpus) {
+    this.eventLoopCpus = eventLoopCpus;
+    return this;
+  }
+
+  /**
+   * Add a CPU the event loop threads are bound to.
+   *
+   * @param cpu the CPU index
+   * @return a reference to this, so the API can be used fluently
+   * @see #setEventLoopCpus(List)
+   */
+  public VertxOptions addEventLoopCpu(int cpu) {
+    if (cpu < 0) {
+      throw new IllegalArgumentException("cpu must be >= 0");
+    }
+    if (eventLoopCpus == null) {
+      eventLoopCpus = new ArrayList<>();
+    }
+    eventLoopCpus.add(cpu);
+    return this;
+  }
+
+  /**
+   * @return whether timers are scheduled on a timer wheel
+   */
+  public boolean isTimerWheel() {
+    return timerWheel;
+  }
+
+  /**
+   * Set whether timers are scheduled on a timer wheel.
+   * <p>
+   * When enabled, each event loop drives a hierarchical timer wheel with a millisecond resolution: setting and
+   * cancelling a timer are constant time operations that do not use the event loop scheduled task queue nor a map
+   * shared by all the event loops. This is useful when many timers are set and most of them are cancelled before
+   * they fire, e.g. request timeouts.
+   *
+   * @param timerWheel {@code true} to use a timer wheel
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setTimerWheel(boolean timerWheel) {
+    this.timerWheel = timerWheel;
+    return this;
+  }
+
+  /**
+   * @return the blocked thread sampling threshold, as a percentage of the max event loop execute time
+   */
+  public int getBlockedThreadSamplingThreshold() {
+    return blockedThreadSamplingThreshold;
+  }
+
+  /**
+   * Set the blocked thread sampling threshold, as a percentage of the {@link #setMaxEventLoopExecuteTime max event
+   * loop execute time}.
+   * <p>
+   * When the threshold is greater than {@code 0}, the blocked thread checker samples the stack of the event loop
+   * threads executing a task for longer than the threshold every {@link #setBlockedThreadSamplingInterval blocked
+   * thread sampling interval}. The samples are aggregated as folded stacks that can be rendered as a flame graph to find the
+   * code stalling the event loops.
+   * <p>
+   * The default value is {@code 0} (sampling disabled).
+   *
+   * @param blockedThreadSamplingThreshold the threshold, between {@code 0} and {@code 100}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setBlockedThreadSamplingThreshold(int blockedThreadSamplingThreshold) {
+    if (blockedThreadSamplingThreshold < 0 || blockedThreadSamplingThreshold > 100) {
+      throw new IllegalArgumentException("blockedThreadSamplingThreshold must be between 0 and 100");
+    }
+    this.blockedThreadSamplingThreshold = blockedThreadSamplingThreshold;
+    return this;
+  }
+
+  /**
+   * @return the blocked thread sampling interval, in {@link #setBlockedThreadSamplingIntervalUnit blockedThreadSamplingIntervalUnit}
+   */
+  public long getBlockedThreadSamplingInterval() {
+    return blockedThreadSamplingInterval;
+  }
+
+  /**
+   * Set the interval between two samples of the event loop threads when the {@link #setBlockedThreadSamplingThreshold
+   * blocked thread sampling threshold} is greater than {@code 0}, in {@link #setBlockedThreadSamplingIntervalUnit
+   * blockedThreadSamplingIntervalUnit}.
+   * <p>
+   * The sampling runs on its own timer, independently of the {@link #setBlockedThreadCheckInterval blocked thread
+   * check interval}, a short interval gives more precise flame graphs at the cost of more stack walks.
+   * <p>
+   * The default value is {@code 10} ms.
+   *
+   * @param blockedThreadSamplingInterval the sampling interval
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setBlockedThreadSamplingInterval(long blockedThreadSamplingInterval) {
+    if (blockedThreadSamplingInterval < 1) {
+      throw new IllegalArgumentException("blockedThreadSamplingInterval must be > 0");
+    }
+    this.blockedThreadSamplingInterval = blockedThreadSamplingInterval;
+    return this;
+  }
+
+  /**
+   * @return the time unit of {@code blockedThreadSamplingInterval}
+   */
+  public TimeUnit getBlockedThreadSamplingIntervalUnit() {
+    return blockedThreadSamplingIntervalUnit;
+  }
+
+  /**
+   * Set the time unit of {@code blockedThreadSamplingInterval}.
+   *
+   * @param blockedThreadSamplingIntervalUnit the time unit of {@code blockedThreadSamplingInterval}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setBlockedThreadSamplingIntervalUnit(TimeUnit blockedThreadSamplingIntervalUnit) {
+    this.blockedThreadSamplingIntervalUnit = blockedThreadSamplingIntervalUnit;
+    return this;
+  }
+
   /**
    * Will HA be enabled on the Vert.x instance?
    *
@@ -864,6 +1122,14 @@ public class VertxOptions {
     if (addressResolverOptions != null ? !addressResolverOptions.equals(that.addressResolverOptions) : that.addressResolverOptions != null)
       return false;
     if (preferNativeTransport != that.preferNativeTransport) return false;
+    if (workStealingWorkerPool != that.workStealingWorkerPool) return false;
+    if (eventLoopMetricsEnabled != that.eventLoopMetricsEnabled) return false;
+    if (eventLoopCpuAffinity != that.eventLoopCpuAffinity) return false;
+    if (!Objects.equals(eventLoopCpus, that.eventLoopCpus)) return false;
+    if (timerWheel != that.timerWheel) return false;
+    if (blockedThreadSamplingThreshold != that.blockedThreadSamplingThreshold) return false;
+    if (blockedThreadSamplingInterval != that.blockedThreadSamplingInterval) return false;
+    if (blockedThreadSamplingIntervalUnit != that.blockedThreadSamplingIntervalUnit) return false;
     if (fileSystemOptions != null ? !fileSystemOptions.equals(that.fileSystemOptions) : that.fileSystemOptions != null) {
       return false;
     }
@@ -881,6 +1147,14 @@ public class VertxOptions {
     result = 31 * result + (clusterManager != null ? clusterManager.hashCode() : 0);
     result = 31 * result + (haEnabled ? 1 : 0);
     result = 31 * result + (preferNativeTransport ? 1 : 0);
+    result = 31 * result + (workStealingWorkerPool ? 1 : 0);
+    result = 31 * result + (eventLoopMetricsEnabled ? 1 : 0);
+    result = 31 * result + (eventLoopCpuAffinity ? 1 : 0);
+    result = 31 * result + (eventLoopCpus != null ? eventLoopCpus.hashCode() : 0);
+    result = 31 * result + (timerWheel ? 1 : 0);
+    result = 31 * result + blockedThreadSamplingThreshold;
+    result = 31 * result + (int) (blockedThreadSamplingInterval ^ (blockedThreadSamplingInterval >>> 32));
+    result = 31 * result + (blockedThreadSamplingIntervalUnit != null ? blockedThreadSamplingIntervalUnit.hashCode() : 0);
     result = 31 * result + quorumSize;
     result = 31 * result + (haGroup != null ? haGroup.hashCode() : 0);
     result = 31 * result + (metricsOptions != null ? metricsOptions.hashCode() : 0);
@@ -910,6 +1184,14 @@ public class VertxOptions {
         ", clusterManager=" + clusterManager +
         ", haEnabled=" + haEnabled +
         ", preferNativeTransport=" + preferNativeTransport +
+        ", workStealingWorkerPool=" + workStealingWorkerPool +
+        ", eventLoopMetricsEnabled=" + eventLoopMetricsEnabled +
+        ", eventLoopCpuAffinity=" + eventLoopCpuAffinity +
+        ", eventLoopCpus=" + eventLoopCpus +
+        ", timerWheel=" + timerWheel +
+        ", blockedThreadSamplingThreshold=" + blockedThreadSamplingThreshold +
+        ", blockedThreadSamplingInterval=" + blockedThreadSamplingInterval +
+        ", blockedThreadSamplingIntervalUnit=" + blockedThreadSamplingIntervalUnit +
         ", quorumSize=" + quorumSize +
         ", haGroup='" + haGroup + '\'' +
         ", metrics=" + metricsOptions +
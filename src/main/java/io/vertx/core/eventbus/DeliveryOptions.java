@@ -42,10 +42,22 @@ public class DeliveryOptions {
    */
   public static final boolean DEFAULT_LOCAL_ONLY = false;
 
+  /**
+   * Whether the message should be delivered inline to the consumers of the sender context by default = false.
+   */
+  public static final boolean DEFAULT_INLINE_DELIVERY = false;
+
+  /**
+   * Whether the message body is immutable by default = false.
+   */
+  public static final boolean DEFAULT_IMMUTABLE_BODY = false;
+
   private long timeout = DEFAULT_TIMEOUT;
   private String codecName;
   private MultiMap headers;
   private boolean localOnly = DEFAULT_LOCAL_ONLY;
+  private boolean inlineDelivery = DEFAULT_INLINE_DELIVERY;
+  private boolean immutableBody = DEFAULT_IMMUTABLE_BODY;
 
   /**
    * Default constructor
@@ -63,6 +75,8 @@ public class DeliveryOptions {
     this.codecName = other.getCodecName();
     this.headers = other.getHeaders();
     this.localOnly = other.localOnly;
+    this.inlineDelivery = other.inlineDelivery;
+    this.immutableBody = other.immutableBody;
   }
 
   /**
@@ -84,6 +98,8 @@ public class DeliveryOptions {
       }
     }
     this.localOnly = json.getBoolean("localOnly", DEFAULT_LOCAL_ONLY);
+    this.inlineDelivery = json.getBoolean("inlineDelivery", DEFAULT_INLINE_DELIVERY);
+    this.immutableBody = json.getBoolean("immutableBody", DEFAULT_IMMUTABLE_BODY);
   }
 
   /**
@@ -101,6 +117,8 @@ public class DeliveryOptions {
       json.put("headers", hJson);
     }
     json.put("localOnly", localOnly);
+    json.put("inlineDelivery", inlineDelivery);
+    json.put("immutableBody", immutableBody);
     return json;
   }
 
@@ -218,4 +236,55 @@ public class DeliveryOptions {
     this.localOnly = localOnly;
     return this;
   }
+
+  /**
+   * @return whether the message should be delivered inline to the consumers of the sender context
+   */
+  public boolean isInlineDelivery() {
+    return inlineDelivery;
+  }
+
+  /**
+   * Whether a message should be delivered inline to the consumers registered on the sender context. Defaults to {@code false}.
+   * <p>
+   * When the sender runs on an event loop context, the consumers registered on this context are called without
+   * scheduling a task on the context. The consumers are called after the sender returns when the message is sent
+   * by a consumer called inline, otherwise before {@code send} or {@code publish} returns. A consumer with messages
+   * scheduled on its context and not yet delivered receives the message after them, like without inline delivery.
+   * <p>
+   * This can also be enabled for all messages with {@link EventBusOptions#setInlineDelivery(boolean)}.
+   *
+   * @param inlineDelivery {@code true} to deliver inline, {@code false} otherwise
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeliveryOptions setInlineDelivery(boolean inlineDelivery) {
+    this.inlineDelivery = inlineDelivery;
+    return this;
+  }
+
+  /**
+   * @return whether the message body is immutable
+   */
+  public boolean isImmutableBody() {
+    return immutableBody;
+  }
+
+  /**
+   * Whether the message body is immutable. Defaults to {@code false}.
+   * <p>
+   * The local consumers of a message receive a copy of mutable bodies, e.g {@link io.vertx.core.json.JsonObject},
+   * {@link io.vertx.core.json.JsonArray}, {@link io.vertx.core.buffer.Buffer} or {@code byte[]}, so they cannot
+   * observe the changes made by the sender or by the other consumers. When the body is immutable, i.e neither the sender
+   * nor the consumers modify it after it is sent, the consumers share the instance sent instead of a copy.
+   * <p>
+   * This applies to the bodies of the types supported by default, the bodies encoded by a registered
+   * {@link MessageCodec} are always transformed with {@link MessageCodec#transform(Object)}.
+   *
+   * @param immutableBody {@code true} when the body is immutable, {@code false} otherwise
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeliveryOptions setImmutableBody(boolean immutableBody) {
+    this.immutableBody = immutableBody;
+    return this;
+  }
 }
@@ -13,11 +13,14 @@ package io.vertx.core.eventbus;
 
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.Nullable;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.metrics.Measured;
 
+import java.util.List;
+
 /**
  * A Vert.x event-bus is a light-weight distributed messaging system which allows different parts of your application,
  * or different applications and services to communicate with each in a loosely coupled way.
@@ -81,6 +84,32 @@ public interface EventBus extends Measured {
   @Fluent
   <T> EventBus send(String address, Object message, DeliveryOptions options, Handler<AsyncResult<Message<T>>> replyHandler);
 
+  /**
+   * Send a request which replies are streamed by the recipient with {@link Message#replyStream()}.
+   * <p>
+   * The returned consumer receives the replies, the request is sent when its handler is set. The replies are
+   * flow controlled: when the consumer is paused, the recipient stops writing replies once its write queue is full.
+   * The end handler is called after the last reply and the exception handler is called with a {@link ReplyException}
+   * when the recipient fails the request, when there is no recipient or when no reply is received before the
+   * {@link DeliveryOptions#getSendTimeout() send timeout}. A plain reply sent with
+   * {@link Message#reply(Object)} is received as the single reply of the stream.
+   *
+   * @param address  the address to send it to
+   * @param message  the message, may be {@code null}
+   * @return the consumer of the replies
+   */
+  <T> MessageConsumer<T> requestStream(String address, Object message);
+
+  /**
+   * Like {@link #requestStream(String, Object)} but specifying {@code options} that can be used to configure the delivery.
+   *
+   * @param address  the address to send it to
+   * @param message  the message, may be {@code null}
+   * @param options  delivery options
+   * @return the consumer of the replies
+   */
+  <T> MessageConsumer<T> requestStream(String address, Object message, DeliveryOptions options);
+
   /**
    * Publish a message.<p>
    * The message will be delivered to all handlers registered to the address.
@@ -104,6 +133,52 @@ public interface EventBus extends Measured {
   @Fluent
   EventBus publish(String address, Object message, DeliveryOptions options);
 
+  /**
+   * Send a batch of messages.
+   * <p>
+   * The batch is sent as a single message: the interceptors are called once per batch and a clustered batch is
+   * written in a single frame. The messages of the batch are delivered in order to the same consumer, to its
+   * {@link MessageConsumer#batchHandler(Handler) batch handler} or else one by one to its handler.
+   *
+   * @param address  the address to send it to
+   * @param messages  the messages, an empty batch is not sent
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  EventBus sendBatch(String address, List<Object> messages);
+
+  /**
+   * Like {@link #sendBatch(String, List)} but specifying {@code options} that can be used to configure the delivery.
+   *
+   * @param address  the address to send it to
+   * @param messages  the messages, an empty batch is not sent
+   * @param options  the delivery options
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  EventBus sendBatch(String address, List<Object> messages, DeliveryOptions options);
+
+  /**
+   * Publish a batch of messages, like {@link #sendBatch(String, List)} the batch is published as a single message.
+   *
+   * @param address  the address to publish it to
+   * @param messages  the messages, an empty batch is not published
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  EventBus publishBatch(String address, List<Object> messages);
+
+  /**
+   * Like {@link #publishBatch(String, List)} but specifying {@code options} that can be used to configure the delivery.
+   *
+   * @param address  the address to publish it to
+   * @param messages  the messages, an empty batch is not published
+   * @param options  the delivery options
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  EventBus publishBatch(String address, List<Object> messages, DeliveryOptions options);
+
   /**
    * Create a message consumer against the specified address.
    * <p>
@@ -143,6 +218,33 @@ public interface EventBus extends Measured {
    */
   <T> MessageConsumer<T> localConsumer(String address, Handler<Message<T>> handler);
 
+  /**
+   * Create a message consumer against the specified address pattern.
+   * <p>
+   * A pattern is an address which segments are separated by {@code .}, the segment {@code *} matches exactly one
+   * segment of an address and the last segment of a pattern can be {@code #} which matches zero or more segments,
+   * e.g {@code orders.*.created} matches {@code orders.1234.created} and {@code orders.#} matches {@code orders.1234.created}.
+   * <p>
+   * A message sent to an address is delivered to the consumers of the address, or when there are none to a consumer
+   * of a pattern matching the address. A message published to an address is delivered to the consumers of the address
+   * and to the consumers of the patterns matching the address.
+   * <p>
+   * Like {@link #localConsumer(String)}, the pattern won't be propagated across the cluster.
+   *
+   * @param pattern  the address pattern that it will register it at
+   * @return the event bus message consumer
+   */
+  <T> MessageConsumer<T> patternConsumer(String pattern);
+
+  /**
+   * Like {@link #patternConsumer(String)} and register the {@code handler}.
+   *
+   * @param pattern  the address pattern that will register it at
+   * @param handler  the handler that will process the received messages
+   * @return the event bus message consumer
+   */
+  <T> MessageConsumer<T> patternConsumer(String pattern, Handler<Message<T>> handler);
+
   /**
    * Create a message sender against the specified address.
    * <p>
@@ -235,6 +337,17 @@ public interface EventBus extends Measured {
   @GenIgnore
   EventBus unregisterDefaultCodec(Class clazz);
 
+  /**
+   * Set the strategy choosing the consumer of the point-to-point messages sent to an address that has several
+   * local consumers, overriding {@link EventBusOptions#getRoutingStrategy()} for this address.
+   *
+   * @param address  the address
+   * @param strategy  the routing strategy or {@code null} to use the event bus strategy
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  EventBus setRoutingStrategy(String address, @Nullable RoutingStrategy strategy);
+
   /**
    * Start the event bus. This would not normally be called in user code
    *
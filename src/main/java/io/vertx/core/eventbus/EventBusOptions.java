@@ -19,6 +19,7 @@ import io.vertx.core.http.ClientAuth;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.*;
 
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -34,6 +35,13 @@ public class EventBusOptions extends TCPSSLOptions {
   private int clusterPublicPort = VertxOptions.DEFAULT_CLUSTER_PUBLIC_PORT;
   private long clusterPingInterval = VertxOptions.DEFAULT_CLUSTER_PING_INTERVAL;
   private long clusterPingReplyInterval = VertxOptions.DEFAULT_CLUSTER_PING_REPLY_INTERVAL;
+  private int clusterConnections = DEFAULT_CLUSTER_CONNECTIONS;
+  private boolean inlineDelivery = DeliveryOptions.DEFAULT_INLINE_DELIVERY;
+  private RoutingStrategy routingStrategy = DEFAULT_ROUTING_STRATEGY;
+  private long subscriptionCacheMaxAge = DEFAULT_SUBSCRIPTION_CACHE_MAX_AGE;
+  private boolean writeCoalescing = DEFAULT_WRITE_COALESCING;
+  private int writeCoalescingMaxBytes = DEFAULT_WRITE_COALESCING_MAX_BYTES;
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
 
   // Attributes used to configure the server of the event bus when the event bus is clustered.
 
@@ -84,6 +92,36 @@ public class EventBusOptions extends TCPSSLOptions {
    */
   public static final boolean DEFAULT_TRUST_ALL = true;
 
+  /**
+   * The default routing strategy of the point-to-point messages = {@link RoutingStrategy#ROUND_ROBIN}
+   */
+  public static final RoutingStrategy DEFAULT_ROUTING_STRATEGY = RoutingStrategy.ROUND_ROBIN;
+
+  /**
+   * The default max age of the subscriptions cached by a clustered event bus = 0 (no cache)
+   */
+  public static final long DEFAULT_SUBSCRIPTION_CACHE_MAX_AGE = 0;
+
+  /**
+   * The default value of whether a clustered event bus coalesces the messages written to a node = false
+   */
+  public static final boolean DEFAULT_WRITE_COALESCING = false;
+
+  /**
+   * The default max bytes of the messages coalesced in a single write = 65536
+   */
+  public static final int DEFAULT_WRITE_COALESCING_MAX_BYTES = 64 * 1024;
+
+  /**
+   * The default number of connections of a clustered event bus to a node = 1
+   */
+  public static final int DEFAULT_CLUSTER_CONNECTIONS = 1;
+
+  /**
+   * The default min size of the message bodies compressed by a clustered event bus = -1 (no compression)
+   */
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = -1;
+
   private int reconnectAttempts;
   private long reconnectInterval;
 
@@ -123,6 +161,13 @@ public class EventBusOptions extends TCPSSLOptions {
     this.clusterPublicPort = other.clusterPublicPort;
     this.clusterPingInterval = other.clusterPingInterval;
     this.clusterPingReplyInterval = other.clusterPingReplyInterval;
+    this.clusterConnections = other.clusterConnections;
+    this.inlineDelivery = other.inlineDelivery;
+    this.routingStrategy = other.routingStrategy;
+    this.subscriptionCacheMaxAge = other.subscriptionCacheMaxAge;
+    this.writeCoalescing = other.writeCoalescing;
+    this.writeCoalescingMaxBytes = other.writeCoalescingMaxBytes;
+    this.compressionThreshold = other.compressionThreshold;
 
     this.port = other.port;
     this.host = other.host;
@@ -587,6 +632,30 @@ public class EventBusOptions extends TCPSSLOptions {
     return this;
   }
 
+  /**
+   * @return the number of connections of a clustered event bus to a node
+   */
+  public int getClusterConnections() {
+    return clusterConnections;
+  }
+
+  /**
+   * Set the number of connections of a clustered event bus to a node.
+   * <p>
+   * The messages sent to a node are sharded among the connections by the hash of their address, so the messages sent
+   * to an address keep their order, and the connections are handled by different event loops on both nodes.
+   *
+   * @param clusterConnections the number of connections
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterConnections(int clusterConnections) {
+    if (clusterConnections < 1) {
+      throw new IllegalArgumentException("clusterConnections must be > 0");
+    }
+    this.clusterConnections = clusterConnections;
+    return this;
+  }
+
   /**
    * Get the public facing port to be used when clustering.
    * <p>
@@ -639,4 +708,140 @@ public class EventBusOptions extends TCPSSLOptions {
     this.clusterPublicPort = clusterPublicPort;
     return this;
   }
+
+  /**
+   * @return whether messages are delivered inline to the consumers of the sender context
+   */
+  public boolean isInlineDelivery() {
+    return inlineDelivery;
+  }
+
+  /**
+   * Set whether all messages are delivered inline to the consumers registered on the sender context, see
+   * {@link DeliveryOptions#setInlineDelivery(boolean)}.
+   *
+   * @param inlineDelivery {@code true} to deliver inline, {@code false} otherwise
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setInlineDelivery(boolean inlineDelivery) {
+    this.inlineDelivery = inlineDelivery;
+    return this;
+  }
+
+  /**
+   * @return the routing strategy of the point-to-point messages
+   */
+  public RoutingStrategy getRoutingStrategy() {
+    return routingStrategy;
+  }
+
+  /**
+   * Set the strategy choosing the consumer of a point-to-point message when an address has several consumers, it can
+   * be overridden per address with {@link EventBus#setRoutingStrategy(String, RoutingStrategy)}.
+   *
+   * @param routingStrategy the routing strategy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setRoutingStrategy(RoutingStrategy routingStrategy) {
+    this.routingStrategy = Objects.requireNonNull(routingStrategy, "No null routing strategy accepted");
+    return this;
+  }
+
+  /**
+   * @return the max age of the subscriptions cached by a clustered event bus, in ms
+   */
+  public long getSubscriptionCacheMaxAge() {
+    return subscriptionCacheMaxAge;
+  }
+
+  /**
+   * Set the max age of the subscriptions cached by a clustered event bus, in ms.
+   * <p>
+   * A clustered event bus caches the nodes subscribed to an address, so sending a message does not look them up in
+   * the cluster manager. The nodes of an address are cached until this delay elapses, until a node leaves the
+   * cluster or until this node subscribes to or unsubscribes from the address: the subscriptions of other nodes to an
+   * address which has subscribers can be seen after this delay.
+   * <p>
+   * The default value is {@code 0} which disables the cache.
+   *
+   * @param subscriptionCacheMaxAge the max age in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setSubscriptionCacheMaxAge(long subscriptionCacheMaxAge) {
+    if (subscriptionCacheMaxAge < 0) {
+      throw new IllegalArgumentException("subscriptionCacheMaxAge must be >= 0");
+    }
+    this.subscriptionCacheMaxAge = subscriptionCacheMaxAge;
+    return this;
+  }
+
+  /**
+   * @return whether a clustered event bus coalesces the messages written to a node
+   */
+  public boolean isWriteCoalescing() {
+    return writeCoalescing;
+  }
+
+  /**
+   * Set whether a clustered event bus coalesces the messages written to a node.
+   * <p>
+   * The messages written to a node during an event loop task are written with a single write and flush when the
+   * task completes, or when they reach {@link #setWriteCoalescingMaxBytes(int)} bytes, instead of a write and flush
+   * per message.
+   *
+   * @param writeCoalescing {@code true} to coalesce the writes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setWriteCoalescing(boolean writeCoalescing) {
+    this.writeCoalescing = writeCoalescing;
+    return this;
+  }
+
+  /**
+   * @return the max bytes of the messages coalesced in a single write
+   */
+  public int getWriteCoalescingMaxBytes() {
+    return writeCoalescingMaxBytes;
+  }
+
+  /**
+   * Set the max bytes of the messages coalesced in a single write, the coalesced messages are written as soon as they
+   * reach this size.
+   *
+   * @param writeCoalescingMaxBytes the max bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setWriteCoalescingMaxBytes(int writeCoalescingMaxBytes) {
+    if (writeCoalescingMaxBytes < 1) {
+      throw new IllegalArgumentException("writeCoalescingMaxBytes must be > 0");
+    }
+    this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+    return this;
+  }
+
+  /**
+   * @return the min size of the message bodies compressed by a clustered event bus, {@code -1} when compression is
+   * disabled
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Set the min size of the message bodies compressed by a clustered event bus.
+   * <p>
+   * The bodies of this size or larger sent to a node are compressed with deflate when they are smaller once compressed.
+   * Bodies are compressed only when the node supports compression, so nodes of older versions still receive
+   * uncompressed messages.
+   *
+   * @param compressionThreshold the min size in bytes, or {@code -1} to disable compression
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setCompressionThreshold(int compressionThreshold) {
+    if (compressionThreshold < -1) {
+      throw new IllegalArgumentException("compressionThreshold must be >= -1");
+    }
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
 }
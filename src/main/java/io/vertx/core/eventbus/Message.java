@@ -116,4 +116,26 @@ public interface Message<T> {
    */
   void fail(int failureCode, String message);
 
+  /**
+   * Create a stream of replies to this message, the message must have been sent with
+   * {@link EventBus#requestStream(String, Object)}.
+   * <p>
+   * Each write sends a reply, {@link MessageProducer#writeQueueFull()} and the drain handler follow the demand of the
+   * consumer of the replies. {@link MessageProducer#end()} ends the stream once the written replies are sent and
+   * {@link #fail(int, String)} fails it.
+   *
+   * @return the stream of replies
+   * @throws IllegalStateException when the message does not expect replies
+   */
+  <R> MessageProducer<R> replyStream();
+
+  /**
+   * Like {@link #replyStream()} but specifying delivery options for the replies.
+   *
+   * @param options  the delivery options
+   * @return the stream of replies
+   * @throws IllegalStateException when the message does not expect replies
+   */
+  <R> MessageProducer<R> replyStream(DeliveryOptions options);
+
 }
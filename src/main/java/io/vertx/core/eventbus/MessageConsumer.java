@@ -16,6 +16,8 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.streams.ReadStream;
 
+import java.util.List;
+
 /**
  * An event bus consumer object representing a stream of message to an {@link EventBus} address that can
  * be read from.
@@ -38,6 +40,22 @@ public interface MessageConsumer<T> extends ReadStream<Message<T>> {
   @Override
   MessageConsumer<T> handler(Handler<Message<T>> handler);
 
+  /**
+   * Set a handler called with the bodies of the batches sent with {@link EventBus#sendBatch} or
+   * {@link EventBus#publishBatch}, like {@link #handler(Handler)} setting a handler registers this consumer.
+   * <p>
+   * When a batch handler is set, the batches are delivered at once to it, otherwise the messages of a batch are
+   * delivered one by one to the {@link #handler(Handler) handler}. The messages which are not batches are delivered
+   * to the handler, or as a batch of one message to the batch handler when there is no handler.
+   * <p>
+   * Flow control applies to the batches: a batch is a single message for {@link #fetch(long)} and
+   * {@link #setMaxBufferedMessages(int)}.
+   *
+   * @param handler the batch handler
+   * @return a reference to this, so the API can be used fluently
+   */
+  MessageConsumer<T> batchHandler(Handler<List<T>> handler);
+
   @Override
   MessageConsumer<T> pause();
 
@@ -82,6 +100,20 @@ public interface MessageConsumer<T> extends ReadStream<Message<T>> {
    */
   int getMaxBufferedMessages();
 
+  /**
+   * Set what this registration does with a message received when it already buffers the maximum number of messages.
+   * The default value is {@link OverflowPolicy#DROP_NEWEST}.
+   *
+   * @param policy the overflow policy
+   * @return this registration
+   */
+  MessageConsumer<T> setOverflowPolicy(OverflowPolicy policy);
+
+  /**
+   * @return the overflow policy
+   */
+  OverflowPolicy getOverflowPolicy();
+
   /**
    * Optional method which can be called to indicate when the registration has been propagated across the cluster.
    *
@@ -17,6 +17,8 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.streams.WriteStream;
 
+import java.util.List;
+
 /**
  * Represents a stream of message that can be written to.
  * <p>
@@ -53,6 +55,19 @@ public interface MessageProducer<T> extends WriteStream<T> {
   @Override
   MessageProducer<T> write(T data);
 
+  /**
+   * Write a batch of messages, the messages are sent with {@link EventBus#sendBatch} or {@link EventBus#publishBatch}
+   * according to this producer semantic.
+   * <p>
+   * Each message of the batch consumes a credit of the write queue, the messages exceeding the available credits
+   * are queued and sent in batches when credits are received.
+   *
+   * @param data the messages
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  MessageProducer<T> writeBatch(List<T> data);
+
   @Override
   MessageProducer<T> setWriteQueueMaxSize(int maxSize);
 
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.core.eventbus;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * What a paused {@link MessageConsumer} does with a message received when it already buffers
+ * {@link MessageConsumer#getMaxBufferedMessages()} messages.
+ */
+@VertxGen
+public enum OverflowPolicy {
+
+  /**
+   * The received message is discarded.
+   */
+  DROP_NEWEST,
+
+  /**
+   * The oldest buffered message is discarded and the received message is buffered.
+   */
+  DROP_OLDEST,
+
+  /**
+   * The received message is discarded and its sender receives a {@link ReplyFailure#OVERFLOW} failure when it
+   * expects a reply.
+   */
+  FAIL_SENDER
+
+}
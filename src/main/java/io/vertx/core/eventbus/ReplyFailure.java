@@ -34,13 +34,23 @@ public enum ReplyFailure {
   /**
    * The message send failed because the recipient actively sent back a failure (rejected the message)
    */
-  RECIPIENT_FAILURE;
+  RECIPIENT_FAILURE,
+
+  /**
+   * The message send failed because the recipient was paused and could not buffer more messages, see
+   * {@link OverflowPolicy#FAIL_SENDER}
+   * <p>
+   * In a cluster, the failure is sent as a {@link #RECIPIENT_FAILURE} followed by this failure type, so the nodes that
+   * do not know this failure type receive a {@link #RECIPIENT_FAILURE}.
+   */
+  OVERFLOW;
 
   public static ReplyFailure fromInt(int i) {
     switch (i) {
       case 0: return TIMEOUT;
       case 1: return NO_HANDLERS;
       case 2: return RECIPIENT_FAILURE;
+      case 3: return OVERFLOW;
       default: throw new IllegalStateException("Invalid index " + i);
     }
   }
@@ -50,6 +60,7 @@ public enum ReplyFailure {
       case TIMEOUT: return 0;
       case NO_HANDLERS: return 1;
       case RECIPIENT_FAILURE: return 2;
+      case OVERFLOW: return 3;
       default: throw new IllegalStateException("How did we get here?");
     }
   }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+
+package io.vertx.core.eventbus;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * How the event bus chooses the consumer of a message sent point-to-point to an address that has several consumers.
+ * <p/>
+ * The load of a consumer is the number of messages scheduled on its context and not yet delivered plus the number of
+ * messages it buffers while paused.
+ */
+@VertxGen
+public enum RoutingStrategy {
+
+  /**
+   * The consumers are chosen in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The consumer with the lowest load is chosen, all the consumers are compared.
+   */
+  LEAST_PENDING,
+
+  /**
+   * The consumer with the lowest load among two consumers picked at random is chosen.
+   */
+  POWER_OF_TWO_CHOICES,
+
+  /**
+   * A consumer registered on the sender context is chosen, or otherwise a consumer on the sender event loop, or
+   * otherwise the consumers are chosen in turn.
+   */
+  CONTEXT_AFFINITY
+
+}
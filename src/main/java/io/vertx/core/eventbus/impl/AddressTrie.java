@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.eventbus.impl;
+
+import io.vertx.core.impl.utils.ConcurrentCyclicSequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The handlers registered with an address pattern, indexed by a trie of the pattern segments.
+ * <p/>
+ * Patterns are addresses split in segments by {@code .}, the segment {@code *} matches exactly one segment of an
+ * address and the last segment of a pattern can be {@code #} which matches zero or more segments, e.g
+ * {@code orders.*.created} matches {@code orders.1234.created} and {@code orders.#} matches {@code orders} and
+ * {@code orders.1234.created}.
+ * <p/>
+ * Matching an address walks the trie once per segment, so the cost is proportional to the address depth and not to
+ * the number of patterns. The matching handlers of an address, or the absence of match, are cached until the next
+ * registration change, so the hot addresses are resolved with a single map lookup.
+ * <p/>
+ * Modifications are synchronized, matching is lock-free.
+ */
+class AddressTrie {
+
+  static final String ONE = "*";
+  static final String ANY = "#";
+
+  /**
+   * The max number of cached addresses, the cache is cleared when it is full.
+   */
+  static final int MAX_CACHED_ADDRESSES = 1024;
+
+  /**
+   * @return whether {@code address} is a valid pattern
+   */
+  static boolean isValidPattern(String address) {
+    int idx = address.indexOf(ANY);
+    return idx == -1 || (idx == address.length() - 1 && (idx == 0 || address.charAt(idx - 1) == '.'));
+  }
+
+  private final Node root = new Node();
+  private final ConcurrentMap<String, Resolution> cache = new ConcurrentHashMap<>();
+  private volatile int generation;
+  private volatile int size;
+
+  /**
+   * @return whether there are no handlers
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Add the {@code holder} of the {@code pattern}.
+   *
+   * @return whether it is the first handler of this pattern
+   */
+  synchronized boolean add(String pattern, HandlerHolder holder) {
+    Node node = root;
+    int start = 0;
+    while (true) {
+      int end = segmentEnd(pattern, start);
+      String segment = pattern.substring(start, end);
+      if (end == pattern.length() && segment.equals(ANY)) {
+        node.anyHandlers = node.anyHandlers.add(holder);
+        return changed(node.anyHandlers.size() == 1, 1);
+      }
+      node = node.child(segment);
+      if (end == pattern.length()) {
+        node.handlers = node.handlers.add(holder);
+        return changed(node.handlers.size() == 1, 1);
+      }
+      start = end + 1;
+    }
+  }
+
+  /**
+   * Remove the {@code holder} of the {@code pattern}.
+   *
+   * @return whether it was the last handler of this pattern
+   */
+  synchronized boolean remove(String pattern, HandlerHolder holder) {
+    return remove(root, pattern, 0, holder);
+  }
+
+  private boolean remove(Node node, String pattern, int start, HandlerHolder holder) {
+    int end = segmentEnd(pattern, start);
+    String segment = pattern.substring(start, end);
+    if (end == pattern.length() && segment.equals(ANY)) {
+      ConcurrentCyclicSequence<HandlerHolder> prev = node.anyHandlers;
+      node.anyHandlers = prev.remove(holder);
+      return prev != node.anyHandlers && changed(node.anyHandlers.size() == 0, -1);
+    }
+    boolean one = segment.equals(ONE);
+    Node child = one ? node.one : node.children.get(segment);
+    if (child == null) {
+      return false;
+    }
+    boolean last;
+    if (end == pattern.length()) {
+      ConcurrentCyclicSequence<HandlerHolder> prev = child.handlers;
+      child.handlers = prev.remove(holder);
+      last = prev != child.handlers && changed(child.handlers.size() == 0, -1);
+    } else {
+      last = remove(child, pattern, end + 1, holder);
+    }
+    if (child.isEmpty()) {
+      // Prune the branch
+      if (one) {
+        node.one = null;
+      } else {
+        node.children.remove(segment);
+      }
+    }
+    return last;
+  }
+
+  /**
+   * @return all the handlers
+   */
+  synchronized List<HandlerHolder> holders() {
+    List<HandlerHolder> holders = new ArrayList<>();
+    root.collect(holders);
+    return holders;
+  }
+
+  /**
+   * Resolve the handlers of the patterns matching {@code address}.
+   *
+   * @return the handlers or {@code null} when no pattern matches
+   */
+  ConcurrentCyclicSequence<HandlerHolder> match(String address) {
+    // Read the generation before matching, a concurrent change invalidates the resolution
+    int gen = generation;
+    Resolution resolution = cache.get(address);
+    if (resolution != null && resolution.generation == gen) {
+      return resolution.handlers;
+    }
+    List<HandlerHolder> matches = root.match(address, 0, null);
+    ConcurrentCyclicSequence<HandlerHolder> handlers = matches != null ? new ConcurrentCyclicSequence<>(matches.toArray(new HandlerHolder[matches.size()])) : null;
+    if (resolution == null && cache.size() >= MAX_CACHED_ADDRESSES) {
+      // Addresses that are not hot, e.g addresses without match, are evicted
+      cache.clear();
+    }
+    cache.put(address, new Resolution(gen, handlers));
+    return handlers;
+  }
+
+  private boolean changed(boolean result, int delta) {
+    size += delta;
+    generation++;
+    cache.clear();
+    return result;
+  }
+
+  private static int segmentEnd(String address, int start) {
+    int end = address.indexOf('.', start);
+    return end == -1 ? address.length() : end;
+  }
+
+  private static class Resolution {
+
+    final int generation;
+    // null when no pattern matches
+    final ConcurrentCyclicSequence<HandlerHolder> handlers;
+
+    Resolution(int generation, ConcurrentCyclicSequence<HandlerHolder> handlers) {
+      this.generation = generation;
+      this.handlers = handlers;
+    }
+  }
+
+  private static class Node {
+
+    final ConcurrentMap<String, Node> children = new ConcurrentHashMap<>();
+    volatile Node one;
+    // The handlers of the patterns ending at this node
+    volatile ConcurrentCyclicSequence<HandlerHolder> handlers = new ConcurrentCyclicSequence<>();
+    // The handlers of the patterns ending with # after this node
+    volatile ConcurrentCyclicSequence<HandlerHolder> anyHandlers = new ConcurrentCyclicSequence<>();
+
+    Node child(String segment) {
+      if (segment.equals(ONE)) {
+        if (one == null) {
+          one = new Node();
+        }
+        return one;
+      }
+      return children.computeIfAbsent(segment, s -> new Node());
+    }
+
+    List<HandlerHolder> match(String address, int start, List<HandlerHolder> matches) {
+      matches = add(matches, anyHandlers);
+      if (start > address.length()) {
+        // All segments are matched
+        return add(matches, handlers);
+      }
+      int end = segmentEnd(address, start);
+      if (!children.isEmpty()) {
+        Node child = children.get(address.substring(start, end));
+        if (child != null) {
+          matches = child.match(address, end + 1, matches);
+        }
+      }
+      Node n = one;
+      if (n != null) {
+        matches = n.match(address, end + 1, matches);
+      }
+      return matches;
+    }
+
+    boolean isEmpty() {
+      return handlers.size() == 0 && anyHandlers.size() == 0 && children.isEmpty() && one == null;
+    }
+
+    void collect(List<HandlerHolder> holders) {
+      add(holders, handlers);
+      add(holders, anyHandlers);
+      children.values().forEach(child -> child.collect(holders));
+      if (one != null) {
+        one.collect(holders);
+      }
+    }
+
+    private static List<HandlerHolder> add(List<HandlerHolder> list, ConcurrentCyclicSequence<HandlerHolder> handlers) {
+      if (handlers.size() > 0) {
+        if (list == null) {
+          list = new ArrayList<>();
+        }
+        for (HandlerHolder holder : handlers) {
+          list.add(holder);
+        }
+      }
+      return list;
+    }
+  }
+}
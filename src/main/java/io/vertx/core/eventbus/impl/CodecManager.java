@@ -18,6 +18,7 @@ import io.vertx.core.eventbus.impl.codecs.*;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -45,14 +46,18 @@ public class CodecManager {
   public static final MessageCodec<Byte, Byte> BYTE_MESSAGE_CODEC = new ByteMessageCodec();
   public static final MessageCodec<ReplyException, ReplyException> REPLY_EXCEPTION_MESSAGE_CODEC = new ReplyExceptionMessageCodec();
 
+  private final MessageCodec<MessageBatch, MessageBatch> batchMessageCodec = new BatchMessageCodec(this);
   private final MessageCodec[] systemCodecs;
   private final ConcurrentMap<String, MessageCodec> userCodecMap = new ConcurrentHashMap<>();
   private final ConcurrentMap<Class, MessageCodec> defaultCodecMap = new ConcurrentHashMap<>();
+  // The codec of the bodies of a class without codec name, invalidated when the default codec of the class changes
+  private final ConcurrentMap<Class, MessageCodec> codecCache = new ConcurrentHashMap<>();
 
   public CodecManager() {
     this.systemCodecs = codecs(NULL_MESSAGE_CODEC, PING_MESSAGE_CODEC, STRING_MESSAGE_CODEC, BUFFER_MESSAGE_CODEC, JSON_OBJECT_MESSAGE_CODEC, JSON_ARRAY_MESSAGE_CODEC,
       BYTE_ARRAY_MESSAGE_CODEC, INT_MESSAGE_CODEC, LONG_MESSAGE_CODEC, FLOAT_MESSAGE_CODEC, DOUBLE_MESSAGE_CODEC,
-      BOOLEAN_MESSAGE_CODEC, SHORT_MESSAGE_CODEC, CHAR_MESSAGE_CODEC, BYTE_MESSAGE_CODEC, REPLY_EXCEPTION_MESSAGE_CODEC);
+      BOOLEAN_MESSAGE_CODEC, SHORT_MESSAGE_CODEC, CHAR_MESSAGE_CODEC, BYTE_MESSAGE_CODEC, REPLY_EXCEPTION_MESSAGE_CODEC,
+      batchMessageCodec);
   }
 
   public MessageCodec lookupCodec(Object body, String codecName) {
@@ -64,7 +69,19 @@ public class CodecManager {
       }
     } else if (body == null) {
       codec = NULL_MESSAGE_CODEC;
-    } else if (body instanceof String) {
+    } else {
+      codec = codecCache.get(body.getClass());
+      if (codec == null) {
+        // Nothing is cached when there is no codec
+        codec = codecCache.computeIfAbsent(body.getClass(), clazz -> lookupCodec(body));
+      }
+    }
+    return codec;
+  }
+
+  private MessageCodec lookupCodec(Object body) {
+    MessageCodec codec;
+    if (body instanceof String) {
       codec = STRING_MESSAGE_CODEC;
     } else if (body instanceof Buffer) {
       codec = BUFFER_MESSAGE_CODEC;
@@ -90,6 +107,8 @@ public class CodecManager {
       codec = CHAR_MESSAGE_CODEC;
     } else if (body instanceof Byte) {
       codec = BYTE_MESSAGE_CODEC;
+    } else if (body instanceof MessageBatch) {
+      codec = batchMessageCodec;
     } else if (body instanceof ReplyException) {
       codec = defaultCodecMap.get(body.getClass());
       if (codec == null) {
@@ -104,6 +123,25 @@ public class CodecManager {
     return codec;
   }
 
+  /**
+   * Create the body of a batch, the codec of each body is looked up like the codec of a message body.
+   *
+   * @param bodies the bodies
+   * @param codecName the codec name or {@code null}
+   * @return the batch
+   */
+  public MessageBatch createBatch(List<?> bodies, String codecName) {
+    int size = bodies.size();
+    Object[] array = new Object[size];
+    MessageCodec[] codecs = new MessageCodec[size];
+    for (int i = 0;i < size;i++) {
+      Object body = bodies.get(i);
+      array[i] = body;
+      codecs[i] = lookupCodec(body, codecName);
+    }
+    return new MessageBatch(array, codecs);
+  }
+
   public MessageCodec getCodec(String codecName) {
     return userCodecMap.get(codecName);
   }
@@ -135,12 +173,14 @@ public class CodecManager {
       throw new IllegalStateException("Already a codec registered with name " + codec.name());
     }
     defaultCodecMap.put(clazz, codec);
+    codecCache.remove(clazz);
     userCodecMap.put(codec.name(), codec);
   }
 
   public void unregisterDefaultCodec(Class clazz) {
     Objects.requireNonNull(clazz);
     MessageCodec codec = defaultCodecMap.remove(clazz);
+    codecCache.remove(clazz);
     if (codec != null) {
       userCodecMap.remove(codec.name());
     }
@@ -19,6 +19,9 @@ import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.*;
+import io.vertx.core.impl.Arguments;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.ContextLocal;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.utils.ConcurrentCyclicSequence;
 import io.vertx.core.logging.Logger;
@@ -27,12 +30,13 @@ import io.vertx.core.spi.metrics.EventBusMetrics;
 import io.vertx.core.spi.metrics.MetricsProvider;
 import io.vertx.core.spi.metrics.VertxMetrics;
 
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -44,42 +48,108 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
   private static final Logger log = LoggerFactory.getLogger(EventBusImpl.class);
 
-  private final List<Handler<DeliveryContext>> sendInterceptors = new CopyOnWriteArrayList<>();
-  private final List<Handler<DeliveryContext>> receiveInterceptors = new CopyOnWriteArrayList<>();
+  /**
+   * The messages delivered inline on a context, see {@link #deliverInline(ContextInternal, InboundDeliveryContext)}.
+   */
+  private static final ContextLocal<InlineDeliveries> INLINE_DELIVERIES = ContextLocal.registerLocal(InlineDeliveries.class);
+
+  @SuppressWarnings("unchecked")
+  private static final Handler<DeliveryContext>[] NO_INTERCEPTORS = new Handler[0];
+
+  /*
+   * The interceptors are copied on write to an array, a delivery context walks the array snapshot taken when it is
+   * created.
+   */
+  private volatile Handler<DeliveryContext>[] sendInterceptors = NO_INTERCEPTORS;
+  private volatile Handler<DeliveryContext>[] receiveInterceptors = NO_INTERCEPTORS;
+  private final Object interceptorLock = new Object();
   private final AtomicLong replySequence = new AtomicLong(0);
   protected final VertxInternal vertx;
   protected final EventBusMetrics metrics;
   protected final ConcurrentMap<String, ConcurrentCyclicSequence<HandlerHolder>> handlerMap = new ConcurrentHashMap<>();
+  protected final AddressTrie patterns = new AddressTrie();
+  protected final ReplyTable replies;
+  protected final RoutingStrategy routingStrategy;
+  private final ConcurrentMap<String, RoutingStrategy> routingStrategies = new ConcurrentHashMap<>();
   protected final CodecManager codecManager = new CodecManager();
+  protected final boolean inlineDelivery;
   protected volatile boolean started;
 
   public EventBusImpl(VertxInternal vertx) {
+    this(vertx, new EventBusOptions());
+  }
+
+  public EventBusImpl(VertxInternal vertx, EventBusOptions options) {
     VertxMetrics metrics = vertx.metricsSPI();
     this.vertx = vertx;
     this.metrics = metrics != null ? metrics.createEventBusMetrics() : null;
+    this.replies = new ReplyTable(this.metrics);
+    this.inlineDelivery = options.isInlineDelivery();
+    this.routingStrategy = options.getRoutingStrategy();
   }
 
   @Override
   public <T> EventBus addOutboundInterceptor(Handler<DeliveryContext<T>> interceptor) {
-    sendInterceptors.add((Handler) interceptor);
+    synchronized (interceptorLock) {
+      sendInterceptors = addInterceptor(sendInterceptors, (Handler) interceptor);
+    }
     return this;
   }
 
   @Override
   public <T> EventBus addInboundInterceptor(Handler<DeliveryContext<T>> interceptor) {
-    receiveInterceptors.add((Handler)interceptor);
+    synchronized (interceptorLock) {
+      receiveInterceptors = addInterceptor(receiveInterceptors, (Handler) interceptor);
+    }
     return this;
   }
 
   @Override
   public <T> EventBus removeOutboundInterceptor(Handler<DeliveryContext<T>> interceptor) {
-    sendInterceptors.remove(interceptor);
+    synchronized (interceptorLock) {
+      sendInterceptors = removeInterceptor(sendInterceptors, interceptor);
+    }
     return this;
   }
 
   @Override
   public <T> EventBus removeInboundInterceptor(Handler<DeliveryContext<T>> interceptor) {
-    receiveInterceptors.remove(interceptor);
+    synchronized (interceptorLock) {
+      receiveInterceptors = removeInterceptor(receiveInterceptors, interceptor);
+    }
+    return this;
+  }
+
+  private static Handler<DeliveryContext>[] addInterceptor(Handler<DeliveryContext>[] interceptors, Handler<DeliveryContext> interceptor) {
+    Handler<DeliveryContext>[] copy = Arrays.copyOf(interceptors, interceptors.length + 1);
+    copy[interceptors.length] = interceptor;
+    return copy;
+  }
+
+  private static Handler<DeliveryContext>[] removeInterceptor(Handler<DeliveryContext>[] interceptors, Object interceptor) {
+    for (int i = 0;i < interceptors.length;i++) {
+      if (Objects.equals(interceptors[i], interceptor)) {
+        if (interceptors.length == 1) {
+          return NO_INTERCEPTORS;
+        }
+        @SuppressWarnings("unchecked")
+        Handler<DeliveryContext>[] copy = new Handler[interceptors.length - 1];
+        System.arraycopy(interceptors, 0, copy, 0, i);
+        System.arraycopy(interceptors, i + 1, copy, i, interceptors.length - i - 1);
+        return copy;
+      }
+    }
+    return interceptors;
+  }
+
+  @Override
+  public EventBus setRoutingStrategy(String address, RoutingStrategy strategy) {
+    Objects.requireNonNull(address, "address");
+    if (strategy != null) {
+      routingStrategies.put(address, strategy);
+    } else {
+      routingStrategies.remove(address);
+    }
     return this;
   }
 
@@ -112,6 +182,25 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     return this;
   }
 
+  @Override
+  public <T> MessageConsumer<T> requestStream(String address, Object message) {
+    return requestStream(address, message, new DeliveryOptions());
+  }
+
+  @Override
+  public <T> MessageConsumer<T> requestStream(String address, Object message, DeliveryOptions options) {
+    checkStarted();
+    Objects.requireNonNull(address, "address");
+    return new ReplyStream<>(this, createMessage(true, address, options.getHeaders(), message, options.getCodecName()), options);
+  }
+
+  /**
+   * Send the request of a {@link ReplyStream}, the reply address of the request is the address of the stream.
+   */
+  void sendStreamRequest(MessageImpl request, DeliveryOptions options) {
+    sendOrPubInternal(request, options, null);
+  }
+
   @Override
   public <T> MessageProducer<T> sender(String address) {
     Objects.requireNonNull(address, "address");
@@ -149,6 +238,36 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     return this;
   }
 
+  @Override
+  public EventBus sendBatch(String address, List<Object> messages) {
+    return sendBatch(address, messages, new DeliveryOptions());
+  }
+
+  @Override
+  public EventBus sendBatch(String address, List<Object> messages, DeliveryOptions options) {
+    sendOrPubBatch(true, address, messages, options);
+    return this;
+  }
+
+  @Override
+  public EventBus publishBatch(String address, List<Object> messages) {
+    return publishBatch(address, messages, new DeliveryOptions());
+  }
+
+  @Override
+  public EventBus publishBatch(String address, List<Object> messages, DeliveryOptions options) {
+    sendOrPubBatch(false, address, messages, options);
+    return this;
+  }
+
+  private void sendOrPubBatch(boolean send, String address, List<Object> messages, DeliveryOptions options) {
+    Objects.requireNonNull(messages, "messages");
+    if (messages.size() > 0) {
+      MessageBatch batch = codecManager.createBatch(messages, options.getCodecName());
+      sendOrPubInternal(createMessage(send, address, options.getHeaders(), batch, null), options, null);
+    }
+  }
+
   @Override
   public <T> MessageConsumer<T> consumer(String address) {
     checkStarted();
@@ -179,6 +298,22 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     return consumer;
   }
 
+  @Override
+  public <T> MessageConsumer<T> patternConsumer(String pattern) {
+    checkStarted();
+    Objects.requireNonNull(pattern, "pattern");
+    Arguments.require(AddressTrie.isValidPattern(pattern), "# must be the last segment of a pattern");
+    return new HandlerRegistration<>(vertx, metrics, this, pattern, null, true, true, null, -1);
+  }
+
+  @Override
+  public <T> MessageConsumer<T> patternConsumer(String pattern, Handler<Message<T>> handler) {
+    Objects.requireNonNull(handler, "handler");
+    MessageConsumer<T> consumer = patternConsumer(pattern);
+    consumer.handler(handler);
+    return consumer;
+  }
+
   @Override
   public EventBus registerCodec(MessageCodec codec) {
     codecManager.registerCodec(codec);
@@ -235,9 +370,16 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
   protected <T> HandlerHolder<T> addRegistration(String address, HandlerRegistration<T> registration,
                                      boolean replyHandler, boolean localOnly) {
-    Objects.requireNonNull(registration.getHandler(), "handler");
+    if (registration.getHandler() == null && registration.getBatchHandler() == null) {
+      throw new NullPointerException("handler");
+    }
     LocalRegistrationResult<T> result = addLocalRegistration(address, registration, replyHandler, localOnly);
-    addRegistration(result.newAddress, address, replyHandler, localOnly, registration::setResult);
+    if (registration.isPattern()) {
+      // Patterns are local
+      registration.setResult(Future.succeededFuture());
+    } else {
+      addRegistration(result.newAddress, address, replyHandler, localOnly, registration::setResult);
+    }
     return result.holder;
   }
 
@@ -270,24 +412,33 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     HandlerHolder<T> holder = new HandlerHolder<>(metrics, registration, replyHandler, localOnly, context);
 
-    ConcurrentCyclicSequence<HandlerHolder> handlers = new ConcurrentCyclicSequence<HandlerHolder>().add(holder);
-    ConcurrentCyclicSequence<HandlerHolder> actualHandlers = handlerMap.merge(
-      address,
-      handlers,
-      (old, prev) -> old.add(prev.first()));
+    boolean newAddress;
+    if (registration.isPattern()) {
+      newAddress = patterns.add(address, holder);
+    } else {
+      ConcurrentCyclicSequence<HandlerHolder> handlers = new ConcurrentCyclicSequence<HandlerHolder>().add(holder);
+      ConcurrentCyclicSequence<HandlerHolder> actualHandlers = handlerMap.merge(
+        address,
+        handlers,
+        (old, prev) -> old.add(prev.first()));
+      newAddress = handlers == actualHandlers;
+    }
 
     if (hasContext) {
       HandlerEntry entry = new HandlerEntry<>(address, registration);
       context.addCloseHook(entry);
     }
 
-    boolean newAddress = handlers == actualHandlers;
     return new LocalRegistrationResult<>(holder, newAddress);
   }
 
   protected <T> void removeRegistration(HandlerHolder<T> holder, Handler<AsyncResult<Void>> completionHandler) {
     boolean last = removeLocalRegistration(holder);
-    removeRegistration(last ? holder : null, holder.getHandler().address(), completionHandler);
+    if (holder.getHandler().isPattern()) {
+      callCompletionHandlerAsync(completionHandler);
+    } else {
+      removeRegistration(last ? holder : null, holder.getHandler().address(), completionHandler);
+    }
   }
 
   protected <T> void removeRegistration(HandlerHolder<T> handlerHolder, String address,
@@ -297,13 +448,18 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
   private <T> boolean removeLocalRegistration(HandlerHolder<T> holder) {
     String address = holder.getHandler().address();
-    boolean last = handlerMap.compute(address, (key, val) -> {
-      if (val == null) {
-        return null;
-      }
-      ConcurrentCyclicSequence<HandlerHolder> next = val.remove(holder);
-      return next.size() == 0 ? null : next;
-    }) == null;
+    boolean last;
+    if (holder.getHandler().isPattern()) {
+      last = patterns.remove(address, holder);
+    } else {
+      last = handlerMap.compute(address, (key, val) -> {
+        if (val == null) {
+          return null;
+        }
+        ConcurrentCyclicSequence<HandlerHolder> next = val.remove(holder);
+        return next.size() == 0 ? null : next;
+      }) == null;
+    }
     if (holder.setRemoved()) {
       holder.getContext().removeCloseHook(new HandlerEntry<>(address, holder.getHandler()));
     }
@@ -315,8 +471,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     if (replyMessage.address() == null) {
       throw new IllegalStateException("address not specified");
     } else {
-      HandlerRegistration<T> replyHandlerRegistration = createReplyHandlerRegistration(replyMessage, options, replyHandler);
-      new OutboundDeliveryContext<>(replyMessage, options, replyHandlerRegistration, replierMessage).next();
+      ReplyTable.ReplyHandler<T> reply = createReplyHandler(replyMessage, options, replyHandler);
+      new OutboundDeliveryContext<>(replyMessage, options, reply, replierMessage).next();
     }
   }
 
@@ -332,23 +488,6 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     deliverMessageLocally(sendContext);
   }
 
-  protected <T> Handler<Message<T>> convertHandler(Handler<AsyncResult<Message<T>>> handler) {
-    return reply -> {
-      Future<Message<T>> result;
-      if (reply.body() instanceof ReplyException) {
-        // This is kind of clunky - but hey-ho
-        ReplyException exception = (ReplyException) reply.body();
-        if (metrics != null) {
-          metrics.replyFailure(reply.address(), exception.failureType());
-        }
-        result = Future.failedFuture(exception);
-      } else {
-        result = Future.succeededFuture(reply);
-      }
-      handler.handle(result);
-    };
-  }
-
   protected void callCompletionHandlerAsync(Handler<AsyncResult<Void>> completionHandler) {
     if (completionHandler != null) {
       vertx.runOnContext(v -> {
@@ -358,14 +497,21 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   }
 
   protected <T> void deliverMessageLocally(OutboundDeliveryContext<T> sendContext) {
-    if (!deliverMessageLocally(sendContext.message)) {
+    boolean inline = inlineDelivery || (sendContext.options != null && sendContext.options.isInlineDelivery());
+    if (!deliverMessageLocally(sendContext.message, inline)) {
       // no handlers
       if (metrics != null) {
         metrics.replyFailure(sendContext.message.address, ReplyFailure.NO_HANDLERS);
       }
-      if (sendContext.handlerRegistration != null) {
-        sendContext.handlerRegistration.sendAsyncResultFailure(ReplyFailure.NO_HANDLERS, "No handlers for address "
-                                                               + sendContext.message.address);
+      ReplyTable.ReplyHandler<T> reply = sendContext.replyHandler;
+      if (reply != null) {
+        if (replies.remove(reply)) {
+          reply.fail(ReplyFailure.NO_HANDLERS, "No handlers for address " + sendContext.message.address);
+        }
+      } else if (sendContext.message.replyAddress() != null) {
+        // The request of a reply stream
+        deliverMessageLocally(createMessage(true, sendContext.message.replyAddress(), null,
+          new ReplyException(ReplyFailure.NO_HANDLERS, "No handlers for address " + sendContext.message.address), null));
       }
     }
   }
@@ -375,25 +521,50 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   }
 
   protected <T> boolean deliverMessageLocally(MessageImpl msg) {
+    return deliverMessageLocally(msg, false);
+  }
+
+  protected <T> boolean deliverMessageLocally(MessageImpl msg, boolean inline) {
     msg.setBus(this);
+    if (!replies.isEmpty() && msg.address().startsWith(REPLY_ADDRESS_PREFIX)) {
+      ReplyTable.ReplyHandler<?> reply = replies.remove(msg.address());
+      if (reply != null) {
+        if (metrics != null) {
+          metrics.messageReceived(msg.address(), !msg.isSend(), isMessageLocal(msg), 1);
+        }
+        deliverToReplyHandler(msg, reply, inline);
+        return true;
+      }
+    }
     ConcurrentCyclicSequence<HandlerHolder> handlers = handlerMap.get(msg.address());
-    if (handlers != null) {
+    // A sent message is delivered to the handlers of the address first, the patterns are resolved only without them
+    ConcurrentCyclicSequence<HandlerHolder> matches = patterns.isEmpty() || (handlers != null && msg.isSend()) ? null : patterns.match(msg.address());
+    if (handlers != null || matches != null) {
       if (msg.isSend()) {
-        //Choose one
-        HandlerHolder holder = handlers.next();
+        //Choose one, the handlers of the address take precedence over the handlers of the patterns
+        RoutingStrategy strategy = routingStrategies.isEmpty() ? routingStrategy : routingStrategies.getOrDefault(msg.address(), routingStrategy);
+        HandlerHolder holder = selectHandler(handlers != null ? handlers : matches, strategy);
         if (metrics != null) {
           metrics.messageReceived(msg.address(), !msg.isSend(), isMessageLocal(msg), holder != null ? 1 : 0);
         }
         if (holder != null) {
-          deliverToHandler(msg, holder);
+          deliverToHandler(msg, holder, inline);
         }
       } else {
         // Publish
         if (metrics != null) {
-          metrics.messageReceived(msg.address(), !msg.isSend(), isMessageLocal(msg), handlers.size());
+          int size = (handlers != null ? handlers.size() : 0) + (matches != null ? matches.size() : 0);
+          metrics.messageReceived(msg.address(), !msg.isSend(), isMessageLocal(msg), size);
         }
-        for (HandlerHolder holder: handlers) {
-          deliverToHandler(msg, holder);
+        if (handlers != null) {
+          for (HandlerHolder holder: handlers) {
+            deliverToHandler(msg, holder, inline);
+          }
+        }
+        if (matches != null) {
+          for (HandlerHolder holder: matches) {
+            deliverToHandler(msg, holder, inline);
+          }
         }
       }
       return true;
@@ -405,28 +576,104 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     }
   }
 
+  /**
+   * Choose the handler of a point-to-point message.
+   */
+  private HandlerHolder selectHandler(ConcurrentCyclicSequence<HandlerHolder> handlers, RoutingStrategy strategy) {
+    int size = handlers.size();
+    if (size > 1) {
+      switch (strategy) {
+        case LEAST_PENDING:
+          return leastPending(handlers, size);
+        case POWER_OF_TWO_CHOICES:
+          return powerOfTwoChoices(handlers, size);
+        case CONTEXT_AFFINITY:
+          HandlerHolder holder = contextAffinity(handlers, size);
+          if (holder != null) {
+            return holder;
+          }
+          break;
+      }
+    }
+    return handlers.next();
+  }
+
+  private static HandlerHolder leastPending(ConcurrentCyclicSequence<HandlerHolder> handlers, int size) {
+    // Start at a random handler so the handlers with the same load are chosen evenly
+    int start = ThreadLocalRandom.current().nextInt(size);
+    HandlerHolder least = null;
+    int leastLoad = Integer.MAX_VALUE;
+    for (int i = 0;i < size;i++) {
+      HandlerHolder holder = handlers.get((start + i) % size);
+      int load = holder.getHandler().load();
+      if (load < leastLoad) {
+        least = holder;
+        leastLoad = load;
+        if (load == 0) {
+          break;
+        }
+      }
+    }
+    return least;
+  }
+
+  private static HandlerHolder powerOfTwoChoices(ConcurrentCyclicSequence<HandlerHolder> handlers, int size) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int i = random.nextInt(size);
+    int j = random.nextInt(size - 1);
+    if (j >= i) {
+      j++;
+    }
+    HandlerHolder first = handlers.get(i);
+    HandlerHolder second = handlers.get(j);
+    return second.getHandler().load() < first.getHandler().load() ? second : first;
+  }
+
+  /**
+   * @return a handler of the current context, otherwise of the current event loop, or {@code null}
+   */
+  private static HandlerHolder contextAffinity(ConcurrentCyclicSequence<HandlerHolder> handlers, int size) {
+    ContextInternal current = (ContextInternal) Vertx.currentContext();
+    if (current == null) {
+      return null;
+    }
+    int start = ThreadLocalRandom.current().nextInt(size);
+    HandlerHolder sameEventLoop = null;
+    for (int i = 0;i < size;i++) {
+      HandlerHolder holder = handlers.get((start + i) % size);
+      ContextInternal context = (ContextInternal) holder.getContext();
+      if (context == current) {
+        return holder;
+      }
+      if (sameEventLoop == null && context.nettyEventLoop() == current.nettyEventLoop()) {
+        sameEventLoop = holder;
+      }
+    }
+    return sameEventLoop;
+  }
+
   protected void checkStarted() {
     if (!started) {
       throw new IllegalStateException("Event Bus is not started");
     }
   }
 
+  /**
+   * The reply addresses generated by {@link #generateReplyAddress()} start with this prefix.
+   */
+  protected static final String REPLY_ADDRESS_PREFIX = "__vertx.reply.";
+
   protected String generateReplyAddress() {
-    return "__vertx.reply." + Long.toString(replySequence.incrementAndGet());
+    return REPLY_ADDRESS_PREFIX + Long.toString(replySequence.incrementAndGet());
   }
 
-  private <T> HandlerRegistration<T> createReplyHandlerRegistration(MessageImpl message,
-                                                                    DeliveryOptions options,
-                                                                    Handler<AsyncResult<Message<T>>> replyHandler) {
+  private <T> ReplyTable.ReplyHandler<T> createReplyHandler(MessageImpl message,
+                                                            DeliveryOptions options,
+                                                            Handler<AsyncResult<Message<T>>> replyHandler) {
     if (replyHandler != null) {
-      long timeout = options.getSendTimeout();
       String replyAddress = generateReplyAddress();
       message.setReplyAddress(replyAddress);
-      Handler<Message<T>> simpleReplyHandler = convertHandler(replyHandler);
-      HandlerRegistration<T> registration =
-        new HandlerRegistration<>(vertx, metrics, this, replyAddress, message.address, true, replyHandler, timeout);
-      registration.handler(simpleReplyHandler);
-      return registration;
+      return replies.add(vertx.getOrCreateContext(), replyAddress, message.address, options.getSendTimeout(), replyHandler);
     } else {
       return null;
     }
@@ -435,8 +682,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   private <T> void sendOrPubInternal(MessageImpl message, DeliveryOptions options,
                                      Handler<AsyncResult<Message<T>>> replyHandler) {
     checkStarted();
-    HandlerRegistration<T> replyHandlerRegistration = createReplyHandlerRegistration(message, options, replyHandler);
-    OutboundDeliveryContext<T> sendContext = new OutboundDeliveryContext<>(message, options, replyHandlerRegistration);
+    ReplyTable.ReplyHandler<T> reply = createReplyHandler(message, options, replyHandler);
+    OutboundDeliveryContext<T> sendContext = new OutboundDeliveryContext<>(message, options, reply);
     sendContext.next();
   }
 
@@ -444,19 +691,24 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     public final MessageImpl message;
     public final DeliveryOptions options;
-    public final Iterator<Handler<DeliveryContext>> iter;
-    private final HandlerRegistration<T> handlerRegistration;
+    private final Handler<DeliveryContext>[] interceptors;
+    private int index;
+    private final ReplyTable.ReplyHandler<T> replyHandler;
     private final MessageImpl replierMessage;
 
-    private OutboundDeliveryContext(MessageImpl message, DeliveryOptions options, HandlerRegistration<T> handlerRegistration) {
-      this(message, options, handlerRegistration, null);
+    private OutboundDeliveryContext(MessageImpl message, DeliveryOptions options, ReplyTable.ReplyHandler<T> replyHandler) {
+      this(message, options, replyHandler, null);
     }
 
-    private OutboundDeliveryContext(MessageImpl message, DeliveryOptions options, HandlerRegistration<T> handlerRegistration, MessageImpl replierMessage) {
+    private OutboundDeliveryContext(MessageImpl message, DeliveryOptions options, ReplyTable.ReplyHandler<T> replyHandler, MessageImpl replierMessage) {
       this.message = message;
+      if (options != null) {
+        // Failures are sent without options
+        this.message.setImmutableBody(options.isImmutableBody());
+      }
       this.options = options;
-      this.handlerRegistration = handlerRegistration;
-      this.iter = sendInterceptors.iterator();
+      this.replyHandler = replyHandler;
+      this.interceptors = sendInterceptors;
       this.replierMessage = replierMessage;
     }
 
@@ -467,8 +719,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     @Override
     public void next() {
-      if (iter.hasNext()) {
-        Handler<DeliveryContext> handler = iter.next();
+      if (index < interceptors.length) {
+        Handler<DeliveryContext> handler = interceptors[index++];
         try {
           if (handler != null) {
             handler.handle(this);
@@ -505,42 +757,138 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         holder.getHandler().unregister();
       }
     }
+    for (HandlerHolder holder: patterns.holders()) {
+      holder.getHandler().unregister();
+    }
+    replies.clear();
   }
 
-  private <T> void deliverToHandler(MessageImpl msg, HandlerHolder<T> holder) {
+  private <T> void deliverToHandler(MessageImpl msg, HandlerHolder<T> holder, boolean inline) {
     // Each handler gets a fresh copy
     MessageImpl copied = msg.copyBeforeReceive();
-    DeliveryContext<T> receiveContext = new InboundDeliveryContext<>(copied, holder);
+    InboundDeliveryContext<T> receiveContext = new InboundDeliveryContext<>(copied, holder);
 
     if (metrics != null) {
       metrics.scheduleMessage(holder.getHandler().getMetric(), msg.isLocal());
     }
 
-    holder.getContext().runOnContext((v) -> {
-      // Need to check handler is still there - the handler might have been removed after the message were sent but
-      // before it was received
-      try {
-        if (!holder.isRemoved()) {
-          receiveContext.next();
-        }
-      } finally {
-        if (holder.isReplyHandler()) {
-          holder.getHandler().unregister();
+    ContextInternal context = (ContextInternal) holder.getContext();
+    // A message delivered inline would overtake the messages scheduled on the context for the same handler
+    if (isInline(context, inline) && !holder.getHandler().hasScheduledMessages()) {
+      deliverInline(context, receiveContext);
+    } else {
+      receiveContext.scheduled = true;
+      holder.getHandler().messageScheduled();
+      context.runOnContext(receiveContext);
+    }
+  }
+
+  private <T> void deliverToReplyHandler(MessageImpl msg, ReplyTable.ReplyHandler<T> reply, boolean inline) {
+    MessageImpl copied = msg.copyBeforeReceive();
+    InboundDeliveryContext<T> receiveContext = new InboundDeliveryContext<>(copied, reply);
+
+    if (metrics != null) {
+      metrics.scheduleMessage(reply.metric(), msg.isLocal());
+    }
+
+    // A reply handler receives a single message
+    ContextInternal context = reply.context();
+    if (isInline(context, inline)) {
+      deliverInline(context, receiveContext);
+    } else {
+      context.runOnContext(receiveContext);
+    }
+  }
+
+  private static boolean isInline(ContextInternal context, boolean inline) {
+    return inline && context.isEventLoopContext() && Vertx.currentContext() == context;
+  }
+
+  /**
+   * Deliver a message to a handler of the current event loop context without the task hop of
+   * {@link Context#runOnContext(Handler)}.
+   * <p/>
+   * A message sent by a handler delivered inline, e.g a reply, is not delivered recursively but appended to the
+   * deliveries of the context and delivered after the handler returns, so the stack does not grow and the messages
+   * sent from the context are delivered in order.
+   */
+  private <T> void deliverInline(ContextInternal context, InboundDeliveryContext<T> receiveContext) {
+    InlineDeliveries deliveries = context.getLocal(INLINE_DELIVERIES);
+    if (deliveries == null) {
+      deliveries = new InlineDeliveries();
+      context.putLocal(INLINE_DELIVERIES, deliveries);
+    }
+    if (deliveries.delivering) {
+      deliveries.pending.add(receiveContext);
+      return;
+    }
+    deliveries.delivering = true;
+    try {
+      InboundDeliveryContext<?> next = receiveContext;
+      do {
+        try {
+          next.deliver();
+        } catch (Throwable t) {
+          context.reportException(t);
         }
-      }
-    });
+      } while ((next = deliveries.pending.poll()) != null);
+    } finally {
+      deliveries.delivering = false;
+    }
   }
 
-  protected class InboundDeliveryContext<T> implements DeliveryContext<T> {
+  /**
+   * Only accessed from the event loop thread of its context.
+   */
+  private static class InlineDeliveries {
+    private final ArrayDeque<InboundDeliveryContext<?>> pending = new ArrayDeque<>();
+    private boolean delivering;
+  }
+
+  /**
+   * The delivery of a message to a handler, it is also the task delivering the message on the handler context.
+   */
+  protected class InboundDeliveryContext<T> implements DeliveryContext<T>, Handler<Void> {
 
     private final MessageImpl message;
-    private final Iterator<Handler<DeliveryContext>> iter;
+    private final Handler<DeliveryContext>[] interceptors;
+    private int index;
     private final HandlerHolder<T> holder;
+    private final ReplyTable.ReplyHandler<T> replyHandler;
+    // Whether the delivery is scheduled on the handler context and counted by the handler
+    private boolean scheduled;
 
     private InboundDeliveryContext(MessageImpl message, HandlerHolder<T> holder) {
       this.message = message;
       this.holder = holder;
-      this.iter = receiveInterceptors.iterator();
+      this.replyHandler = null;
+      this.interceptors = receiveInterceptors;
+    }
+
+    private InboundDeliveryContext(MessageImpl message, ReplyTable.ReplyHandler<T> replyHandler) {
+      this.message = message;
+      this.holder = null;
+      this.replyHandler = replyHandler;
+      this.interceptors = receiveInterceptors;
+    }
+
+    @Override
+    public void handle(Void v) {
+      deliver();
+    }
+
+    private void deliver() {
+      // Need to check handler is still there - the handler might have been removed after the message were sent but
+      // before it was received, a reply handler is removed from the reply table when the reply is received
+      try {
+        if (holder == null || !holder.isRemoved()) {
+          next();
+        }
+      } finally {
+        if (scheduled) {
+          holder.getHandler().messageDelivered();
+        }
+      }
     }
 
     @Override
@@ -550,9 +898,9 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     @Override
     public void next() {
-      if (iter.hasNext()) {
+      if (index < interceptors.length) {
         try {
-          Handler<DeliveryContext> handler = iter.next();
+          Handler<DeliveryContext> handler = interceptors[index++];
           if (handler != null) {
             handler.handle(this);
           } else {
@@ -561,6 +909,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
         } catch (Throwable t) {
           log.error("Failure in interceptor", t);
         }
+      } else if (replyHandler != null) {
+        replyHandler.handle(message);
       } else {
         holder.getHandler().handle(message);
       }
@@ -15,9 +15,11 @@ import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.*;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.OverflowPolicy;
 import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.eventbus.impl.clustered.ClusteredMessage;
+import io.vertx.core.eventbus.impl.codecs.BatchMessageCodec;
 import io.vertx.core.impl.Arguments;
 import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.logging.Logger;
@@ -26,6 +28,7 @@ import io.vertx.core.spi.metrics.EventBusMetrics;
 import io.vertx.core.streams.ReadStream;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * This class is optimised for performance when used on the same event loop it was created on.
@@ -46,29 +49,44 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
   private final String address;
   private final String repliedAddress;
   private final boolean localOnly;
+  private final boolean pattern;
   private final Handler<AsyncResult<Message<T>>> asyncResultHandler;
   private long timeoutID = -1;
   private HandlerHolder<T> registered;
   private Handler<Message<T>> handler;
+  private Handler<List<T>> batchHandler;
   private ContextInternal handlerContext;
   private AsyncResult<Void> result;
   private Handler<AsyncResult<Void>> completionHandler;
   private Handler<Void> endHandler;
   private Handler<Message<T>> discardHandler;
+  private volatile boolean discardLogged;
   private int maxBufferedMessages = DEFAULT_MAX_BUFFERED_MESSAGES;
-  private final Queue<Message<T>> pending = new ArrayDeque<>(8);
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+  private final RingBuffer<Message<T>> pending = new RingBuffer<>(DEFAULT_MAX_BUFFERED_MESSAGES);
+  // The size of the pending queue, so the load can be read without the monitor
+  private volatile int buffered;
+  // The messages scheduled on the handler context and not yet delivered
+  private final AtomicInteger scheduled = new AtomicInteger();
   private long demand = Long.MAX_VALUE;
   private Object metric;
 
   public HandlerRegistration(Vertx vertx, EventBusMetrics metrics, EventBusImpl eventBus, String address,
                              String repliedAddress, boolean localOnly,
                              Handler<AsyncResult<Message<T>>> asyncResultHandler, long timeout) {
+    this(vertx, metrics, eventBus, address, repliedAddress, localOnly, false, asyncResultHandler, timeout);
+  }
+
+  public HandlerRegistration(Vertx vertx, EventBusMetrics metrics, EventBusImpl eventBus, String address,
+                             String repliedAddress, boolean localOnly, boolean pattern,
+                             Handler<AsyncResult<Message<T>>> asyncResultHandler, long timeout) {
     this.vertx = vertx;
     this.metrics = metrics;
     this.eventBus = eventBus;
     this.address = address;
     this.repliedAddress = repliedAddress;
     this.localOnly = localOnly;
+    this.pattern = pattern;
     this.asyncResultHandler = asyncResultHandler;
     if (timeout != -1) {
       timeoutID = vertx.setTimer(timeout, tid -> {
@@ -85,26 +103,24 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     Arguments.require(maxBufferedMessages >= 0, "Max buffered messages cannot be negative");
     List<Message<T>> discarded;
     Handler<Message<T>> discardHandler;
+    OverflowPolicy policy;
     synchronized (this) {
       this.maxBufferedMessages = maxBufferedMessages;
+      pending.expectedCapacity(maxBufferedMessages);
       int overflow = pending.size() - maxBufferedMessages;
       if (overflow <= 0) {
         return this;
       }
       discardHandler = this.discardHandler;
-      if (discardHandler == null) {
-        while (pending.size() > maxBufferedMessages) {
-          pending.poll();
-        }
-        return this;
-      }
+      policy = overflowPolicy;
       discarded = new ArrayList<>(overflow);
       while (pending.size() > maxBufferedMessages) {
         discarded.add(pending.poll());
       }
+      pendingChanged();
     }
     for (Message<T> msg : discarded) {
-      discardHandler.handle(msg);
+      discard(msg, policy, discardHandler);
     }
     return this;
   }
@@ -114,11 +130,29 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     return maxBufferedMessages;
   }
 
+  @Override
+  public synchronized MessageConsumer<T> setOverflowPolicy(OverflowPolicy policy) {
+    this.overflowPolicy = Objects.requireNonNull(policy, "No null overflow policy accepted");
+    return this;
+  }
+
+  @Override
+  public synchronized OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
   @Override
   public String address() {
     return address;
   }
 
+  /**
+   * @return whether the address of this registration is a pattern
+   */
+  public boolean isPattern() {
+    return pattern;
+  }
+
   @Override
   public synchronized void completionHandler(Handler<AsyncResult<Void>> completionHandler) {
     Objects.requireNonNull(completionHandler);
@@ -147,7 +181,7 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
   }
 
   private void doUnregister(Handler<AsyncResult<Void>> completionHandler) {
-    Deque<Message<T>> discarded;
+    List<Message<T>> discarded;
     Handler<Message<T>> discardHandler;
     synchronized (this) {
       if (timeoutID != -1) {
@@ -165,8 +199,8 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
       }
       HandlerHolder<T> holder = registered;
       if (pending.size() > 0) {
-        discarded = new ArrayDeque<>(pending);
-        pending.clear();
+        discarded = pending.clear();
+        pendingChanged();
       } else {
         discarded = null;
       }
@@ -179,8 +213,7 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
       }
     }
     if (discardHandler != null && discarded != null) {
-      Message<T> msg;
-      while ((msg = discarded.poll()) != null) {
+      for (Message<T> msg : discarded) {
         discardHandler.handle(msg);
       }
     }
@@ -213,52 +246,121 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
 
   @Override
   public void handle(Message<T> message) {
-    Handler<Message<T>> theHandler;
+    Handler<Message<T>> theHandler = null;
+    Handler<List<T>> theBatchHandler = null;
     ContextInternal ctx;
+    Message<T> discarded = null;
+    OverflowPolicy policy = null;
+    Handler<Message<T>> theDiscardHandler = null;
     synchronized (this) {
       if (demand == 0L) {
         if (pending.size() < maxBufferedMessages) {
           pending.add(message);
+          pendingChanged();
+          return;
+        }
+        policy = overflowPolicy;
+        theDiscardHandler = discardHandler;
+        if (policy == OverflowPolicy.DROP_OLDEST && maxBufferedMessages > 0) {
+          discarded = pending.poll();
+          pending.add(message);
         } else {
-          if (discardHandler != null) {
-            discardHandler.handle(message);
-          } else {
-            log.warn("Discarding message as more than " + maxBufferedMessages + " buffered in paused consumer. address: " + address);
-          }
+          discarded = message;
         }
-        return;
       } else {
         if (pending.size() > 0) {
           pending.add(message);
           message = pending.poll();
         }
         theHandler = handler;
+        theBatchHandler = batchHandler;
       }
       ctx = handlerContext;
     }
-    deliver(theHandler, message, ctx);
+    if (discarded != null) {
+      // Discard outside the sync block, rejecting a message sends a reply
+      discard(discarded, policy, theDiscardHandler);
+    } else {
+      deliver(theHandler, theBatchHandler, message, ctx);
+    }
+  }
+
+  private void pendingChanged() {
+    buffered = pending.size();
+    if (metrics != null) {
+      metrics.pendingMessages(metric, buffered);
+    }
+  }
+
+  /**
+   * Count a message scheduled on the handler context, see {@link #load()}.
+   */
+  void messageScheduled() {
+    scheduled.incrementAndGet();
+  }
+
+  /**
+   * Uncount a message counted by {@link #messageScheduled()} when it is delivered.
+   */
+  void messageDelivered() {
+    scheduled.decrementAndGet();
+  }
+
+  /**
+   * @return whether messages scheduled on the handler context are not yet delivered
+   */
+  boolean hasScheduledMessages() {
+    return scheduled.get() > 0;
+  }
+
+  /**
+   * @return the messages scheduled on the handler context plus the messages buffered while paused
+   */
+  int load() {
+    return scheduled.get() + buffered;
+  }
+
+  private void discard(Message<T> message, OverflowPolicy policy, Handler<Message<T>> theDiscardHandler) {
+    if (metrics != null) {
+      metrics.discardMessage(metric, isLocal(message), policy);
+    }
+    if (policy == OverflowPolicy.FAIL_SENDER && message instanceof MessageImpl) {
+      ((MessageImpl) message).reject(ReplyFailure.OVERFLOW, "Consumer buffer is full. address: " + address);
+    }
+    if (theDiscardHandler != null) {
+      theDiscardHandler.handle(message);
+    } else if (!discardLogged) {
+      // Logged once, a paused consumer can discard every message of a burst
+      discardLogged = true;
+      log.warn("Discarding messages as more than " + maxBufferedMessages + " buffered in paused consumer. address: " + address);
+    }
+  }
+
+  private static boolean isLocal(Message<?> message) {
+    // A bit hacky
+    return !(message instanceof ClusteredMessage) || !((ClusteredMessage) message).isFromWire();
   }
 
-  private void deliver(Handler<Message<T>> theHandler, Message<T> message, ContextInternal context) {
+  private void deliver(Handler<Message<T>> theHandler, Handler<List<T>> theBatchHandler, Message<T> message, ContextInternal context) {
     // Handle the message outside the sync block
     // https://bugs.eclipse.org/bugs/show_bug.cgi?id=473714
-    boolean local = true;
-    if (message instanceof ClusteredMessage) {
-      // A bit hacky
-      ClusteredMessage cmsg = (ClusteredMessage)message;
-      if (cmsg.isFromWire()) {
-        local = false;
-      }
-    }
-    String creditsAddress = message.headers().get(MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME);
+    boolean local = isLocal(message);
+    MessageBatch batch = batch(message);
+    String creditsAddress = header(message, MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME);
     if (creditsAddress != null) {
-      eventBus.send(creditsAddress, 1);
+      eventBus.send(creditsAddress, batch != null ? batch.size() : 1);
     }
     try {
       if (metrics != null) {
         metrics.beginHandleMessage(metric, local);
       }
-      theHandler.handle(message);
+      if (batch != null) {
+        deliverBatch(theHandler, theBatchHandler, message, batch);
+      } else if (theHandler != null) {
+        theHandler.handle(message);
+      } else {
+        theBatchHandler.handle(Collections.singletonList(message.body()));
+      }
       if (metrics != null) {
         metrics.endHandleMessage(metric, null);
       }
@@ -272,24 +374,56 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     checkNextTick();
   }
 
+  static String header(Message<?> message, String name) {
+    // Most messages have no headers
+    return message instanceof MessageImpl ? ((MessageImpl) message).header(name) : message.headers().get(name);
+  }
+
+  /**
+   * @return the batch carried by {@code message} or {@code null}
+   */
+  private MessageBatch batch(Message<T> message) {
+    if (message instanceof MessageImpl && ((MessageImpl) message).codec() instanceof BatchMessageCodec) {
+      return (MessageBatch) message.body();
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void deliverBatch(Handler<Message<T>> theHandler, Handler<List<T>> theBatchHandler, Message<T> message, MessageBatch batch) {
+    if (theBatchHandler != null) {
+      theBatchHandler.handle((List<T>) batch);
+    } else {
+      MultiMap headers = message.headers();
+      for (Object body : batch) {
+        MessageImpl<T, T> item = new MessageImpl<>(message.address(), null, headers, null, null, message.isSend(), eventBus);
+        item.receivedBody = (T) body;
+        theHandler.handle(item);
+      }
+    }
+  }
+
   private synchronized void checkNextTick() {
     // Check if there are more pending messages in the queue that can be processed next time around
     if (!pending.isEmpty() && demand > 0L) {
       handlerContext.runOnContext(v -> {
         Message<T> message;
         Handler<Message<T>> theHandler;
+        Handler<List<T>> theBatchHandler;
         ContextInternal ctx;
         synchronized (HandlerRegistration.this) {
           if (demand == 0L || (message = pending.poll()) == null) {
             return;
           }
+          pendingChanged();
           if (demand != Long.MAX_VALUE) {
             demand--;
           }
           theHandler = handler;
+          theBatchHandler = batchHandler;
           ctx = handlerContext;
         }
-        deliver(theHandler, message, ctx);
+        deliver(theHandler, theBatchHandler, message, ctx);
       });
     }
   }
@@ -304,13 +438,25 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
   @Override
   public synchronized MessageConsumer<T> handler(Handler<Message<T>> handler) {
     this.handler = handler;
-    if (this.handler != null && registered == null) {
+    checkRegistration();
+    return this;
+  }
+
+  @Override
+  public synchronized MessageConsumer<T> batchHandler(Handler<List<T>> handler) {
+    this.batchHandler = handler;
+    checkRegistration();
+    return this;
+  }
+
+  private void checkRegistration() {
+    boolean hasHandler = handler != null || batchHandler != null;
+    if (hasHandler && registered == null) {
       registered = eventBus.addRegistration(address, this, repliedAddress != null, localOnly);
-    } else if (this.handler == null && registered != null) {
+    } else if (!hasHandler && registered != null) {
       // This will set registered to false
       this.unregister();
     }
-    return this;
   }
 
   @Override
@@ -370,6 +516,10 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     return handler;
   }
 
+  public Handler<List<T>> getBatchHandler() {
+    return batchHandler;
+  }
+
   public Object getMetric() {
     return metric;
   }
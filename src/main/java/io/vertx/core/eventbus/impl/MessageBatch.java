@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.core.eventbus.impl;
+
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The body of a message sent with {@link io.vertx.core.eventbus.EventBus#sendBatch} or
+ * {@link io.vertx.core.eventbus.EventBus#publishBatch}: the list of the bodies of the batch with their codecs.
+ */
+public final class MessageBatch extends AbstractList<Object> implements RandomAccess {
+
+  private final Object[] bodies;
+  private final MessageCodec[] codecs;
+
+  public MessageBatch(Object[] bodies, MessageCodec[] codecs) {
+    this.bodies = bodies;
+    this.codecs = codecs;
+  }
+
+  /**
+   * @return the codec of the body at {@code index}
+   */
+  public MessageCodec codec(int index) {
+    return codecs[index];
+  }
+
+  @Override
+  public Object get(int index) {
+    return bodies[index];
+  }
+
+  @Override
+  public int size() {
+    return bodies.length;
+  }
+}
@@ -37,6 +37,7 @@ public class MessageImpl<U, V> implements Message<V> {
   protected U sentBody;
   protected V receivedBody;
   protected boolean send;
+  protected boolean immutableBody;
 
   public MessageImpl() {
   }
@@ -65,13 +66,26 @@ public class MessageImpl<U, V> implements Message<V> {
         this.headers.add(entry.getKey(), entry.getValue());
       }
     }
+    this.immutableBody = other.immutableBody;
     if (other.sentBody != null) {
       this.sentBody = other.sentBody;
-      this.receivedBody = messageCodec.transform(other.sentBody);
+      this.receivedBody = transform(other.sentBody);
     }
     this.send = other.send;
   }
 
+  /**
+   * Transform the sent body for a receiver. An immutable body is shared by the receivers when the codec is a system
+   * codec: they have the same sent and received types and their transformation is a defensive copy.
+   */
+  @SuppressWarnings("unchecked")
+  private V transform(U body) {
+    if (immutableBody && messageCodec.systemCodecID() != -1) {
+      return (V) body;
+    }
+    return messageCodec.transform(body);
+  }
+
   public MessageImpl<U, V> copyBeforeReceive() {
     return new MessageImpl<>(this);
   }
@@ -90,10 +104,20 @@ public class MessageImpl<U, V> implements Message<V> {
     return headers;
   }
 
+  /**
+   * Get the value of a header without allocating the headers of a message that has none, unlike {@link #headers()}.
+   *
+   * @param name the header name
+   * @return the header value or {@code null}
+   */
+  public String header(String name) {
+    return headers != null ? headers.get(name) : null;
+  }
+
   @Override
   public V body() {
     if (receivedBody == null && sentBody != null) {
-      receivedBody = messageCodec.transform(sentBody);
+      receivedBody = transform(sentBody);
     }
     return receivedBody;
   }
@@ -111,6 +135,15 @@ public class MessageImpl<U, V> implements Message<V> {
     }
   }
 
+  /**
+   * Reply to the sender with a {@link ReplyException} of the given {@code failure}, when it expects a reply.
+   */
+  void reject(ReplyFailure failure, String message) {
+    if (replyAddress != null) {
+      sendReply(bus.createMessage(true, replyAddress, null, new ReplyException(failure, message), null), null, null);
+    }
+  }
+
   @Override
   public void reply(Object message) {
     reply(message, new DeliveryOptions(), null);
@@ -133,6 +166,19 @@ public class MessageImpl<U, V> implements Message<V> {
     }
   }
 
+  @Override
+  public <R> MessageProducer<R> replyStream() {
+    return replyStream(new DeliveryOptions());
+  }
+
+  @Override
+  public <R> MessageProducer<R> replyStream(DeliveryOptions options) {
+    if (replyAddress == null) {
+      throw new IllegalStateException("The message does not expect replies");
+    }
+    return new MessageProducerImpl<>(bus.vertx, this, options);
+  }
+
   @Override
   public boolean isSend() {
     return send;
@@ -146,6 +192,10 @@ public class MessageImpl<U, V> implements Message<V> {
     return messageCodec;
   }
 
+  public void setImmutableBody(boolean immutableBody) {
+    this.immutableBody = immutableBody;
+  }
+
   public void setBus(EventBusImpl bus) {
     this.bus = bus;
   }
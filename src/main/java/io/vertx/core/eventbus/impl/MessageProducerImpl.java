@@ -17,6 +17,8 @@ import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.*;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
 
@@ -27,19 +29,38 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
 
   public static final String CREDIT_ADDRESS_HEADER_NAME = "__vertx.credit";
 
+  /**
+   * The header of the message ending a stream of replies.
+   */
+  public static final String STREAM_END_HEADER_NAME = "__vertx.stream.end";
+
   private final Vertx vertx;
   private final EventBus bus;
   private final boolean send;
   private final String address;
   private final Queue<T> pending = new ArrayDeque<>();
   private final MessageConsumer<Integer> creditConsumer;
+  private final MessageImpl<?, ?> replierMessage;
   private DeliveryOptions options;
   private int maxSize = DEFAULT_WRITE_QUEUE_MAX_SIZE;
   private int credits = DEFAULT_WRITE_QUEUE_MAX_SIZE;
   private Handler<Void> drainHandler;
+  private boolean ending;
 
   public MessageProducerImpl(Vertx vertx, String address, boolean send, DeliveryOptions options) {
+    this(vertx, address, send, options, null);
+  }
+
+  /**
+   * Create the stream of replies to {@code replierMessage}, the replies are sent like {@link Message#reply} replies.
+   */
+  public MessageProducerImpl(Vertx vertx, MessageImpl<?, ?> replierMessage, DeliveryOptions options) {
+    this(vertx, replierMessage.replyAddress(), true, new DeliveryOptions(options), replierMessage);
+  }
+
+  private MessageProducerImpl(Vertx vertx, String address, boolean send, DeliveryOptions options, MessageImpl<?, ?> replierMessage) {
     this.vertx = vertx;
+    this.replierMessage = replierMessage;
     this.bus = vertx.eventBus();
     this.address = address;
     this.send = send;
@@ -100,6 +121,29 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
     return this;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized MessageProducer<T> writeBatch(List<T> data) {
+    List<Object> messages = (List<Object>) data;
+    if (send) {
+      int size = Math.min(credits, messages.size());
+      if (size > 0) {
+        credits -= size;
+        if (replierMessage != null) {
+          for (int i = 0;i < size;i++) {
+            sendNow(messages.get(i), null);
+          }
+        } else {
+          bus.sendBatch(address, messages.subList(0, size), options);
+        }
+      }
+      pending.addAll(data.subList(size, data.size()));
+    } else {
+      bus.publishBatch(address, messages, options);
+    }
+    return this;
+  }
+
   @Override
   public synchronized boolean writeQueueFull() {
     return credits == 0;
@@ -129,9 +173,23 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
 
   @Override
   public void end() {
+    if (replierMessage != null) {
+      synchronized (this) {
+        if (!pending.isEmpty()) {
+          // Ended once the pending replies are sent
+          ending = true;
+          return;
+        }
+      }
+      sendEnd();
+    }
     close();
   }
 
+  private void sendEnd() {
+    replierMessage.reply(null, new DeliveryOptions().addHeader(STREAM_END_HEADER_NAME, "true"));
+  }
+
   @Override
   public void close() {
     if (creditConsumer != null) {
@@ -149,26 +207,46 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
   private synchronized <R> void doSend(T data, Handler<AsyncResult<Message<R>>> replyHandler) {
     if (credits > 0) {
       credits--;
-      if (replyHandler == null) {
-        bus.send(address, data, options);
-      } else {
-        bus.send(address, data, options, replyHandler);
-      }
+      sendNow(data, replyHandler);
     } else {
       pending.add(data);
     }
   }
 
+  private <R> void sendNow(Object data, Handler<AsyncResult<Message<R>>> replyHandler) {
+    if (replierMessage != null) {
+      replierMessage.reply(data, options, replyHandler);
+    } else if (replyHandler == null) {
+      bus.send(address, data, options);
+    } else {
+      bus.send(address, data, options, replyHandler);
+    }
+  }
+
   private synchronized void doReceiveCredit(int credit) {
     credits += credit;
-    while (credits > 0) {
-      T data = pending.poll();
-      if (data == null) {
-        break;
-      } else {
-        credits--;
-        bus.send(address, data, options);
+    int size = Math.min(credits, pending.size());
+    if (size == 1) {
+      credits--;
+      sendNow(pending.poll(), null);
+    } else if (size > 1 && replierMessage != null) {
+      credits -= size;
+      for (int i = 0;i < size;i++) {
+        sendNow(pending.poll(), null);
+      }
+    } else if (size > 1) {
+      // Send the pending messages in a single batch
+      List<Object> batch = new ArrayList<>(size);
+      for (int i = 0;i < size;i++) {
+        batch.add(pending.poll());
       }
+      credits -= size;
+      bus.sendBatch(address, batch, options);
+    }
+    if (ending && pending.isEmpty()) {
+      ending = false;
+      sendEnd();
+      close();
     }
     checkDrained();
   }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+
+package io.vertx.core.eventbus.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.OverflowPolicy;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.TimerWheel;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The replies to a request sent with {@link io.vertx.core.eventbus.EventBus#requestStream}.
+ * <p/>
+ * The replies are received by a local {@link HandlerRegistration} registered at the reply address of the request,
+ * which pauses and buffers them and sends the credits of the {@link MessageProducerImpl} writing them. The request is
+ * sent when the handler is set, so no reply is sent before the registration exists.
+ * <p/>
+ * A reply carrying the {@link MessageProducerImpl#STREAM_END_HEADER_NAME} header ends the stream, a reply without the
+ * credit header is the last reply of the stream and a {@link ReplyException} fails the stream.
+ * <p/>
+ * The stream fails with a {@link ReplyFailure#TIMEOUT} when no reply is received before the
+ * {@link DeliveryOptions#getSendTimeout() send timeout}, the following replies are flow controlled and are not timed.
+ * Like the timeouts of the reply handlers, the timeout is scheduled on the {@link ReplyTable#wheel timer wheel} of the
+ * event loop of the sender context.
+ * The replies are not batched, a batch handler receives each reply as a singleton batch.
+ */
+class ReplyStream<T> implements MessageConsumer<T> {
+
+  private final EventBusImpl eventBus;
+  private final MessageImpl request;
+  private final DeliveryOptions options;
+  private final HandlerRegistration<T> registration;
+  private Handler<Message<T>> handler;
+  private Handler<Throwable> exceptionHandler;
+  private boolean sent;
+  private boolean replied;
+  private ContextInternal context;
+  private TimerWheel wheel;
+  private long timeoutID = -1;
+
+  ReplyStream(EventBusImpl eventBus, MessageImpl request, DeliveryOptions options) {
+    this.eventBus = eventBus;
+    this.request = request;
+    this.options = options;
+    this.registration = new HandlerRegistration<>(eventBus.vertx, eventBus.metrics, eventBus,
+      eventBus.generateReplyAddress(), request.address(), true, null, -1);
+    request.setReplyAddress(registration.address());
+  }
+
+  private void handleReply(Message<T> reply) {
+    Handler<Message<T>> handler;
+    Handler<Throwable> exceptionHandler;
+    synchronized (this) {
+      if (!replied) {
+        replied = true;
+        cancelTimeout();
+      }
+      handler = this.handler;
+      exceptionHandler = this.exceptionHandler;
+    }
+    if (reply.body() instanceof ReplyException) {
+      // Failed, the end handler is not called
+      registration.endHandler(null);
+      registration.unregister();
+      if (exceptionHandler != null) {
+        exceptionHandler.handle((ReplyException) reply.body());
+      }
+    } else if (HandlerRegistration.header(reply, MessageProducerImpl.STREAM_END_HEADER_NAME) != null) {
+      registration.unregister();
+    } else {
+      if (handler != null) {
+        handler.handle(reply);
+      }
+      if (HandlerRegistration.header(reply, MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME) == null) {
+        // A plain reply
+        registration.unregister();
+      }
+    }
+  }
+
+  private synchronized void cancelTimeout() {
+    if (timeoutID != -1) {
+      wheel.remove(timeoutID);
+      timeoutID = -1;
+    }
+  }
+
+  private void timeout() {
+    // Release the timer of the wheel
+    cancelTimeout();
+    context.runOnContext(v -> handleTimeout());
+  }
+
+  private void handleTimeout() {
+    Handler<Throwable> exceptionHandler;
+    synchronized (this) {
+      if (replied) {
+        return;
+      }
+      replied = true;
+      exceptionHandler = this.exceptionHandler;
+    }
+    long timeout = options.getSendTimeout();
+    if (eventBus.metrics != null) {
+      eventBus.metrics.replyFailure(request.address(), ReplyFailure.TIMEOUT);
+    }
+    // Failed, the end handler is not called
+    registration.endHandler(null);
+    registration.unregister();
+    if (exceptionHandler != null) {
+      exceptionHandler.handle(new ReplyException(ReplyFailure.TIMEOUT, "Timed out after waiting " + timeout +
+        "(ms) for a reply. address: " + registration.address() + ", repliedAddress: " + request.address()));
+    }
+  }
+
+  @Override
+  public synchronized MessageConsumer<T> handler(Handler<Message<T>> handler) {
+    this.handler = handler;
+    if (handler != null) {
+      registration.handler(this::handleReply);
+      if (!sent) {
+        sent = true;
+        long timeout = options.getSendTimeout();
+        if (timeout != -1) {
+          context = eventBus.vertx.getOrCreateContext();
+          wheel = eventBus.replies.wheel(context);
+          timeoutID = wheel.schedule(this::timeout, timeout, false);
+        }
+        eventBus.sendStreamRequest(request, options);
+      }
+    } else {
+      registration.handler(null);
+    }
+    return this;
+  }
+
+  @Override
+  public MessageConsumer<T> batchHandler(Handler<List<T>> handler) {
+    return handler(handler != null ? reply -> handler.handle(Collections.singletonList(reply.body())) : null);
+  }
+
+  @Override
+  public synchronized MessageConsumer<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public MessageConsumer<T> pause() {
+    registration.pause();
+    return this;
+  }
+
+  @Override
+  public MessageConsumer<T> resume() {
+    registration.resume();
+    return this;
+  }
+
+  @Override
+  public MessageConsumer<T> fetch(long amount) {
+    registration.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public MessageConsumer<T> endHandler(Handler<Void> endHandler) {
+    registration.endHandler(endHandler);
+    return this;
+  }
+
+  @Override
+  public ReadStream<T> bodyStream() {
+    return new BodyReadStream<>(this);
+  }
+
+  @Override
+  public boolean isRegistered() {
+    return registration.isRegistered();
+  }
+
+  @Override
+  public String address() {
+    return registration.address();
+  }
+
+  @Override
+  public MessageConsumer<T> setMaxBufferedMessages(int maxBufferedMessages) {
+    registration.setMaxBufferedMessages(maxBufferedMessages);
+    return this;
+  }
+
+  @Override
+  public int getMaxBufferedMessages() {
+    return registration.getMaxBufferedMessages();
+  }
+
+  @Override
+  public MessageConsumer<T> setOverflowPolicy(OverflowPolicy policy) {
+    registration.setOverflowPolicy(policy);
+    return this;
+  }
+
+  @Override
+  public OverflowPolicy getOverflowPolicy() {
+    return registration.getOverflowPolicy();
+  }
+
+  @Override
+  public void completionHandler(Handler<AsyncResult<Void>> completionHandler) {
+    registration.completionHandler(completionHandler);
+  }
+
+  @Override
+  public void unregister() {
+    registration.unregister();
+  }
+
+  @Override
+  public void unregister(Handler<AsyncResult<Void>> completionHandler) {
+    registration.unregister(completionHandler);
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.eventbus.impl;
+
+import io.netty.channel.EventLoop;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.ContextLocal;
+import io.vertx.core.impl.TimerWheel;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.spi.metrics.EventBusMetrics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The reply handlers of the messages sent with a reply handler, keyed by the reply address of the message.
+ * <p/>
+ * A reply handler is not a consumer registered in the handler map of the event bus: it is an entry of this table
+ * removed by whichever comes first of the reply, the timeout or the send failure. Sending a message with a reply handler
+ * does not create a {@link HandlerRegistration}, a {@link HandlerHolder} nor a close hook and does not update the handler
+ * map.
+ * <p/>
+ * Timeouts are scheduled on a {@link TimerWheel} driven by the event loop of the sender context, instead of a Vert.x
+ * timer, so scheduling and cancelling a timeout are constant time operations that do not allocate a timer handler.
+ * The timeouts of the {@link ReplyStream reply streams} are scheduled on the same wheels.
+ * <p/>
+ * The reply handlers sent from a deployment context are tracked by the context with a single close hook: when the
+ * deployment is undeployed its reply handlers are removed, like the consumers of the deployment, and their handler is
+ * not called.
+ */
+class ReplyTable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplyTable.class);
+  private static final ContextLocal<ContextReplies> CONTEXT_REPLIES = ContextLocal.registerLocal(ContextReplies.class);
+
+  private final EventBusMetrics metrics;
+  private final ConcurrentMap<String, ReplyHandler<?>> handlers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<EventLoop, TimerWheel> wheels = new ConcurrentHashMap<>();
+
+  ReplyTable(EventBusMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Add a reply handler.
+   *
+   * @param context the context of the sender, the reply handler is called on this context
+   * @param address the reply address
+   * @param repliedAddress the address of the sent message
+   * @param timeout the timeout in milliseconds or {@code -1}
+   * @param handler the handler of the reply
+   * @return the reply handler
+   */
+  <T> ReplyHandler<T> add(ContextInternal context, String address, String repliedAddress, long timeout,
+                          Handler<AsyncResult<Message<T>>> handler) {
+    ReplyHandler<T> reply = new ReplyHandler<>(context, address, repliedAddress, timeout, handler);
+    synchronized (reply) {
+      // The timeout is scheduled after the handler is added and is not cancelled before it is scheduled
+      handlers.put(address, reply);
+      if (context.deploymentID() != null) {
+        ContextReplies owner = contextReplies(context);
+        if (owner.add(reply)) {
+          reply.owner = owner;
+        }
+      }
+      if (timeout != -1) {
+        reply.wheel = wheel(context);
+        reply.timeoutID = reply.wheel.schedule(reply::timeout, timeout, false);
+      }
+    }
+    return reply;
+  }
+
+  /**
+   * @return the timer wheel driven by the event loop of {@code context}
+   */
+  TimerWheel wheel(ContextInternal context) {
+    return wheels.computeIfAbsent(context.nettyEventLoop(), TimerWheel::new);
+  }
+
+  /**
+   * Remove the reply handler of a reply address, when the reply is received.
+   *
+   * @return the removed handler or {@code null} when there is no handler for this address
+   */
+  ReplyHandler<?> remove(String address) {
+    ReplyHandler<?> reply = handlers.remove(address);
+    if (reply != null) {
+      reply.removed();
+    }
+    return reply;
+  }
+
+  /**
+   * Remove a reply handler.
+   *
+   * @return whether the handler was removed, when {@code false} the reply was received or the handler was failed
+   */
+  boolean remove(ReplyHandler<?> reply) {
+    if (handlers.remove(reply.address, reply)) {
+      reply.removed();
+      return true;
+    }
+    return false;
+  }
+
+  boolean isEmpty() {
+    return handlers.isEmpty();
+  }
+
+  /**
+   * Remove all the reply handlers, their handler is not called.
+   */
+  void clear() {
+    for (ReplyHandler<?> reply : handlers.values()) {
+      if (remove(reply) && metrics != null) {
+        metrics.handlerUnregistered(reply.metric);
+      }
+    }
+  }
+
+  private ContextReplies contextReplies(ContextInternal context) {
+    ContextReplies replies = context.getLocal(CONTEXT_REPLIES);
+    if (replies == null) {
+      synchronized (context) {
+        replies = context.getLocal(CONTEXT_REPLIES);
+        if (replies == null) {
+          replies = new ContextReplies();
+          context.putLocal(CONTEXT_REPLIES, replies);
+          context.addCloseHook(replies);
+        }
+      }
+    }
+    return replies;
+  }
+
+  /**
+   * The reply handlers of a context, removed from the table when the context is closed.
+   */
+  private class ContextReplies implements Closeable {
+
+    private final Set<ReplyHandler<?>> replies = new HashSet<>();
+    private boolean closed;
+
+    synchronized boolean add(ReplyHandler<?> reply) {
+      return !closed && replies.add(reply);
+    }
+
+    synchronized void remove(ReplyHandler<?> reply) {
+      replies.remove(reply);
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> completionHandler) {
+      List<ReplyHandler<?>> list;
+      synchronized (this) {
+        closed = true;
+        list = new ArrayList<>(replies);
+        replies.clear();
+      }
+      for (ReplyHandler<?> reply : list) {
+        if (ReplyTable.this.remove(reply) && metrics != null) {
+          metrics.handlerUnregistered(reply.metric);
+        }
+      }
+      completionHandler.handle(Future.succeededFuture());
+    }
+  }
+
+  class ReplyHandler<T> {
+
+    private final ContextInternal context;
+    private final String address;
+    private final String repliedAddress;
+    private final long timeout;
+    private final Handler<AsyncResult<Message<T>>> handler;
+    private final Object metric;
+    private TimerWheel wheel;
+    private long timeoutID = -1;
+    private ContextReplies owner;
+
+    private ReplyHandler(ContextInternal context, String address, String repliedAddress, long timeout,
+                         Handler<AsyncResult<Message<T>>> handler) {
+      this.context = context;
+      this.address = address;
+      this.repliedAddress = repliedAddress;
+      this.timeout = timeout;
+      this.handler = handler;
+      this.metric = metrics != null ? metrics.handlerRegistered(address, repliedAddress) : null;
+    }
+
+    ContextInternal context() {
+      return context;
+    }
+
+    Object metric() {
+      return metric;
+    }
+
+    private synchronized void cancelTimeout() {
+      if (timeoutID != -1) {
+        wheel.remove(timeoutID);
+        timeoutID = -1;
+      }
+    }
+
+    /**
+     * Called after the handler is removed from the table.
+     */
+    private void removed() {
+      cancelTimeout();
+      ContextReplies o;
+      synchronized (this) {
+        o = owner;
+      }
+      if (o != null) {
+        o.remove(this);
+      }
+    }
+
+    private void timeout() {
+      // Release the timer of the wheel
+      cancelTimeout();
+      if (handlers.remove(address, this)) {
+        removed();
+        if (metrics != null) {
+          metrics.replyFailure(address, ReplyFailure.TIMEOUT);
+        }
+        context.runOnContext(v -> fail(ReplyFailure.TIMEOUT, "Timed out after waiting " + timeout + "(ms) for a reply. address: " + address + ", repliedAddress: " + repliedAddress));
+      }
+    }
+
+    /**
+     * Call the handler with a failure, the handler must have been removed from the table.
+     */
+    void fail(ReplyFailure failure, String msg) {
+      if (metrics != null) {
+        metrics.handlerUnregistered(metric);
+      }
+      handler.handle(Future.failedFuture(new ReplyException(failure, msg)));
+    }
+
+    /**
+     * Call the handler with the reply, the handler must have been removed from the table.
+     */
+    void handle(MessageImpl<?, T> reply) {
+      try {
+        if (metrics != null) {
+          metrics.beginHandleMessage(metric, reply.isLocal());
+        }
+        Future<Message<T>> result;
+        if (reply.body() instanceof ReplyException) {
+          ReplyException exception = (ReplyException) reply.body();
+          if (metrics != null) {
+            metrics.replyFailure(address, exception.failureType());
+          }
+          result = Future.failedFuture(exception);
+        } else {
+          result = Future.succeededFuture(reply);
+        }
+        handler.handle(result);
+        if (metrics != null) {
+          metrics.endHandleMessage(metric, null);
+        }
+      } catch (Exception e) {
+        log.error("Failed to handleMessage. address: " + address, e);
+        if (metrics != null) {
+          metrics.endHandleMessage(metric, e);
+        }
+        context.reportException(e);
+      } finally {
+        if (metrics != null) {
+          metrics.handlerUnregistered(metric);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.eventbus.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A FIFO queue backed by a circular array which length is a power of two, so the array index of an element is a mask
+ * of its position.
+ * <p/>
+ * The array is allocated when the first element is added, with the expected capacity of the queue, and it doubles when
+ * the queue is full. The queue does not grow and shrink repeatedly under bursts like an {@link java.util.ArrayDeque},
+ * it keeps its array until {@link #clear()} is called.
+ * <p/>
+ * This class is not thread safe.
+ */
+final class RingBuffer<E> {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  /**
+   * The max length of the array allocated when the first element is added.
+   */
+  static final int MAX_INITIAL_CAPACITY = 1024;
+
+  private Object[] elements = EMPTY;
+  private int head;
+  private int size;
+  private int expectedCapacity;
+
+  /**
+   * @param expectedCapacity the expected capacity of the queue
+   */
+  RingBuffer(int expectedCapacity) {
+    expectedCapacity(expectedCapacity);
+  }
+
+  /**
+   * Set the expected capacity of the queue, used to size the array when the first element is added.
+   */
+  void expectedCapacity(int expectedCapacity) {
+    this.expectedCapacity = Math.max(1, Math.min(expectedCapacity, MAX_INITIAL_CAPACITY));
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the length of the backing array
+   */
+  int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * Add {@code element} at the tail of the queue.
+   */
+  void add(E element) {
+    if (size == elements.length) {
+      grow();
+    }
+    elements[(head + size) & (elements.length - 1)] = element;
+    size++;
+  }
+
+  /**
+   * Remove the head of the queue.
+   *
+   * @return the head of the queue or {@code null} when it is empty
+   */
+  @SuppressWarnings("unchecked")
+  E poll() {
+    if (size == 0) {
+      return null;
+    }
+    E element = (E) elements[head];
+    elements[head] = null;
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return element;
+  }
+
+  /**
+   * Remove all the elements of the queue and release the array.
+   *
+   * @return the removed elements
+   */
+  List<E> clear() {
+    List<E> list = new ArrayList<>(size);
+    E element;
+    while ((element = poll()) != null) {
+      list.add(element);
+    }
+    elements = EMPTY;
+    head = 0;
+    return list;
+  }
+
+  private void grow() {
+    int length = elements.length == 0 ? Integer.highestOneBit(expectedCapacity * 2 - 1) : elements.length * 2;
+    if (length <= 0) {
+      throw new IllegalStateException("Queue is too large");
+    }
+    Object[] array = new Object[length];
+    for (int i = 0;i < size;i++) {
+      array[i] = elements[(head + i) & (elements.length - 1)];
+    }
+    elements = array;
+    head = 0;
+  }
+}
@@ -20,6 +20,7 @@ import io.vertx.core.eventbus.impl.EventBusImpl;
 import io.vertx.core.eventbus.impl.HandlerHolder;
 import io.vertx.core.eventbus.impl.MessageImpl;
 import io.vertx.core.impl.ConcurrentHashSet;
+import io.vertx.core.impl.EventLoopContext;
 import io.vertx.core.impl.HAManager;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.json.JsonObject;
@@ -33,11 +34,15 @@ import io.vertx.core.spi.cluster.ChoosableIterable;
 import io.vertx.core.spi.cluster.ClusterManager;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Predicate;
 
 /**
@@ -52,13 +57,19 @@ public class ClusteredEventBus extends EventBusImpl {
   public static final String CLUSTER_PUBLIC_HOST_PROP_NAME = "vertx.cluster.public.host";
   public static final String CLUSTER_PUBLIC_PORT_PROP_NAME = "vertx.cluster.public.port";
 
-  private static final Buffer PONG = Buffer.buffer(new byte[]{(byte) 1});
+  // The pong carries the wire protocol version of the node
+  private static final Buffer PONG = Buffer.buffer(new byte[]{ClusteredMessage.WIRE_PROTOCOL_VERSION});
   private static final String SERVER_ID_HA_KEY = "server_id";
   private static final String SUBS_MAP_NAME = "__vertx.subs";
 
   private final ClusterManager clusterManager;
-  private final ConcurrentMap<ServerID, ConnectionHolder> connections = new ConcurrentHashMap<>();
+  // The connections to a node, indexed by the shard of the message address
+  private final ConcurrentMap<ServerID, AtomicReferenceArray<ConnectionHolder>> connections = new ConcurrentHashMap<>();
+  private final int clusterConnections;
+  // The contexts of the connections and of the shared server of each index, so they are handled by different event loops
+  private final EventLoopContext[] connectionContexts;
   private final Context sendNoContext;
+  private final SubscriptionCache subscriptionCache;
 
   private EventBusOptions options;
   private AsyncMultiMap<String, ClusterNodeInfo> subs;
@@ -66,14 +77,19 @@ public class ClusteredEventBus extends EventBusImpl {
   private ServerID serverID;
   private ClusterNodeInfo nodeInfo;
   private NetServer server;
+  private final List<NetServer> sharedServers = new CopyOnWriteArrayList<>();
 
   public ClusteredEventBus(VertxInternal vertx,
                            VertxOptions options,
                            ClusterManager clusterManager) {
-    super(vertx);
+    super(vertx, options.getEventBusOptions());
     this.options = options.getEventBusOptions();
     this.clusterManager = clusterManager;
     this.sendNoContext = vertx.getOrCreateContext();
+    this.clusterConnections = this.options.getClusterConnections();
+    this.connectionContexts = new EventLoopContext[clusterConnections];
+    long maxAge = this.options.getSubscriptionCacheMaxAge();
+    this.subscriptionCache = maxAge > 0 ? new SubscriptionCache(maxAge) : null;
   }
 
   private NetServerOptions getServerOptions() {
@@ -116,31 +132,20 @@ public class ClusteredEventBus extends EventBusImpl {
     // Get the HA manager, it has been constructed but it's not yet initialized
     HAManager haManager = vertx.haManager();
     setClusterViewChangedHandler(haManager);
+    if (subscriptionCache != null) {
+      haManager.setNodeLeftHandler(subscriptionCache::removeNode);
+    }
     clusterManager.<String, ClusterNodeInfo>getAsyncMultiMap(SUBS_MAP_NAME, ar1 -> {
       if (ar1.succeeded()) {
         subs = ar1.result();
         server = vertx.createNetServer(getServerOptions());
 
         server.connectHandler(getServerHandler());
-        server.listen(asyncResult -> {
-          if (asyncResult.succeeded()) {
-            int serverPort = getClusterPublicPort(options, server.actualPort());
-            String serverHost = getClusterPublicHost(options);
-            serverID = new ServerID(serverPort, serverHost);
-            nodeInfo = new ClusterNodeInfo(clusterManager.getNodeID(), serverID);
-            vertx.executeBlocking(fut -> {
-              haManager.addDataToAHAInfo(SERVER_ID_HA_KEY, new JsonObject().put("host", serverID.host).put("port", serverID.port));
-              fut.complete();
-            }, false, ar2 -> {
-              if (ar2.succeeded()) {
-                started = true;
-                resultHandler.handle(Future.succeededFuture());
-              } else {
-                resultHandler.handle(Future.failedFuture(ar2.cause()));
-              }
-            });
+        server.listen(ar -> {
+          if (ar.succeeded()) {
+            listenShared(server.actualPort(), clusterConnections - 1, asyncResult -> started(haManager, asyncResult, resultHandler));
           } else {
-            resultHandler.handle(Future.failedFuture(asyncResult.cause()));
+            resultHandler.handle(Future.failedFuture(ar.cause()));
           }
         });
       } else {
@@ -149,6 +154,73 @@ public class ClusteredEventBus extends EventBusImpl {
     });
   }
 
+  /**
+   * @return the event loop context of the connections of index {@code index} to the nodes and of the shared server of
+   *         the same index, created when first used and closed when the event bus is closed
+   */
+  synchronized EventLoopContext connectionContext(int index) {
+    EventLoopContext context = connectionContexts[index];
+    if (context == null) {
+      context = vertx.createEventLoopContext(null, null, new JsonObject(), Thread.currentThread().getContextClassLoader());
+      connectionContexts[index] = context;
+    }
+    return context;
+  }
+
+  private synchronized void closeConnectionContexts() {
+    for (int i = 0;i < connectionContexts.length;i++) {
+      if (connectionContexts[i] != null) {
+        connectionContexts[i].runCloseHooks(ar -> {});
+        connectionContexts[i] = null;
+      }
+    }
+  }
+
+  /**
+   * Listen {@code count} servers sharing the port of the cluster server, each on the context of its index, so the
+   * connections of a node are handled by different event loops.
+   */
+  private void listenShared(int port, int count, Handler<AsyncResult<Void>> handler) {
+    if (count == 0) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    connectionContext(count).runOnContext(v -> {
+      NetServer shared = vertx.createNetServer(getServerOptions().setPort(port));
+      shared.connectHandler(getServerHandler());
+      sharedServers.add(shared);
+      shared.listen(ar -> {
+        if (ar.succeeded()) {
+          listenShared(port, count - 1, handler);
+        } else {
+          handler.handle(Future.failedFuture(ar.cause()));
+        }
+      });
+    });
+  }
+
+  private void started(HAManager haManager, AsyncResult<Void> asyncResult, Handler<AsyncResult<Void>> resultHandler) {
+    if (asyncResult.succeeded()) {
+      int serverPort = getClusterPublicPort(options, server.actualPort());
+      String serverHost = getClusterPublicHost(options);
+      serverID = new ServerID(serverPort, serverHost);
+      nodeInfo = new ClusterNodeInfo(clusterManager.getNodeID(), serverID);
+      vertx.executeBlocking(fut -> {
+        haManager.addDataToAHAInfo(SERVER_ID_HA_KEY, new JsonObject().put("host", serverID.host).put("port", serverID.port));
+        fut.complete();
+      }, false, ar2 -> {
+        if (ar2.succeeded()) {
+          started = true;
+          resultHandler.handle(Future.succeededFuture());
+        } else {
+          resultHandler.handle(Future.failedFuture(ar2.cause()));
+        }
+      });
+    } else {
+      resultHandler.handle(Future.failedFuture(asyncResult.cause()));
+    }
+  }
+
   @Override
   public void close(Handler<AsyncResult<Void>> completionHandler) {
     super.close(ar1 -> {
@@ -157,15 +229,33 @@ public class ClusteredEventBus extends EventBusImpl {
           if (ar.failed()) {
             log.error("Failed to close server", ar.cause());
           }
-          // Close all outbound connections explicitly - don't rely on context hooks
-          for (ConnectionHolder holder : connections.values()) {
-            holder.close();
+          List<Future> closed = new ArrayList<>();
+          for (NetServer shared : sharedServers) {
+            Future<Void> fut = Future.future();
+            shared.close(fut);
+            closed.add(fut);
           }
-          if (completionHandler != null) {
-            completionHandler.handle(ar);
+          // Close all outbound connections explicitly - don't rely on context hooks
+          for (AtomicReferenceArray<ConnectionHolder> holders : connections.values()) {
+            for (int i = 0;i < holders.length();i++) {
+              ConnectionHolder holder = holders.get(i);
+              if (holder != null) {
+                holder.close();
+              }
+            }
           }
+          CompositeFuture.all(closed).setHandler(ar2 -> {
+            if (ar2.failed()) {
+              log.error("Failed to close shared server", ar2.cause());
+            }
+            closeConnectionContexts();
+            if (completionHandler != null) {
+              completionHandler.handle(ar);
+            }
+          });
         });
       } else {
+        closeConnectionContexts();
         if (completionHandler != null) {
           completionHandler.handle(ar1);
         }
@@ -189,6 +279,14 @@ public class ClusteredEventBus extends EventBusImpl {
                                      Handler<AsyncResult<Void>> completionHandler) {
     if (newAddress && subs != null && !replyHandler && !localOnly) {
       // Propagate the information
+      if (subscriptionCache != null) {
+        subscriptionCache.remove(address);
+        Handler<AsyncResult<Void>> handler = completionHandler;
+        completionHandler = ar -> {
+          subscriptionCache.remove(address);
+          handler.handle(ar);
+        };
+      }
       subs.add(address, nodeInfo, completionHandler);
       ownSubs.add(address);
     } else {
@@ -201,6 +299,16 @@ public class ClusteredEventBus extends EventBusImpl {
                                         Handler<AsyncResult<Void>> completionHandler) {
     if (lastHolder != null && subs != null && !lastHolder.isLocalOnly()) {
       ownSubs.remove(address);
+      if (subscriptionCache != null) {
+        subscriptionCache.remove(address);
+        Handler<AsyncResult<Void>> handler = completionHandler;
+        completionHandler = ar -> {
+          subscriptionCache.remove(address);
+          if (handler != null) {
+            handler.handle(ar);
+          }
+        };
+      }
       removeSub(address, nodeInfo, completionHandler);
     } else {
       callCompletionHandlerAsync(completionHandler);
@@ -219,13 +327,40 @@ public class ClusteredEventBus extends EventBusImpl {
         metrics.messageSent(sendContext.message.address(), !sendContext.message.isSend(), true, false);
       }
       deliverMessageLocally(sendContext);
-    } else if (Vertx.currentContext() == null) {
+      return;
+    }
+    String address = sendContext.message.address();
+    long generation = -1;
+    if (subscriptionCache != null) {
+      ChoosableIterable<ClusterNodeInfo> cached = subscriptionCache.get(address);
+      if (metrics != null) {
+        metrics.subscriptionCacheLookup(address, cached != null);
+      }
+      if (cached != null) {
+        sendToSubs(cached, sendContext);
+        return;
+      }
+      generation = subscriptionCache.lookupStarted(address);
+    }
+    long lookupGeneration = generation;
+    if (Vertx.currentContext() == null) {
       // Guarantees the order when there is no current context
       sendNoContext.runOnContext(v -> {
-        subs.get(sendContext.message.address(), ar -> onSubsReceived(ar, sendContext));
+        subs.get(address, ar -> onSubsReceived(ar, sendContext, lookupGeneration));
       });
     } else {
-      subs.get(sendContext.message.address(), ar -> onSubsReceived(ar, sendContext));
+      subs.get(address, ar -> onSubsReceived(ar, sendContext, lookupGeneration));
+    }
+  }
+
+  private <T> void onSubsReceived(AsyncResult<ChoosableIterable<ClusterNodeInfo>> asyncResult, OutboundDeliveryContext<T> sendContext,
+                                  long generation) {
+    try {
+      onSubsReceived(asyncResult, sendContext);
+    } finally {
+      if (subscriptionCache != null) {
+        subscriptionCache.lookupCompleted(sendContext.message.address(), asyncResult.succeeded() ? asyncResult.result() : null, generation);
+      }
     }
   }
 
@@ -248,7 +383,7 @@ public class ClusteredEventBus extends EventBusImpl {
   @Override
   protected String generateReplyAddress() {
     // The address is a cryptographically secure id that can't be guessed
-    return "__vertx.reply." + UUID.randomUUID().toString();
+    return REPLY_ADDRESS_PREFIX + UUID.randomUUID().toString();
   }
 
   @Override
@@ -297,8 +432,11 @@ public class ClusteredEventBus extends EventBusImpl {
   private Handler<NetSocket> getServerHandler() {
     return socket -> {
       RecordParser parser = RecordParser.newFixed(4);
+      // Used on the event loop of the socket and closed with the socket
+      ClusteredMessage.BodyDecompressor decompressor = new ClusteredMessage.BodyDecompressor();
       Handler<Buffer> handler = new Handler<Buffer>() {
         int size = -1;
+        final ClusteredMessage.SenderCache senders = new ClusteredMessage.SenderCache();
 
         public void handle(Buffer buff) {
           if (size == -1) {
@@ -306,7 +444,7 @@ public class ClusteredEventBus extends EventBusImpl {
             parser.fixedSizeMode(size);
           } else {
             ClusteredMessage received = new ClusteredMessage();
-            received.readFromWire(buff, codecManager);
+            received.readFromWire(buff, codecManager, senders, decompressor);
             if (metrics != null) {
               metrics.messageRead(received.address(), buff.length());
             }
@@ -323,6 +461,7 @@ public class ClusteredEventBus extends EventBusImpl {
       };
       parser.setOutput(handler);
       socket.handler(parser);
+      socket.closeHandler(v -> decompressor.close());
     };
   }
 
@@ -386,22 +525,52 @@ public class ClusteredEventBus extends EventBusImpl {
     // Once we connect we send them.
     // This can also be invoked concurrently from different threads, so it gets a little
     // tricky
-    ConnectionHolder holder = connections.get(theServerID);
+    int index = clusterConnections == 1 ? 0 : (message.address().hashCode() & Integer.MAX_VALUE) % clusterConnections;
+    AtomicReferenceArray<ConnectionHolder> holders = connections.get(theServerID);
+    ConnectionHolder holder = holders != null ? holders.get(index) : null;
     if (holder == null) {
-      // When process is creating a lot of connections this can take some time
-      // so increase the timeout
-      holder = new ConnectionHolder(this, theServerID, options);
-      ConnectionHolder prevHolder = connections.putIfAbsent(theServerID, holder);
-      if (prevHolder != null) {
-        // Another one sneaked in
-        holder = prevHolder;
-      } else {
+      ConnectionHolder[] created = new ConnectionHolder[2];
+      connections.compute(theServerID, (serverID, array) -> {
+        if (array == null) {
+          array = new AtomicReferenceArray<>(clusterConnections);
+        }
+        ConnectionHolder prevHolder = array.get(index);
+        if (prevHolder != null) {
+          // Another one sneaked in
+          created[0] = prevHolder;
+        } else {
+          created[0] = created[1] = new ConnectionHolder(this, theServerID, index, options);
+          array.set(index, created[1]);
+        }
+        return array;
+      });
+      holder = created[0];
+      if (created[1] != null) {
         holder.connect();
       }
     }
     holder.writeMessage((ClusteredMessage) message);
   }
 
+  /**
+   * Remove a closed connection.
+   *
+   * @return whether the connection was removed, it is not when it has already been replaced
+   */
+  boolean removeConnection(ConnectionHolder holder) {
+    boolean[] removed = new boolean[1];
+    connections.computeIfPresent(holder.serverID(), (serverID, holders) -> {
+      removed[0] = holders.compareAndSet(holder.index(), holder, null);
+      for (int i = 0;i < holders.length();i++) {
+        if (holders.get(i) != null) {
+          return holders;
+        }
+      }
+      return null;
+    });
+    return removed[0];
+  }
+
   private void removeSub(String subName, ClusterNodeInfo node, Handler<AsyncResult<Void>> completionHandler) {
     subs.remove(subName, node, ar -> {
       if (!ar.succeeded()) {
@@ -421,8 +590,13 @@ public class ClusteredEventBus extends EventBusImpl {
     });
   }
 
-  ConcurrentMap<ServerID, ConnectionHolder> connections() {
-    return connections;
+  /**
+   * Called when the connection to {@code serverID} is closed.
+   */
+  void connectionClosed(ServerID serverID) {
+    if (subscriptionCache != null) {
+      subscriptionCache.removeServer(serverID);
+    }
   }
 
   VertxInternal vertx() {
@@ -11,6 +11,10 @@
 
 package io.vertx.core.eventbus.impl.clustered;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.util.CharsetUtil;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
@@ -25,6 +29,9 @@ import io.vertx.core.net.impl.ServerID;
 
 import java.util.List;
 import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -33,13 +40,27 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
 
   private static final Logger log = LoggerFactory.getLogger(ClusteredMessage.class);
 
-  private static final byte WIRE_PROTOCOL_VERSION = 1;
+  /**
+   * The version of the wire protocol, the version 2 adds the compressed bodies. Frames without a compressed body have
+   * the format of the version 1 and are written with this version, so nodes of version 1 can read them.
+   */
+  static final byte WIRE_PROTOCOL_VERSION = 2;
+
+  private static final byte WIRE_PROTOCOL_VERSION_1 = 1;
+
+  // Flag of the send byte signalling a compressed body
+  private static final byte FLAG_COMPRESSED = 0x02;
+
+  // Unpooled heap buffers, UnpooledByteBufAllocator.DEFAULT prefers direct buffers that must be released
+  private static final ByteBufAllocator HEAP_ALLOCATOR = new UnpooledByteBufAllocator(false);
 
   private ServerID sender;
   private Buffer wireBuffer;
+  private Buffer inflatedBody;
   private int bodyPos;
   private int headersPos;
   private boolean fromWire;
+  private boolean compressed;
 
   public ClusteredMessage() {
   }
@@ -55,10 +76,12 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     this.sender = other.sender;
     if (other.sentBody == null) {
       this.wireBuffer = other.wireBuffer;
+      this.inflatedBody = other.inflatedBody;
       this.bodyPos = other.bodyPos;
       this.headersPos = other.headersPos;
     }
     this.fromWire = other.fromWire;
+    this.compressed = other.compressed;
   }
 
   public ClusteredMessage<U, V> copyBeforeReceive() {
@@ -80,6 +103,14 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     return headers;
   }
 
+  @Override
+  public String header(String name) {
+    if (headers == null && headersPos != 0) {
+      decodeHeaders();
+    }
+    return super.header(name);
+  }
+
   @Override
   public V body() {
     // Lazily decode the body
@@ -95,49 +126,117 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     return replyAddress;
   }
 
+  /**
+   * Encode the message in a heap buffer, like {@link io.netty.buffer.Unpooled#buffer(int)} the buffer is not
+   * released and is reclaimed by the garbage collector.
+   */
   public Buffer encodeToWire() {
-    int length = 1024; // TODO make this configurable
-    Buffer buffer = Buffer.buffer(length);
-    buffer.appendInt(0);
-    buffer.appendByte(WIRE_PROTOCOL_VERSION);
+    return Buffer.buffer(encodeToWire(HEAP_ALLOCATOR, null));
+  }
+
+  /**
+   * Encode the message in a buffer allocated by {@code allocator}, the buffer has the exact size of the frame when the
+   * body has the size predicted by {@code bodySize}.
+   *
+   * @param allocator the allocator of the buffer
+   * @param bodySize the predictor of the body size updated with the actual size or {@code null}
+   * @return the buffer the caller must release
+   */
+  public ByteBuf encodeToWire(ByteBufAllocator allocator, BodySizePredictor bodySize) {
+    return encodeToWire(allocator, bodySize, null);
+  }
+
+  /**
+   * Like {@link #encodeToWire(ByteBufAllocator, BodySizePredictor)}, the body is compressed by {@code compressor} when
+   * it is large enough, the frame is then written with the version 2 of the protocol.
+   *
+   * @param compressor the compressor of the body or {@code null}
+   */
+  public ByteBuf encodeToWire(ByteBufAllocator allocator, BodySizePredictor bodySize, BodyCompressor compressor) {
     byte systemCodecID = messageCodec.systemCodecID();
-    buffer.appendByte(systemCodecID);
-    if (systemCodecID == -1) {
-      // User codec
-      writeString(buffer, messageCodec.name());
-    }
-    buffer.appendByte(send ? (byte)0 : (byte)1);
-    writeString(buffer, address);
-    if (replyAddress != null) {
-      writeString(buffer, replyAddress);
-    } else {
-      buffer.appendInt(0);
+    String codecName = systemCodecID == -1 ? messageCodec.name() : null;
+    int codecNameLength = codecName != null ? ByteBufUtil.utf8Bytes(codecName) : 0;
+    int addressLength = ByteBufUtil.utf8Bytes(address);
+    int replyAddressLength = replyAddress != null ? ByteBufUtil.utf8Bytes(replyAddress) : 0;
+    int hostLength = ByteBufUtil.utf8Bytes(sender.host);
+    int headersLength = headersLength();
+    int headerSize = 4 + 1 + 1 + (codecName != null ? 4 + codecNameLength : 0) + 1 + 4 + addressLength + 4 +
+      replyAddressLength + 4 + 4 + hostLength + headersLength;
+    ByteBuf buf = allocator.buffer(headerSize + (bodySize != null ? bodySize.predict() : 64));
+    try {
+      buf.writeInt(0);
+      buf.writeByte(WIRE_PROTOCOL_VERSION_1);
+      buf.writeByte(systemCodecID);
+      if (codecName != null) {
+        // User codec
+        writeString(buf, codecName, codecNameLength);
+      }
+      int sendPos = buf.writerIndex();
+      buf.writeByte(send ? (byte)0 : (byte)1);
+      writeString(buf, address, addressLength);
+      if (replyAddress != null) {
+        writeString(buf, replyAddress, replyAddressLength);
+      } else {
+        buf.writeInt(0);
+      }
+      buf.writeInt(sender.port);
+      writeString(buf, sender.host, hostLength);
+      encodeHeaders(buf, headersLength);
+      // The codec appends to the buffer
+      messageCodec.encodeToWire(Buffer.buffer(buf), sentBody);
+      int bodyLength = buf.writerIndex() - headerSize;
+      if (bodySize != null) {
+        bodySize.record(bodyLength);
+      }
+      if (compressor != null && compressor.compress(buf, headerSize, bodyLength)) {
+        buf.setByte(4, WIRE_PROTOCOL_VERSION);
+        buf.setByte(sendPos, buf.getByte(sendPos) | FLAG_COMPRESSED);
+      }
+      buf.setInt(0, buf.writerIndex() - 4);
+      return buf;
+    } catch (RuntimeException e) {
+      buf.release();
+      throw e;
     }
-    buffer.appendInt(sender.port);
-    writeString(buffer, sender.host);
-    encodeHeaders(buffer);
-    writeBody(buffer);
-    buffer.setInt(0, buffer.length() - 4);
-    return buffer;
   }
 
   public void readFromWire(Buffer buffer, CodecManager codecManager) {
+    readFromWire(buffer, codecManager, null);
+  }
+
+  /**
+   * Read the message from {@code buffer}, the strings are decoded from the buffer without copying their bytes.
+   *
+   * @param senders the senders of the messages read from the same connection or {@code null}
+   */
+  public void readFromWire(Buffer buffer, CodecManager codecManager, SenderCache senders) {
+    readFromWire(buffer, codecManager, senders, null);
+  }
+
+  /**
+   * Like {@link #readFromWire(Buffer, CodecManager, SenderCache)}, a compressed body is inflated by {@code decompressor}
+   * when the message is read, since the decompressor of a connection cannot be used by the threads decoding the body.
+   * Otherwise the body is inflated when it is decoded.
+   *
+   * @param decompressor the decompressor of the connection the message is read from or {@code null}
+   */
+  public void readFromWire(Buffer buffer, CodecManager codecManager, SenderCache senders, BodyDecompressor decompressor) {
+    ByteBuf buf = buffer.getByteBuf();
     int pos = 0;
     // Overall Length already read when passed in here
-    byte protocolVersion = buffer.getByte(pos);
+    byte protocolVersion = buf.getByte(pos);
     if (protocolVersion > WIRE_PROTOCOL_VERSION) {
       throw new IllegalStateException("Invalid wire protocol version " + protocolVersion +
                                       " should be <= " + WIRE_PROTOCOL_VERSION);
     }
     pos++;
-    byte systemCodecCode = buffer.getByte(pos);
+    byte systemCodecCode = buf.getByte(pos);
     pos++;
     if (systemCodecCode == -1) {
       // User codec
-      int length = buffer.getInt(pos);
+      int length = buf.getInt(pos);
       pos += 4;
-      byte[] bytes = buffer.getBytes(pos, pos + length);
-      String codecName = new String(bytes, CharsetUtil.UTF_8);
+      String codecName = buf.toString(pos, length, CharsetUtil.UTF_8);
       messageCodec = codecManager.getCodec(codecName);
       if (messageCodec == null) {
         throw new IllegalStateException("No message codec registered with name " + codecName);
@@ -146,76 +245,100 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     } else {
       messageCodec = codecManager.systemCodecs()[systemCodecCode];
     }
-    byte bsend = buffer.getByte(pos);
-    send = bsend == 0;
+    byte bsend = buf.getByte(pos);
+    send = (bsend & 1) == 0;
+    compressed = (bsend & FLAG_COMPRESSED) != 0;
     pos++;
-    int length = buffer.getInt(pos);
+    int length = buf.getInt(pos);
     pos += 4;
-    byte[] bytes = buffer.getBytes(pos, pos + length);
-    address = new String(bytes, CharsetUtil.UTF_8);
+    address = buf.toString(pos, length, CharsetUtil.UTF_8);
     pos += length;
-    length = buffer.getInt(pos);
+    length = buf.getInt(pos);
     pos += 4;
     if (length != 0) {
-      bytes = buffer.getBytes(pos, pos + length);
-      replyAddress = new String(bytes, CharsetUtil.UTF_8);
+      replyAddress = buf.toString(pos, length, CharsetUtil.UTF_8);
       pos += length;
     }
-    int senderPort = buffer.getInt(pos);
+    int senderPort = buf.getInt(pos);
     pos += 4;
-    length = buffer.getInt(pos);
+    length = buf.getInt(pos);
     pos += 4;
-    bytes = buffer.getBytes(pos, pos + length);
-    String senderHost = new String(bytes, CharsetUtil.UTF_8);
+    if (senders != null) {
+      sender = senders.get(buf, senderPort, pos, length);
+    } else {
+      sender = new ServerID(senderPort, buf.toString(pos, length, CharsetUtil.UTF_8));
+    }
     pos += length;
     headersPos = pos;
-    int headersLength = buffer.getInt(pos);
+    int headersLength = buf.getInt(pos);
     pos += headersLength;
     bodyPos = pos;
-    sender = new ServerID(senderPort, senderHost);
     wireBuffer = buffer;
     fromWire = true;
+    if (compressed && decompressor != null) {
+      inflatedBody = decompressor.inflate(buf, bodyPos);
+    }
   }
 
   private void decodeBody() {
-    receivedBody = messageCodec.decodeFromWire(bodyPos, wireBuffer);
+    if (compressed) {
+      Buffer body = inflatedBody;
+      if (body == null) {
+        BodyDecompressor decompressor = new BodyDecompressor();
+        try {
+          body = decompressor.inflate(wireBuffer.getByteBuf(), bodyPos);
+        } finally {
+          decompressor.close();
+        }
+      }
+      receivedBody = messageCodec.decodeFromWire(0, body);
+      inflatedBody = null;
+    } else {
+      receivedBody = messageCodec.decodeFromWire(bodyPos, wireBuffer);
+    }
     bodyPos = 0;
   }
 
-  private void encodeHeaders(Buffer buffer) {
+  private int headersLength() {
     if (headers != null && !headers.isEmpty()) {
-      int headersLengthPos = buffer.length();
-      buffer.appendInt(0);
-      buffer.appendInt(headers.size());
+      int length = 4 + 4;
+      for (Map.Entry<String, String> entry: headers.entries()) {
+        length += 4 + ByteBufUtil.utf8Bytes(entry.getKey()) + 4 + ByteBufUtil.utf8Bytes(entry.getValue());
+      }
+      return length;
+    } else {
+      return 4;
+    }
+  }
+
+  private void encodeHeaders(ByteBuf buf, int headersLength) {
+    buf.writeInt(headersLength);
+    if (headersLength != 4) {
       List<Map.Entry<String, String>> entries = headers.entries();
+      buf.writeInt(entries.size());
       for (Map.Entry<String, String> entry: entries) {
-        writeString(buffer, entry.getKey());
-        writeString(buffer, entry.getValue());
+        writeString(buf, entry.getKey(), ByteBufUtil.utf8Bytes(entry.getKey()));
+        writeString(buf, entry.getValue(), ByteBufUtil.utf8Bytes(entry.getValue()));
       }
-      int headersEndPos = buffer.length();
-      buffer.setInt(headersLengthPos, headersEndPos - headersLengthPos);
-    } else {
-      buffer.appendInt(4);
     }
   }
 
   private void decodeHeaders() {
     int length = wireBuffer.getInt(headersPos);
     if (length != 4) {
+      ByteBuf buf = wireBuffer.getByteBuf();
       headersPos += 4;
-      int numHeaders = wireBuffer.getInt(headersPos);
+      int numHeaders = buf.getInt(headersPos);
       headersPos += 4;
       headers = new CaseInsensitiveHeaders();
       for (int i = 0; i < numHeaders; i++) {
-        int keyLength = wireBuffer.getInt(headersPos);
+        int keyLength = buf.getInt(headersPos);
         headersPos += 4;
-        byte[] bytes = wireBuffer.getBytes(headersPos, headersPos + keyLength);
-        String key = new String(bytes, CharsetUtil.UTF_8);
+        String key = buf.toString(headersPos, keyLength, CharsetUtil.UTF_8);
         headersPos += keyLength;
-        int valLength = wireBuffer.getInt(headersPos);
+        int valLength = buf.getInt(headersPos);
         headersPos += 4;
-        bytes = wireBuffer.getBytes(headersPos, headersPos + valLength);
-        String val = new String(bytes, CharsetUtil.UTF_8);
+        String val = buf.toString(headersPos, valLength, CharsetUtil.UTF_8);
         headersPos += valLength;
         headers.add(key, val);
       }
@@ -223,14 +346,9 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     headersPos = 0;
   }
 
-  private void writeBody(Buffer buff) {
-    messageCodec.encodeToWire(buff, sentBody);
-  }
-
-  private void writeString(Buffer buff, String str) {
-    byte[] strBytes = str.getBytes(CharsetUtil.UTF_8);
-    buff.appendInt(strBytes.length);
-    buff.appendBytes(strBytes);
+  private static void writeString(ByteBuf buf, String str, int length) {
+    buf.writeInt(length);
+    ByteBufUtil.writeUtf8(buf, str);
   }
 
   ServerID getSender() {
@@ -244,4 +362,181 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
   protected boolean isLocal() {
     return !isFromWire();
   }
+
+  /**
+   * Predicts the size of the encoded bodies from the size of the previous bodies: the prediction grows to the size of
+   * a larger body and decreases slowly toward the size of smaller bodies, so the buffer of a message rarely grows when
+   * its body is encoded. This class is not thread safe.
+   */
+  public static final class BodySizePredictor {
+
+    private int size = 64;
+
+    public int predict() {
+      return size;
+    }
+
+    public void record(int actual) {
+      if (actual >= size) {
+        size = actual;
+      } else {
+        size -= (size - actual) >> 3;
+      }
+    }
+  }
+
+  /**
+   * Compresses the bodies larger than a threshold with deflate, the compressed body replaces the body in the frame when
+   * it is smaller, preceded by the length of the body. This class is not thread safe and must be closed to release the
+   * native memory of the deflater.
+   */
+  public static final class BodyCompressor {
+
+    private final int threshold;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] input = new byte[0];
+    private byte[] output = new byte[0];
+
+    /**
+     * @param threshold the min size of a compressed body
+     */
+    public BodyCompressor(int threshold) {
+      this.threshold = threshold;
+    }
+
+    /**
+     * Compress the body at the end of {@code buf}.
+     *
+     * @return whether the body was compressed, otherwise {@code buf} is not modified
+     */
+    boolean compress(ByteBuf buf, int pos, int length) {
+      if (length < threshold || length <= 4) {
+        return false;
+      }
+      byte[] in;
+      int offset;
+      if (buf.hasArray()) {
+        in = buf.array();
+        offset = buf.arrayOffset() + pos;
+      } else {
+        if (input.length < length) {
+          input = new byte[length];
+        }
+        buf.getBytes(pos, input, 0, length);
+        in = input;
+        offset = 0;
+      }
+      // The compressed body and its length must be smaller than the body
+      int max = length - 4;
+      if (output.length < max) {
+        output = new byte[max];
+      }
+      deflater.reset();
+      deflater.setInput(in, offset, length);
+      deflater.finish();
+      int size = 0;
+      while (!deflater.finished() && size < max) {
+        size += deflater.deflate(output, size, max - size);
+      }
+      if (!deflater.finished()) {
+        return false;
+      }
+      buf.writerIndex(pos);
+      buf.writeInt(length);
+      buf.writeBytes(output, 0, size);
+      return true;
+    }
+
+    public void close() {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Inflates the compressed bodies of the messages read from a connection with a single inflater, reset after each
+   * body. This class is not thread safe and must be closed to release the native memory of the inflater.
+   */
+  public static final class BodyDecompressor {
+
+    private Inflater inflater;
+
+    /**
+     * Inflate the compressed body at {@code bodyPos} of {@code buf}, preceded by the length of the body.
+     */
+    Buffer inflate(ByteBuf buf, int bodyPos) {
+      int length = buf.getInt(bodyPos);
+      int pos = bodyPos + 4;
+      byte[] input;
+      int offset;
+      int inputLength = buf.writerIndex() - pos;
+      if (buf.hasArray()) {
+        input = buf.array();
+        offset = buf.arrayOffset() + pos;
+      } else {
+        input = ByteBufUtil.getBytes(buf, pos, inputLength);
+        offset = 0;
+      }
+      if (inflater == null) {
+        inflater = new Inflater();
+      }
+      byte[] body = new byte[length];
+      try {
+        inflater.setInput(input, offset, inputLength);
+        int read = 0;
+        while (read < length && !inflater.finished()) {
+          int n = inflater.inflate(body, read, length - read);
+          if (n == 0 && inflater.needsInput()) {
+            break;
+          }
+          read += n;
+        }
+        if (read != length) {
+          throw new IllegalStateException("Invalid compressed body length " + read + " should be " + length);
+        }
+      } catch (DataFormatException e) {
+        throw new IllegalStateException("Invalid compressed body", e);
+      } finally {
+        // Also releases the input
+        inflater.reset();
+      }
+      return Buffer.buffer(body);
+    }
+
+    public void close() {
+      if (inflater != null) {
+        inflater.end();
+        inflater = null;
+      }
+    }
+  }
+
+  /**
+   * The last sender read from a connection, the messages read from a connection are usually sent by the same node so
+   * its {@link ServerID} is reused when the port and the host bytes are the same. This class is not thread safe.
+   */
+  public static final class SenderCache {
+
+    private ServerID sender;
+    private byte[] host;
+
+    ServerID get(ByteBuf buf, int port, int pos, int length) {
+      if (sender == null || sender.port != port || !sameHost(buf, pos, length)) {
+        host = ByteBufUtil.getBytes(buf, pos, length);
+        sender = new ServerID(port, new String(host, CharsetUtil.UTF_8));
+      }
+      return sender;
+    }
+
+    private boolean sameHost(ByteBuf buf, int pos, int length) {
+      if (host.length != length) {
+        return false;
+      }
+      for (int i = 0;i < length;i++) {
+        if (host[i] != buf.getByte(pos + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
 }
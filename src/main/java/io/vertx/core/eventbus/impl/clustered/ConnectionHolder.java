@@ -11,10 +11,15 @@
 
 package io.vertx.core.eventbus.impl.clustered;
 
-import io.vertx.core.Vertx;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.vertx.core.Context;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.EventBusOptions;
 import io.vertx.core.eventbus.impl.codecs.PingMessageCodec;
+import io.vertx.core.impl.NetSocketInternal;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.net.NetClient;
@@ -36,33 +41,72 @@ class ConnectionHolder {
 
   private static final String PING_ADDRESS = "__vertx_ping";
 
+  // The coalesced messages are copied in a single buffer beyond this number
+  private static final int MAX_COALESCED_COMPONENTS = 1024;
+
   private final ClusteredEventBus eventBus;
   private final NetClient client;
   private final ServerID serverID;
-  private final Vertx vertx;
+  private final int index;
+  private final VertxInternal vertx;
   private final EventBusMetrics metrics;
+  private final boolean writeCoalescing;
+  private final int writeCoalescingMaxBytes;
+  private final int compressionThreshold;
 
   private Queue<ClusteredMessage> pending;
-  private NetSocket socket;
+  private NetSocketInternal socket;
+  private ByteBufAllocator allocator;
+  private final ClusteredMessage.BodySizePredictor bodySize = new ClusteredMessage.BodySizePredictor();
+  private Context context;
+  private CompositeByteBuf coalesced;
+  private int coalescedMessages;
+  private ClusteredMessage.BodyCompressor compressor;
+  private boolean negotiating;
   private boolean connected;
+  private boolean closed;
   private long timeoutID = -1;
   private long pingTimeoutID = -1;
 
-  ConnectionHolder(ClusteredEventBus eventBus, ServerID serverID, EventBusOptions options) {
+  ConnectionHolder(ClusteredEventBus eventBus, ServerID serverID, int index, EventBusOptions options) {
     this.eventBus = eventBus;
     this.serverID = serverID;
+    this.index = index;
     this.vertx = eventBus.vertx();
     this.metrics = eventBus.getMetrics();
+    this.writeCoalescing = options.isWriteCoalescing();
+    this.writeCoalescingMaxBytes = options.getWriteCoalescingMaxBytes();
+    this.compressionThreshold = options.getCompressionThreshold();
     NetClientOptions clientOptions = new NetClientOptions(options.toJson());
     ClusteredEventBus.setCertOptions(clientOptions, options.getKeyCertOptions());
     ClusteredEventBus.setTrustOptions(clientOptions, options.getTrustOptions());
     client = new NetClientImpl(eventBus.vertx(), clientOptions, false);
   }
 
+  ServerID serverID() {
+    return serverID;
+  }
+
+  /**
+   * @return the index of the connection among the connections to the node
+   */
+  int index() {
+    return index;
+  }
+
   synchronized void connect() {
     if (connected) {
       throw new IllegalStateException("Already connected");
     }
+    if (eventBus.options().getClusterConnections() > 1) {
+      // Connect on the context of the index so the connections to the node are handled by different event loops
+      eventBus.connectionContext(index).runOnContext(v -> doConnect());
+    } else {
+      doConnect();
+    }
+  }
+
+  private void doConnect() {
     client.connect(serverID.port, serverID.host, res -> {
       if (res.succeeded()) {
         connected(res.result());
@@ -76,11 +120,7 @@ class ConnectionHolder {
   // TODO optimise this (contention on monitor)
   synchronized void writeMessage(ClusteredMessage message) {
     if (connected) {
-      Buffer data = message.encodeToWire();
-      if (metrics != null) {
-        metrics.messageWritten(message.address(), data.length());
-      }
-      socket.write(data);
+      send(message);
     } else {
       if (pending == null) {
         if (log.isDebugEnabled()) {
@@ -92,6 +132,84 @@ class ConnectionHolder {
     }
   }
 
+  /**
+   * Encode {@code message} in a buffer of the channel allocator sized for the message, the buffer is released by the
+   * channel once written.
+   */
+  private void send(ClusteredMessage message) {
+    ByteBuf data = message.encodeToWire(allocator, bodySize, compressor);
+    if (metrics != null) {
+      metrics.messageWritten(message.address(), data.readableBytes());
+    }
+    if (writeCoalescing) {
+      coalesce(data);
+    } else {
+      write(data);
+    }
+  }
+
+  private void write(ByteBuf data) {
+    // The buffer is written to the channel as is, which releases it
+    socket.reportBytesWritten(data.readableBytes());
+    try {
+      socket.writeMessage(data);
+    } catch (IllegalStateException e) {
+      // Closed
+      data.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Add {@code data} to the coalesced messages. They are written by a task scheduled on the connection context when the
+   * first message is added, so the messages written by an event loop task are written when it completes, or as soon as
+   * they reach the max bytes.
+   */
+  private void coalesce(ByteBuf data) {
+    if (coalesced == null) {
+      coalesced = allocator.compositeBuffer(MAX_COALESCED_COMPONENTS);
+      context.runOnContext(v -> flushCoalesced());
+    }
+    coalesced.addComponent(true, data);
+    coalescedMessages++;
+    if (coalesced.readableBytes() >= writeCoalescingMaxBytes) {
+      writeCoalesced();
+    }
+  }
+
+  private synchronized void flushCoalesced() {
+    if (coalesced != null) {
+      writeCoalesced();
+    }
+  }
+
+  private void writeCoalesced() {
+    if (metrics != null) {
+      metrics.messagesFlushed(coalescedMessages, coalesced.readableBytes());
+    }
+    CompositeByteBuf data = coalesced;
+    coalesced = null;
+    coalescedMessages = 0;
+    write(data);
+  }
+
+  private synchronized void release() {
+    closed = true;
+    if (coalesced != null) {
+      // Write the coalesced messages before the socket is closed
+      int messages = coalescedMessages;
+      try {
+        writeCoalesced();
+      } catch (IllegalStateException e) {
+        log.warn("Dropped " + messages + " coalesced messages for server " + serverID + " - the connection is closed");
+      }
+    }
+    if (compressor != null) {
+      compressor.close();
+      compressor = null;
+    }
+  }
+
   void close() {
     if (timeoutID != -1) {
       vertx.cancelTimer(timeoutID);
@@ -99,13 +217,15 @@ class ConnectionHolder {
     if (pingTimeoutID != -1) {
       vertx.cancelTimer(pingTimeoutID);
     }
+    release();
     try {
       client.close();
     } catch (Exception ignore) {
     }
     // The holder can be null or different if the target server is restarted with same serverid
     // before the cleanup for the previous one has been processed
-    if (eventBus.connections().remove(serverID, this)) {
+    if (eventBus.removeConnection(this)) {
+      eventBus.connectionClosed(serverID);
       if (log.isDebugEnabled()) {
         log.debug("Cluster connection closed for server " + serverID);
       }
@@ -121,23 +241,52 @@ class ConnectionHolder {
         log.warn("No pong from server " + serverID + " - will consider it dead");
         close();
       });
-      ClusteredMessage pingMessage =
-        new ClusteredMessage<>(serverID, PING_ADDRESS, null, null, null, new PingMessageCodec(), true, eventBus);
-      Buffer data = pingMessage.encodeToWire();
-      socket.write(data);
+      sendPing();
     });
   }
 
+  private void sendPing() {
+    ClusteredMessage pingMessage =
+      new ClusteredMessage<>(serverID, PING_ADDRESS, null, null, null, new PingMessageCodec(), true, eventBus);
+    Buffer data = pingMessage.encodeToWire();
+    socket.write(data);
+  }
+
+  /**
+   * Called with the wire protocol version of the server carried by the pong of the ping sent on connect, the bodies
+   * are compressed when the server reads compressed bodies.
+   */
+  private synchronized void negotiated(byte version) {
+    negotiating = false;
+    if (version >= ClusteredMessage.WIRE_PROTOCOL_VERSION && !closed) {
+      compressor = new ClusteredMessage.BodyCompressor(compressionThreshold);
+    }
+  }
+
   private synchronized void connected(NetSocket socket) {
-    this.socket = socket;
+    this.socket = (NetSocketInternal) socket;
+    this.allocator = this.socket.channelHandlerContext().alloc();
+    // The coalesced messages are flushed on the event loop of the socket
+    this.context = this.socket.getContext();
     connected = true;
     socket.exceptionHandler(t -> close());
     socket.closeHandler(v -> close());
     socket.handler(data -> {
+      if (negotiating) {
+        negotiated(data.getByte(0));
+        if (data.length() == 1) {
+          return;
+        }
+      }
       // Got a pong back
       vertx.cancelTimer(timeoutID);
       schedulePing();
     });
+    if (compressionThreshold >= 0) {
+      // The pong carries the version of the server, servers of version 1 reply 1
+      negotiating = true;
+      sendPing();
+    }
     // Start a pinger
     schedulePing();
     if (pending != null) {
@@ -145,11 +294,7 @@ class ConnectionHolder {
         log.debug("Draining the queue for server " + serverID);
       }
       for (ClusteredMessage message : pending) {
-        Buffer data = message.encodeToWire();
-        if (metrics != null) {
-          metrics.messageWritten(message.address(), data.length());
-        }
-        socket.write(data);
+        send(message);
       }
     }
     pending = null;
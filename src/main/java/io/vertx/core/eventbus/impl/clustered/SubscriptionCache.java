@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.spi.cluster.ChoosableIterable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A node local cache of the nodes subscribed to an address, so sending a message to an address does not look up the
+ * subscriptions map of the cluster manager.
+ * <p/>
+ * The cluster manager does not notify the changes of the subscriptions map, so an entry is removed when:
+ * <ul>
+ *   <li>it is older than the max age</li>
+ *   <li>this node subscribes to or unsubscribes from its address</li>
+ *   <li>one of its nodes leaves the cluster or its connection is closed</li>
+ * </ul>
+ * Addresses without subscribers are not cached, so a subscription to a new address is seen immediately.
+ * <p/>
+ * A lookup started before a removal might complete after it, each removal increments a generation and the result
+ * of a lookup is only cached when the generation did not change during the lookup. The cached nodes of an address are
+ * not used while the nodes of this address are looked up, so the messages sent to an address are not reordered.
+ * <p/>
+ * A cached entry is a snapshot of the nodes, chosen in a round robin fashion, it can be used concurrently.
+ */
+class SubscriptionCache {
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Integer> lookups = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private final long maxAge;
+
+  /**
+   * @param maxAge the max age of an entry, in ms
+   */
+  SubscriptionCache(long maxAge) {
+    this.maxAge = TimeUnit.MILLISECONDS.toNanos(maxAge);
+  }
+
+  /**
+   * @return the cached nodes of {@code address} or {@code null}
+   */
+  ChoosableIterable<ClusterNodeInfo> get(String address) {
+    if (!lookups.isEmpty() && lookups.containsKey(address)) {
+      return null;
+    }
+    Entry entry = entries.get(address);
+    if (entry != null && System.nanoTime() - entry.timestamp > maxAge) {
+      entries.remove(address, entry);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Called when the nodes of {@code address} are looked up in the cluster manager.
+   *
+   * @return the generation to pass to {@link #lookupCompleted} when the lookup completes
+   */
+  long lookupStarted(String address) {
+    lookups.merge(address, 1, Integer::sum);
+    return generation.get();
+  }
+
+  /**
+   * Called when the lookup of the nodes of {@code address} started at {@code generation} completes.
+   *
+   * @param nodes the nodes or {@code null} when the lookup failed
+   */
+  void lookupCompleted(String address, ChoosableIterable<ClusterNodeInfo> nodes, long generation) {
+    if (nodes != null && !nodes.isEmpty()) {
+      Entry entry = new Entry(nodes);
+      entries.put(address, entry);
+      if (this.generation.get() != generation) {
+        // Removed during the lookup
+        entries.remove(address, entry);
+      }
+    }
+    lookups.computeIfPresent(address, (key, count) -> count == 1 ? null : count - 1);
+  }
+
+  void remove(String address) {
+    generation.incrementAndGet();
+    entries.remove(address);
+  }
+
+  /**
+   * Remove the entries of the node {@code nodeId}.
+   */
+  void removeNode(String nodeId) {
+    generation.incrementAndGet();
+    entries.values().removeIf(entry -> entry.contains(nodeId, null));
+  }
+
+  /**
+   * Remove the entries of the node of {@code serverID}.
+   */
+  void removeServer(ServerID serverID) {
+    generation.incrementAndGet();
+    entries.values().removeIf(entry -> entry.contains(null, serverID));
+  }
+
+  private static class Entry implements ChoosableIterable<ClusterNodeInfo> {
+
+    private final ClusterNodeInfo[] nodes;
+    private final AtomicInteger index = new AtomicInteger();
+    private final long timestamp = System.nanoTime();
+
+    private Entry(ChoosableIterable<ClusterNodeInfo> nodes) {
+      int size = 0;
+      ClusterNodeInfo[] array = new ClusterNodeInfo[4];
+      for (ClusterNodeInfo node : nodes) {
+        if (size == array.length) {
+          array = Arrays.copyOf(array, size * 2);
+        }
+        array[size++] = node;
+      }
+      this.nodes = Arrays.copyOf(array, size);
+    }
+
+    private boolean contains(String nodeId, ServerID serverID) {
+      for (ClusterNodeInfo node : nodes) {
+        if ((nodeId != null && nodeId.equals(node.nodeId)) || (serverID != null && serverID.equals(node.serverID))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return nodes.length == 0;
+    }
+
+    @Override
+    public ClusterNodeInfo choose() {
+      if (nodes.length == 0) {
+        return null;
+      }
+      return nodes[(index.getAndIncrement() & Integer.MAX_VALUE) % nodes.length];
+    }
+
+    @Override
+    public Iterator<ClusterNodeInfo> iterator() {
+      return Arrays.asList(nodes).iterator();
+    }
+  }
+}
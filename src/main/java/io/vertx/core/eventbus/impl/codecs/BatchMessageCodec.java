@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.core.eventbus.impl.codecs;
+
+import io.netty.util.CharsetUtil;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.impl.CodecManager;
+import io.vertx.core.eventbus.impl.MessageBatch;
+
+/**
+ * The codec of the batches, each body of the batch is encoded with its codec and a length prefix.
+ */
+public class BatchMessageCodec implements MessageCodec<MessageBatch, MessageBatch> {
+
+  private final CodecManager codecManager;
+
+  public BatchMessageCodec(CodecManager codecManager) {
+    this.codecManager = codecManager;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void encodeToWire(Buffer buffer, MessageBatch batch) {
+    int size = batch.size();
+    buffer.appendInt(size);
+    for (int i = 0;i < size;i++) {
+      MessageCodec codec = batch.codec(i);
+      byte systemCodecID = codec.systemCodecID();
+      buffer.appendByte(systemCodecID);
+      if (systemCodecID == -1) {
+        byte[] name = codec.name().getBytes(CharsetUtil.UTF_8);
+        buffer.appendInt(name.length);
+        buffer.appendBytes(name);
+      }
+      int lengthPos = buffer.length();
+      buffer.appendInt(0);
+      codec.encodeToWire(buffer, batch.get(i));
+      buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+  }
+
+  @Override
+  public MessageBatch decodeFromWire(int pos, Buffer buffer) {
+    int size = buffer.getInt(pos);
+    pos += 4;
+    Object[] bodies = new Object[size];
+    MessageCodec[] codecs = new MessageCodec[size];
+    for (int i = 0;i < size;i++) {
+      byte systemCodecID = buffer.getByte(pos);
+      pos++;
+      MessageCodec codec;
+      if (systemCodecID == -1) {
+        int length = buffer.getInt(pos);
+        pos += 4;
+        String codecName = new String(buffer.getBytes(pos, pos + length), CharsetUtil.UTF_8);
+        pos += length;
+        codec = codecManager.getCodec(codecName);
+        if (codec == null) {
+          throw new IllegalStateException("No message codec registered with name " + codecName);
+        }
+      } else {
+        codec = codecManager.systemCodecs()[systemCodecID];
+      }
+      int length = buffer.getInt(pos);
+      pos += 4;
+      bodies[i] = codec.decodeFromWire(pos, buffer);
+      codecs[i] = codec;
+      pos += length;
+    }
+    return new MessageBatch(bodies, codecs);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public MessageBatch transform(MessageBatch batch) {
+    int size = batch.size();
+    Object[] bodies = new Object[size];
+    MessageCodec[] codecs = new MessageCodec[size];
+    for (int i = 0;i < size;i++) {
+      codecs[i] = batch.codec(i);
+      bodies[i] = codecs[i].transform(batch.get(i));
+    }
+    return new MessageBatch(bodies, codecs);
+  }
+
+  @Override
+  public String name() {
+    return "batch";
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return 16;
+  }
+}
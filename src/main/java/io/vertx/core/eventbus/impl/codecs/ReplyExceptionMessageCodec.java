@@ -24,7 +24,10 @@ public class ReplyExceptionMessageCodec implements MessageCodec<ReplyException,
 
   @Override
   public void encodeToWire(Buffer buffer, ReplyException body) {
-    buffer.appendByte((byte)body.failureType().toInt());
+    // Nodes that do not know OVERFLOW cannot decode its index, it is sent as a RECIPIENT_FAILURE
+    // followed by its index after the message, which these nodes do not read
+    boolean overflow = body.failureType() == ReplyFailure.OVERFLOW;
+    buffer.appendByte((byte)(overflow ? ReplyFailure.RECIPIENT_FAILURE : body.failureType()).toInt());
     buffer.appendInt(body.failureCode());
     if (body.getMessage() == null) {
       buffer.appendByte((byte)0);
@@ -34,6 +37,9 @@ public class ReplyExceptionMessageCodec implements MessageCodec<ReplyException,
       buffer.appendInt(encoded.length);
       buffer.appendBytes(encoded);
     }
+    if (overflow) {
+      buffer.appendByte((byte)ReplyFailure.OVERFLOW.toInt());
+    }
   }
 
   @Override
@@ -44,16 +50,20 @@ public class ReplyExceptionMessageCodec implements MessageCodec<ReplyException,
     int failureCode = buffer.getInt(pos);
     pos += 4;
     boolean isNull = buffer.getByte(pos) == (byte)0;
+    pos++;
     String message;
     if (!isNull) {
-      pos++;
       int strLength = buffer.getInt(pos);
       pos += 4;
       byte[] bytes = buffer.getBytes(pos, pos + strLength);
+      pos += strLength;
       message = new String(bytes, CharsetUtil.UTF_8);
     } else {
       message = null;
     }
+    if (pos < buffer.length()) {
+      rf = ReplyFailure.fromInt(buffer.getByte(pos));
+    }
     return new ReplyException(rf, failureCode, message);
   }
 
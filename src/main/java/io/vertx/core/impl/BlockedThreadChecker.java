@@ -14,7 +14,11 @@ package io.vertx.core.impl;
 import io.vertx.core.VertxException;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.spi.metrics.VertxMetrics;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -22,6 +26,13 @@ import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Periodically checks whether the Vert.x threads are blocked.
+ * <p>
+ * When a sampling threshold is configured, the checker also samples at its own interval the stack of the event loop
+ * threads executing a task for longer than the threshold (a percentage of their max execute time). The samples are aggregated as
+ * folded stacks: each stack is the thread name followed by the frames from the root to the leaf separated by
+ * {@code ;}, this is the input format of flame graph tools.
+ *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 public class BlockedThreadChecker {
@@ -29,10 +40,22 @@ public class BlockedThreadChecker {
   private static final Logger log = LoggerFactory.getLogger(BlockedThreadChecker.class);
 
   private static final Object O = new Object();
+  private static final int MAX_SAMPLED_STACKS = 10000;
   private final Map<VertxThread, Object> threads = new WeakHashMap<>();
+  private final Map<VirtualThreadExecutor, Object> virtualExecutors = new WeakHashMap<>();
   private final Timer timer; // Need to use our own timer - can't use event loop for this
+  private final Timer samplingTimer;
+  private VertxMetrics metrics;
+  private final int samplingThreshold;
+  private final Map<String, Long> samples = new HashMap<>();
 
   BlockedThreadChecker(long interval, TimeUnit intervalUnit, long warningExceptionTime, TimeUnit warningExceptionTimeUnit) {
+    this(interval, intervalUnit, warningExceptionTime, warningExceptionTimeUnit, 0, 0, TimeUnit.MILLISECONDS);
+  }
+
+  BlockedThreadChecker(long interval, TimeUnit intervalUnit, long warningExceptionTime, TimeUnit warningExceptionTimeUnit,
+                       int samplingThreshold, long samplingInterval, TimeUnit samplingIntervalUnit) {
+    this.samplingThreshold = samplingThreshold;
     timer = new Timer("vertx-blocked-thread-checker", true);
     timer.schedule(new TimerTask() {
       @Override
@@ -40,32 +63,132 @@ public class BlockedThreadChecker {
         synchronized (BlockedThreadChecker.this) {
           long now = System.nanoTime();
           for (VertxThread thread : threads.keySet()) {
-            long execStart = thread.startTime();
-            long dur = now - execStart;
-            final long timeLimit = thread.getMaxExecTime();
-            TimeUnit maxExecTimeUnit = thread.getMaxExecTimeUnit();
-            long val = maxExecTimeUnit.convert(dur, TimeUnit.NANOSECONDS);
-            if (execStart != 0 && val >= timeLimit) {
-              final String message = "Thread " + thread + " has been blocked for " + (dur / 1_000_000) + " ms, time limit is " + TimeUnit.MILLISECONDS.convert(timeLimit, maxExecTimeUnit) + " ms";
-              if (warningExceptionTimeUnit.convert(dur, TimeUnit.NANOSECONDS) <= warningExceptionTime) {
-                log.warn(message);
-              } else {
-                VertxException stackTrace = new VertxException("Thread blocked");
-                stackTrace.setStackTrace(thread.getStackTrace());
-                log.warn(message, stackTrace);
+            check(now, thread, thread.startTime(), thread.getMaxExecTime(), thread.getMaxExecTimeUnit(), warningExceptionTime, warningExceptionTimeUnit);
+          }
+          for (VirtualThreadExecutor executor : virtualExecutors.keySet()) {
+            executor.runningThreads().forEach((thread, execStart) -> {
+              check(now, thread, execStart, executor.getMaxExecTime(), executor.getMaxExecTimeUnit(), warningExceptionTime, warningExceptionTimeUnit);
+            });
+          }
+          if (metrics != null) {
+            for (VertxThread thread : threads.keySet()) {
+              EventLoopStatistics statistics = thread.getStatistics();
+              if (statistics != null) {
+                statistics.report(thread.getName(), metrics);
               }
             }
           }
         }
       }
     }, intervalUnit.toMillis(interval), intervalUnit.toMillis(interval));
+    if (samplingThreshold > 0) {
+      long period = Math.max(1, samplingIntervalUnit.toMillis(samplingInterval));
+      samplingTimer = new Timer("vertx-blocked-thread-sampler", true);
+      samplingTimer.schedule(new TimerTask() {
+        @Override
+        public void run() {
+          // Walk the stacks outside the checker monitor, a slow stack walk does not delay the checks
+          List<VertxThread> blocked = new ArrayList<>();
+          List<Long> execStarts = new ArrayList<>();
+          synchronized (BlockedThreadChecker.this) {
+            long now = System.nanoTime();
+            for (VertxThread thread : threads.keySet()) {
+              long execStart = thread.startTime();
+              long threshold = thread.getMaxExecTimeUnit().toNanos(thread.getMaxExecTime()) / 100 * samplingThreshold;
+              if (!thread.isWorker() && execStart != 0 && now - execStart >= threshold) {
+                blocked.add(thread);
+                execStarts.add(execStart);
+              }
+            }
+          }
+          for (int i = 0;i < blocked.size();i++) {
+            sample(blocked.get(i), execStarts.get(i));
+          }
+        }
+      }, period, period);
+    } else {
+      samplingTimer = null;
+    }
+  }
+
+  private static void check(long now, Thread thread, long execStart, long timeLimit, TimeUnit maxExecTimeUnit,
+                            long warningExceptionTime, TimeUnit warningExceptionTimeUnit) {
+    long dur = now - execStart;
+    long val = maxExecTimeUnit.convert(dur, TimeUnit.NANOSECONDS);
+    if (execStart != 0 && val >= timeLimit) {
+      final String message = "Thread " + thread + " has been blocked for " + (dur / 1_000_000) + " ms, time limit is " + TimeUnit.MILLISECONDS.convert(timeLimit, maxExecTimeUnit) + " ms";
+      if (warningExceptionTimeUnit.convert(dur, TimeUnit.NANOSECONDS) <= warningExceptionTime) {
+        log.warn(message);
+      } else {
+        VertxException stackTrace = new VertxException("Thread blocked");
+        stackTrace.setStackTrace(thread.getStackTrace());
+        log.warn(message, stackTrace);
+      }
+    }
+  }
+
+  private void sample(VertxThread thread, long execStart) {
+    StackTraceElement[] stack = thread.getStackTrace();
+    if (stack.length == 0 || thread.startTime() != execStart) {
+      // The task completed while the stack was taken
+      return;
+    }
+    String folded = fold(thread.getName(), stack);
+    synchronized (this) {
+      Long count = samples.get(folded);
+      if (count != null) {
+        samples.put(folded, count + 1);
+      } else if (samples.size() < MAX_SAMPLED_STACKS) {
+        samples.put(folded, 1L);
+      }
+    }
+  }
+
+  /**
+   * Fold a stack: the thread name followed by the frames from the root to the leaf separated by {@code ;}.
+   */
+  static String fold(String threadName, StackTraceElement[] stack) {
+    StringBuilder sb = new StringBuilder(threadName);
+    for (int i = stack.length - 1;i >= 0;i--) {
+      StackTraceElement frame = stack[i];
+      sb.append(';').append(frame.getClassName()).append('.').append(frame.getMethodName());
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return a copy of the sampled folded stacks and their number of samples
+   */
+  public synchronized Map<String, Long> samples() {
+    return new HashMap<>(samples);
+  }
+
+  /**
+   * Clear the sampled stacks.
+   */
+  public synchronized void clearSamples() {
+    samples.clear();
   }
 
   public synchronized void registerThread(VertxThread thread) {
     threads.put(thread, O);
   }
 
+  synchronized void registerExecutor(VirtualThreadExecutor executor) {
+    virtualExecutors.put(executor, O);
+  }
+
+  /**
+   * Report periodically the statistics of the event loop threads to the {@code metrics}.
+   */
+  synchronized void reportEventLoopStatistics(VertxMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   public void close() {
     timer.cancel();
+    if (samplingTimer != null) {
+      samplingTimer.cancel();
+    }
   }
 }
@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -61,7 +62,7 @@ abstract class ContextImpl implements ContextInternal {
   private CloseHooks closeHooks;
   private final ClassLoader tccl;
   private final EventLoop eventLoop;
-  private ConcurrentMap<Object, Object> contextData;
+  private volatile AtomicReferenceArray<Object> locals = new AtomicReferenceArray<>(ContextLocal.count());
   private volatile Handler<Throwable> exceptionHandler;
   protected final WorkerPool workerPool;
   protected final WorkerPool internalBlockingPool;
@@ -94,11 +95,24 @@ abstract class ContextImpl implements ContextInternal {
     Thread current = Thread.currentThread();
     if (current instanceof VertxThread) {
       setContext((VertxThread) current, context);
+    } else if (VirtualThreadExecutor.isVirtualWorker()) {
+      setVirtualContext(context);
     } else {
       throw new IllegalStateException("Attempt to setContext on non Vert.x thread " + Thread.currentThread());
     }
   }
 
+  private static void setVirtualContext(ContextImpl context) {
+    VirtualThreadExecutor.setContext(context);
+    if (!DISABLE_TCCL) {
+      if (context != null) {
+        context.setTCCL();
+      } else {
+        Thread.currentThread().setContextClassLoader(null);
+      }
+    }
+  }
+
   private static void setContext(VertxThread thread, ContextImpl context) {
     thread.setContext(context);
     if (!DISABLE_TCCL) {
@@ -166,7 +180,7 @@ abstract class ContextImpl implements ContextInternal {
       VertxThread vt = (VertxThread) t;
       return vt.isWorker() == worker;
     }
-    return false;
+    return worker && VirtualThreadExecutor.isVirtualWorker();
   }
 
   // This is called to execute code where the origin is IO (from Netty probably).
@@ -255,13 +269,14 @@ abstract class ContextImpl implements ContextInternal {
     Object queueMetric = metrics != null ? metrics.submitted() : null;
     try {
       Runnable command = () -> {
-        VertxThread current = (VertxThread) Thread.currentThread();
+        Thread th = Thread.currentThread();
+        VertxThread current = th instanceof VertxThread ? (VertxThread) th : null;
         Object execMetric = null;
         if (metrics != null) {
           execMetric = metrics.begin(queueMetric);
         }
         if (!DISABLE_TIMINGS) {
-          current.executeStart();
+          executeStart(current);
         }
         Future<T> res = Future.future();
         try {
@@ -271,7 +286,7 @@ abstract class ContextImpl implements ContextInternal {
           res.tryFail(e);
         } finally {
           if (!DISABLE_TIMINGS) {
-            current.executeEnd();
+            executeEnd(current);
           }
         }
         if (metrics != null) {
@@ -296,16 +311,99 @@ abstract class ContextImpl implements ContextInternal {
   }
 
   @Override
-  public synchronized ConcurrentMap<Object, Object> contextData() {
-    if (contextData == null) {
-      contextData = new ConcurrentHashMap<>();
+  @SuppressWarnings("unchecked")
+  public ConcurrentMap<Object, Object> contextData() {
+    Object data = getLocal(ContextLocal.CONTEXT_DATA);
+    if (data == null) {
+      ConcurrentMap<Object, Object> map = new ConcurrentHashMap<>();
+      data = updateLocal(ContextLocal.CONTEXT_DATA.index, null, map);
+      if (data == null) {
+        data = map;
+      }
+    }
+    return (ConcurrentMap<Object, Object>) data;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T getLocal(ContextLocal<T> key) {
+    int index = key.index;
+    AtomicReferenceArray<Object> l = locals;
+    if (index >= l.length()) {
+      return null;
+    }
+    Object value = l.get(index);
+    if (value == MOVED) {
+      value = updateLocal(index, ANY, ANY);
+    }
+    return (T) value;
+  }
+
+  @Override
+  public <T> void putLocal(ContextLocal<T> key, T value) {
+    updateLocal(key.index, ANY, value);
+  }
+
+  @Override
+  public <T> boolean removeLocal(ContextLocal<T> key) {
+    return updateLocal(key.index, ANY, null) != null;
+  }
+
+  // Markers for the slots
+  private static final Object ANY = new Object();
+  private static final Object MOVED = new Object();
+
+  /**
+   * Update the slot at {@code index} to {@code value} when its current value is {@code expected} or when
+   * {@code expected} is {@link #ANY}, a {@code value} of {@link #ANY} does not update the slot.
+   *
+   * @return the previous value of the slot
+   */
+  private Object updateLocal(int index, Object expected, Object value) {
+    while (true) {
+      AtomicReferenceArray<Object> l = locals;
+      while (index >= l.length()) {
+        l = growLocals(l, index);
+      }
+      Object current = l.get(index);
+      if (current == MOVED) {
+        // Being copied to the new slots
+        while (locals == l) {
+          Thread.yield();
+        }
+        continue;
+      }
+      if ((expected != ANY && current != expected) || value == ANY || l.compareAndSet(index, current, value)) {
+        return current;
+      }
     }
-    return contextData;
   }
 
+  /**
+   * Grow the slots when a key has been registered after the creation of this context, the values of the current
+   * slots are moved to the new slots, the updaters of a moved slot wait until the new slots are visible.
+   */
+  private synchronized AtomicReferenceArray<Object> growLocals(AtomicReferenceArray<Object> current, int index) {
+    if (locals != current) {
+      return locals;
+    }
+    AtomicReferenceArray<Object> l = new AtomicReferenceArray<>(Math.max(ContextLocal.count(), index + 1));
+    for (int i = 0;i < current.length();i++) {
+      l.set(i, current.getAndSet(i, MOVED));
+    }
+    locals = l;
+    return l;
+  }
+
+  // The context is not unset after an execution, so when the thread runs tasks of the same context in a row, which
+  // is the case for an event loop context handling IO, the context and the TCCL are already set. In this case we skip
+  // the thread local and TCCL writes, the TCCL is checked in case a handler changed it.
   <T> boolean executeTask(T arg, Handler<T> hTask) {
     Thread th = Thread.currentThread();
     if (!(th instanceof VertxThread)) {
+      if (VirtualThreadExecutor.isVirtualWorker()) {
+        return executeVirtualTask(arg, hTask);
+      }
       throw new IllegalStateException("Uh oh! context executing with wrong thread! " + th);
     }
     VertxThread current = (VertxThread) th;
@@ -313,7 +411,9 @@ abstract class ContextImpl implements ContextInternal {
       current.executeStart();
     }
     try {
-      setContext(current, this);
+      if (current.getContext() != this || (!DISABLE_TCCL && current.getContextClassLoader() != tccl)) {
+        setContext(current, this);
+      }
       hTask.handle(arg);
       return true;
     } catch (Throwable t) {
@@ -328,6 +428,40 @@ abstract class ContextImpl implements ContextInternal {
     }
   }
 
+  private <T> boolean executeVirtualTask(T arg, Handler<T> hTask) {
+    if (!DISABLE_TIMINGS) {
+      VirtualThreadExecutor.executeStart();
+    }
+    try {
+      setVirtualContext(this);
+      hTask.handle(arg);
+      return true;
+    } catch (Throwable t) {
+      reportException(t);
+      return false;
+    } finally {
+      if (!DISABLE_TIMINGS) {
+        VirtualThreadExecutor.executeEnd();
+      }
+    }
+  }
+
+  private static void executeStart(VertxThread current) {
+    if (current != null) {
+      current.executeStart();
+    } else {
+      VirtualThreadExecutor.executeStart();
+    }
+  }
+
+  private static void executeEnd(VertxThread current) {
+    if (current != null) {
+      current.executeEnd();
+    } else {
+      VirtualThreadExecutor.executeEnd();
+    }
+  }
+
   public void reportException(Throwable t) {
     Handler<Throwable> handler = this.exceptionHandler;
     if (handler == null) {
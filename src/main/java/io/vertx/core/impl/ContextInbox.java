@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.spi.metrics.VertxMetrics;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The inbox of the tasks submitted to an event loop context with {@link ContextImpl#runOnContext(Handler)}, it is the
+ * single ordered queue of these tasks: they are executed in the order they were appended.
+ * <p/>
+ * The inbox is a lock-free multi-producer/single-consumer linked list, like {@link TaskQueue}. Only the producer
+ * that moves the inbox from idle to scheduled submits a task to the event loop, the other producers only append
+ * their task, so a burst of tasks submitted from other threads costs a single event loop task and a single wake up.
+ * <p/>
+ * The event loop task runs the tasks appended before it started, at most {@link #MAX_BATCH_SIZE} of them, and then
+ * submits itself again when the inbox is not empty. A task appended by a task of the batch, e.g a nested
+ * {@code runOnContext}, is executed by the next batch so it yields to the other event loop tasks and IO.
+ * <p/>
+ * When the event loop records its {@link EventLoopStatistics}, the scheduling lag of a batch (the time elapsed since the
+ * inbox was scheduled, i.e the lag of its oldest task) and the depth of the event loop queue are recorded when the
+ * batch starts.
+ */
+class ContextInbox implements Runnable {
+
+  static final int MAX_BATCH_SIZE = 1024;
+
+  private static class Node {
+
+    private Handler<Void> task;
+    private volatile Node next;
+
+    Node(Handler<Void> task) {
+      this.task = task;
+    }
+  }
+
+  private final ContextImpl context;
+  private final VertxMetrics metrics;
+  private final boolean recordScheduling;
+
+  // Producers side
+  private final AtomicReference<Node> tail;
+
+  // Consumer side, only accessed by the event loop
+  private Node head;
+
+  // Whether the inbox is scheduled on the event loop or being drained
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  // Written before submitting the inbox to the event loop, read by the event loop
+  private long scheduledTime;
+
+  ContextInbox(ContextImpl context, VertxMetrics metrics, boolean recordScheduling) {
+    Node stub = new Node(null);
+    this.context = context;
+    this.metrics = metrics;
+    this.recordScheduling = recordScheduling;
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  /**
+   * Append a task to the inbox, the task will be executed on the event loop of the context after all the tasks
+   * appended before.
+   *
+   * @param task the task
+   * @throws RejectedExecutionException when the event loop is shut down
+   */
+  void add(Handler<Void> task) {
+    Node node = new Node(task);
+    Node prev = tail.getAndSet(node);
+    prev.next = node;
+    if (scheduled.compareAndSet(false, true)) {
+      schedule();
+    }
+  }
+
+  private void schedule() {
+    scheduledTime = System.nanoTime();
+    try {
+      context.nettyEventLoop().execute(this);
+    } catch (RejectedExecutionException e) {
+      scheduled.set(false);
+      throw e;
+    }
+  }
+
+  @Override
+  public void run() {
+    if (recordScheduling) {
+      EventLoopStatistics.recordScheduling(scheduledTime, context.nettyEventLoop());
+    }
+    // The last task of the batch, the tasks appended after it are executed by the next batch
+    Node last = tail.get();
+    int size = 0;
+    while (size < MAX_BATCH_SIZE) {
+      Node node = poll();
+      if (node == null) {
+        break;
+      }
+      Handler<Void> task = node.task;
+      node.task = null;
+      size++;
+      context.executeTask(null, task);
+      if (node == last) {
+        break;
+      }
+    }
+    if (metrics != null && size > 0) {
+      metrics.contextTaskBatchExecuted(size);
+    }
+    if (isEmpty()) {
+      scheduled.set(false);
+      // A producer may have appended a task after the last poll and failed to schedule the inbox
+      if (isEmpty() || !scheduled.compareAndSet(false, true)) {
+        return;
+      }
+    }
+    // Let the event loop run its other tasks before the next batch
+    scheduledTime = System.nanoTime();
+    try {
+      context.nettyEventLoop().execute(this);
+    } catch (RejectedExecutionException ignore) {
+      // Event loop is shut down
+      scheduled.set(false);
+    }
+  }
+
+  private boolean isEmpty() {
+    return head.next == null && tail.get() == head;
+  }
+
+  private Node poll() {
+    Node h = head;
+    Node next = h.next;
+    if (next == null && tail.get() != h) {
+      // A producer has swapped the tail but not yet linked the node
+      while ((next = h.next) == null) {
+        Thread.yield();
+      }
+    }
+    if (next != null) {
+      // The node becomes the new stub
+      head = next;
+    }
+    return next;
+  }
+}
@@ -39,7 +39,7 @@ public interface ContextInternal extends Context {
 
   static boolean isOnVertxThread() {
     Thread t = Thread.currentThread();
-    return (t instanceof VertxThread);
+    return (t instanceof VertxThread) || VirtualThreadExecutor.isVirtualWorker();
   }
 
   /**
@@ -102,4 +102,28 @@ public interface ContextInternal extends Context {
    * @see Context#put(String, Object)
    */
   ConcurrentMap<Object, Object> contextData();
+
+  /**
+   * Get the data stored in this context for the {@code key}, the lookup is an array access.
+   *
+   * @param key the key registered with {@link ContextLocal#registerLocal(Class)}
+   * @return the data or {@code null}
+   */
+  <T> T getLocal(ContextLocal<T> key);
+
+  /**
+   * Store data in this context for the {@code key}.
+   *
+   * @param key the key registered with {@link ContextLocal#registerLocal(Class)}
+   * @param value the data
+   */
+  <T> void putLocal(ContextLocal<T> key, T value);
+
+  /**
+   * Remove the data stored in this context for the {@code key}.
+   *
+   * @param key the key registered with {@link ContextLocal#registerLocal(Class)}
+   * @return true if data was removed
+   */
+  <T> boolean removeLocal(ContextLocal<T> key);
 }
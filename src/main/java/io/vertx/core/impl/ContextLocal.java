@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A key to store typed data in a context with {@link ContextInternal#putLocal(ContextLocal, Object)}.
+ * <p/>
+ * Each key is allocated an index when it is registered, contexts store the data of the key in the slot at this
+ * index of an array, so the data lookup is an array access. Keys are meant to be registered once and kept in a static
+ * field, like a {@link ThreadLocal}.
+ */
+public final class ContextLocal<T> {
+
+  private static final AtomicInteger count = new AtomicInteger();
+
+  /**
+   * The slot of the map storing the data of {@link ContextInternal#contextData()}.
+   */
+  static final ContextLocal<Object> CONTEXT_DATA = registerLocal(Object.class);
+
+  /**
+   * Register a new key.
+   *
+   * @param type the type of the data
+   * @return the key
+   */
+  public static <T> ContextLocal<T> registerLocal(Class<T> type) {
+    return new ContextLocal<>(count.getAndIncrement(), type);
+  }
+
+  /**
+   * @return the number of registered keys
+   */
+  static int count() {
+    return count.get();
+  }
+
+  final int index;
+  private final Class<T> type;
+
+  private ContextLocal(int index, Class<T> type) {
+    this.index = index;
+    this.type = type;
+  }
+
+  /**
+   * @return the type of the data
+   */
+  public Class<T> type() {
+    return type;
+  }
+
+  @Override
+  public String toString() {
+    return "ContextLocal[index=" + index + ",type=" + type.getName() + "]";
+  }
+}
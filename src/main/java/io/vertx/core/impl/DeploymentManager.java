@@ -54,6 +54,8 @@ public class DeploymentManager {
 
   private static final Logger log = LoggerFactory.getLogger(DeploymentManager.class);
 
+  private static final String VIRTUAL_WORKER_POOL_NAME = "vert.x-virtual-worker-thread";
+
   private final VertxInternal vertx;
   private final Map<String, Deployment> deployments = new ConcurrentHashMap<>();
   private final Map<String, ClassLoader> classloaders = new WeakHashMap<>();
@@ -472,7 +474,12 @@ public class DeploymentManager {
     AtomicInteger deployCount = new AtomicInteger();
     AtomicBoolean failureReported = new AtomicBoolean();
     for (Verticle verticle: verticles) {
-      WorkerExecutorInternal workerExec = poolName != null ? vertx.createSharedWorkerExecutor(poolName, options.getWorkerPoolSize(), options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit()) : null;
+      WorkerExecutorInternal workerExec;
+      if (options.isUseVirtualThreads()) {
+        workerExec = vertx.createSharedVirtualWorkerExecutor(poolName != null ? poolName : VIRTUAL_WORKER_POOL_NAME, options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit());
+      } else {
+        workerExec = poolName != null ? vertx.createSharedWorkerExecutor(poolName, options.getWorkerPoolSize(), options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit()) : null;
+      }
       WorkerPool pool = workerExec != null ? workerExec.getPool() : null;
       ContextImpl context = options.isWorker() ? vertx.createWorkerContext(deploymentID, pool, conf, tccl) :
         vertx.createEventLoopContext(deploymentID, pool, conf, tccl);
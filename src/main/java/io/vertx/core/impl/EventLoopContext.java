@@ -24,18 +24,23 @@ public class EventLoopContext extends ContextImpl {
 
   private static final Logger log = LoggerFactory.getLogger(EventLoopContext.class);
 
+  private final ContextInbox inbox;
+
   EventLoopContext(VertxInternal vertx, WorkerPool internalBlockingPool, WorkerPool workerPool, String deploymentID, JsonObject config,
                           ClassLoader tccl) {
     super(vertx, internalBlockingPool, workerPool, deploymentID, config, tccl);
+    inbox = new ContextInbox(this, vertx.metricsSPI(), vertx.isEventLoopMetricsEnabled());
   }
 
   public EventLoopContext(VertxInternal vertx, EventLoop eventLoop, WorkerPool internalBlockingPool, WorkerPool workerPool, String deploymentID, JsonObject config,
                           ClassLoader tccl) {
     super(vertx, eventLoop, internalBlockingPool, workerPool, deploymentID, config, tccl);
+    inbox = new ContextInbox(this, vertx.metricsSPI(), vertx.isEventLoopMetricsEnabled());
   }
 
   void executeAsync(Handler<Void> task) {
-    nettyEventLoop().execute(() -> executeTask(null, task));
+    // Tasks submitted while the inbox is scheduled are executed by the same event loop task
+    inbox.add(task);
   }
 
   @Override
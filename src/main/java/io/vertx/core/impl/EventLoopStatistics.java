@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.spi.metrics.VertxMetrics;
+
+/**
+ * The statistics recorded by an event loop thread when {@link io.vertx.core.VertxOptions#setEventLoopMetricsEnabled(boolean)}
+ * is enabled. The event loop thread is the only writer, the {@link BlockedThreadChecker} periodically reports the
+ * statistics to the {@link VertxMetrics}.
+ */
+final class EventLoopStatistics {
+
+  final HistogramRecorder taskDuration = new HistogramRecorder();
+  final HistogramRecorder schedulingLag = new HistogramRecorder();
+  final HistogramRecorder queueDepth = new HistogramRecorder();
+
+  /**
+   * Record the statistics of a context task when the event loop starts to execute it.
+   *
+   * @param submitted the {@link System#nanoTime()} when the task was submitted
+   * @param eventLoop the event loop executing the task
+   */
+  static void recordScheduling(long submitted, EventLoop eventLoop) {
+    Thread current = Thread.currentThread();
+    EventLoopStatistics statistics = current instanceof VertxThread ? ((VertxThread) current).getStatistics() : null;
+    if (statistics != null) {
+      statistics.schedulingLag.record(System.nanoTime() - submitted);
+      if (eventLoop instanceof SingleThreadEventExecutor) {
+        statistics.queueDepth.record(((SingleThreadEventExecutor) eventLoop).pendingTasks());
+      }
+    }
+  }
+
+  void report(String eventLoop, VertxMetrics metrics) {
+    metrics.eventLoopStatistics(eventLoop, taskDuration.snapshot(), schedulingLag.snapshot(), queueDepth.snapshot());
+  }
+}
@@ -118,6 +118,7 @@ public class HAManager {
   private volatile boolean stopped;
   private volatile boolean killed;
   private Consumer<Set<String>> clusterViewChangedHandler;
+  private Consumer<String> nodeLeftHandler;
 
   public HAManager(VertxInternal vertx, DeploymentManager deploymentManager, ClusterManager clusterManager,
                    Map<String, String> clusterMap, int quorumSize, String group, boolean enabled) {
@@ -249,6 +250,13 @@ public class HAManager {
     this.clusterViewChangedHandler = handler;
   }
 
+  /**
+   * Set a handler called on every node with the id of a node that left the cluster.
+   */
+  public void setNodeLeftHandler(Consumer<String> handler) {
+    this.nodeLeftHandler = handler;
+  }
+
   public boolean isKilled() {
     return killed;
   }
@@ -297,6 +305,9 @@ public class HAManager {
   // A node has left the cluster
   // synchronize this in case the cluster manager is naughty and calls it concurrently
   private synchronized void nodeLeft(String leftNodeID) {
+    if (nodeLeftHandler != null) {
+      nodeLeftHandler.accept(leftNodeID);
+    }
     addHaInfoIfLost();
 
     checkQuorum();
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.spi.metrics.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram recorder with a single writer and a single reader, in the spirit of HdrHistogram.
+ * <p/>
+ * Values are counted in log-linear buckets: each power of two range is divided into {@link #SUB_BUCKETS} buckets,
+ * so recording a value is a few shifts and an array increment and the relative error is bounded by 1/16. Values
+ * lower than {@code 2 * SUB_BUCKETS} are counted exactly.
+ * <p/>
+ * The writer increments the counts with ordered writes and no atomic instructions, the reader computes the
+ * {@link #snapshot() snapshot} of the values recorded since the previous snapshot by diffing the counts.
+ */
+class HistogramRecorder {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  /**
+   * @return the index of the bucket counting {@code value}
+   */
+  static int bucketIndex(long value) {
+    if (value < 2 * SUB_BUCKETS) {
+      return value < 0 ? 0 : (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /**
+   * @return the lowest value counted by the bucket {@code index}
+   */
+  static long lowestValue(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    return (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+  }
+
+  /**
+   * @return the highest value counted by the bucket {@code index}
+   */
+  static long highestValue(int index) {
+    return index == BUCKETS - 1 ? Long.MAX_VALUE : lowestValue(index + 1) - 1;
+  }
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong sum = new AtomicLong();
+
+  // Reader side
+  private final long[] previous = new long[BUCKETS];
+  private long previousSum;
+
+  /**
+   * Record a value, must be called by the writer thread.
+   *
+   * @param value the value, negative values are recorded as {@code 0}
+   */
+  void record(long value) {
+    int index = bucketIndex(value);
+    counts.lazySet(index, counts.get(index) + 1);
+    sum.lazySet(sum.get() + Math.max(value, 0));
+  }
+
+  /**
+   * Compute the histogram of the values recorded since the last call, must be called by the reader thread.
+   *
+   * @return the histogram
+   */
+  Histogram snapshot() {
+    long[] delta = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0;i < BUCKETS;i++) {
+      long c = counts.get(i);
+      delta[i] = c - previous[i];
+      previous[i] = c;
+      count += delta[i];
+    }
+    long s = sum.get();
+    long intervalSum = s - previousSum;
+    previousSum = s;
+    return new Snapshot(delta, count, intervalSum);
+  }
+
+  private static class Snapshot implements Histogram {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+
+    private Snapshot(long[] counts, long count, long sum) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+    }
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public long getMin() {
+      for (int i = 0;i < BUCKETS;i++) {
+        if (counts[i] > 0) {
+          return lowestValue(i);
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public long getMax() {
+      for (int i = BUCKETS - 1;i >= 0;i--) {
+        if (counts[i] > 0) {
+          return highestValue(i);
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public double getMean() {
+      // The sum and the counts are not read atomically, the mean is an approximation
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    @Override
+    public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      double p = Math.min(Math.max(percentile, 0), 100);
+      long target = Math.max(1, (long) Math.ceil(p / 100 * count));
+      long acc = 0;
+      for (int i = 0;i < BUCKETS;i++) {
+        acc += counts[i];
+        if (acc >= target) {
+          return highestValue(i);
+        }
+      }
+      return getMax();
+    }
+
+    @Override
+    public String toString() {
+      return "Histogram[count=" + count + ",min=" + getMin() + ",mean=" + getMean() + ",p50=" + getValueAtPercentile(50) +
+        ",p99=" + getValueAtPercentile(99) + ",max=" + getMax() + "]";
+    }
+  }
+}
@@ -50,6 +50,11 @@ public interface NetSocketInternal extends NetSocket {
    */
   ChannelHandlerContext channelHandlerContext();
 
+  /**
+   * @return the context of this socket, its tasks run on the event loop of the socket channel
+   */
+  ContextInternal getContext();
+
   /**
    * Write a message in the channel pipeline.
    * <p/>
@@ -66,6 +71,14 @@ public interface NetSocketInternal extends NetSocket {
    */
   NetSocketInternal writeMessage(Object message, Handler<AsyncResult<Void>> handler);
 
+  /**
+   * Report bytes written to the network metrics of this socket, the messages written with {@link #writeMessage(Object)}
+   * are not reported since they are not necessarily buffers.
+   *
+   * @param numberOfBytes the number of bytes written
+   */
+  void reportBytesWritten(long numberOfBytes);
+
   /**
    * Set a {@code handler} on this socket to process the messages produced by this socket. The message can be
    * {@link io.netty.buffer.ByteBuf} or other messages produced by channel pipeline handlers.
@@ -14,8 +14,10 @@ package io.vertx.core.impl;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
-import java.util.LinkedList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A task queue that always run all tasks in order. The executor to run the tasks is passed when
@@ -24,6 +26,11 @@ import java.util.concurrent.Executor;
  *
  * More specifically, any call B to the {@link #execute(Runnable, Executor)} method that happens-after another call A to the
  * same method, will result in B's task running after A's.
+ * <p/>
+ * The queue is a lock-free multi-producer/single-consumer linked list: producers append a node with a single atomic
+ * swap of the tail and only the producer that moves the queue from idle to scheduled submits the runner to an executor.
+ * The runner is the only consumer and drains the queue until it is empty or until a task requires a different executor,
+ * in which case the runner is handed off to this executor.
  *
  * @author <a href="david.lloyd@jboss.com">David Lloyd</a>
  * @author <a href="mailto:tim.fox@jboss.com">Tim Fox</a>
@@ -35,8 +42,9 @@ public class TaskQueue {
 
   private static class Task {
 
-    private final Runnable runnable;
+    private Runnable runnable;
     private final Executor exec;
+    private volatile Task next;
 
     public Task(Runnable runnable, Executor exec) {
       this.runnable = runnable;
@@ -44,41 +52,112 @@ public class TaskQueue {
     }
   }
 
-  // @protectedby tasks
-  private final LinkedList<Task> tasks = new LinkedList<>();
+  // Producers side
+  private final AtomicReference<Task> tail;
 
-  // @protectedby tasks
+  // Consumer side, only accessed by the runner
+  private Task head;
+
+  // Whether the runner is scheduled or running
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  // @protectedby scheduled
   private Executor current;
 
   private final Runnable runner;
 
   public TaskQueue() {
+    Task stub = new Task(null, null);
+    head = stub;
+    tail = new AtomicReference<>(stub);
     runner = this::run;
   }
 
   private void run() {
     for (; ; ) {
-      final Task task;
-      synchronized (tasks) {
-        task = tasks.poll();
-        if (task == null) {
-          current = null;
+      final Task task = peek();
+      if (task == null) {
+        if (release()) {
           return;
         }
-        if (task.exec != current) {
-          tasks.addFirst(task);
-          task.exec.execute(runner);
-          current = task.exec;
+        continue;
+      }
+      Runnable runnable = task.runnable;
+      if (runnable != null && task.exec != current) {
+        resume();
+        return;
+      }
+      // The task becomes the new stub
+      task.runnable = null;
+      head = task;
+      if (runnable != null) {
+        try {
+          runnable.run();
+        } catch (Throwable t) {
+          log.error("Caught unexpected Throwable", t);
+        }
+      }
+    }
+  }
+
+  /**
+   * Hands the runner off to the executor of the next task, must be called by the owner of the runner. The tasks
+   * rejected by their executor are removed from the queue.
+   */
+  private void resume() {
+    for (; ; ) {
+      final Task task = peek();
+      if (task == null) {
+        if (release()) {
           return;
         }
+        continue;
+      }
+      if (task.runnable == null) {
+        // Removed task
+        head = task;
+        continue;
       }
+      current = task.exec;
       try {
-        task.runnable.run();
-      } catch (Throwable t) {
-        log.error("Caught unexpected Throwable", t);
+        task.exec.execute(runner);
+        return;
+      } catch (RejectedExecutionException e) {
+        log.error("Task rejected by its executor", e);
+        task.runnable = null;
+        head = task;
       }
     }
-  };
+  }
+
+  /**
+   * Give up the ownership of the runner when the queue is empty.
+   *
+   * @return {@code true} when the runner is released, {@code false} when a producer appended a task
+   *         in the meantime and the runner is owned again
+   */
+  private boolean release() {
+    current = null;
+    scheduled.set(false);
+    // A producer may have appended a task after the peek and failed to schedule the runner
+    return isEmpty() || !scheduled.compareAndSet(false, true);
+  }
+
+  private boolean isEmpty() {
+    return head.next == null && tail.get() == head;
+  }
+
+  private Task peek() {
+    Task h = head;
+    Task next = h.next;
+    if (next == null && tail.get() != h) {
+      // A producer has swapped the tail but not yet linked the node
+      while ((next = h.next) == null) {
+        Thread.yield();
+      }
+    }
+    return next;
+  }
 
   /**
    * Run a task.
@@ -86,11 +165,18 @@ public class TaskQueue {
    * @param task the task to run.
    */
   public void execute(Runnable task, Executor executor) {
-    synchronized (tasks) {
-      tasks.add(new Task(task, executor));
-      if (current == null) {
-        current = executor;
+    Task t = new Task(task, executor);
+    Task prev = tail.getAndSet(t);
+    prev.next = t;
+    if (scheduled.compareAndSet(false, true)) {
+      current = executor;
+      try {
         executor.execute(runner);
+      } catch (RejectedExecutionException e) {
+        // Remove the task and hand the runner off to the tasks appended concurrently, if any
+        t.runnable = null;
+        resume();
+        throw e;
       }
     }
   }
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.netty.channel.EventLoop;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hierarchical timer wheel with a millisecond tick, driven by an event loop.
+ * <p/>
+ * The first level has 256 buckets, the three next levels have 64 buckets each, so timers up to 2^26 milliseconds
+ * (about 18 hours) are placed in a bucket in constant time. Longer timers are placed in the last bucket and re-inserted
+ * when they cascade down. Timers are cascaded to the lower levels when the first level completes a rotation.
+ * <p/>
+ * Scheduled timers are kept in a slab indexed by the timer id: the id encodes the index of the wheel, the slot of the
+ * timer and a sequence number so cancelling a timer is also a constant time operation and does not need a map.
+ * <p/>
+ * The event loop is only woken up when the next non empty bucket of the first level is due or when the higher levels
+ * must be cascaded. The state is protected by the wheel monitor: the wheel is mostly used from its own event loop, so
+ * we benefit from biased locking.
+ */
+public class TimerWheel {
+
+  private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+  private static final int ROOT_BITS = 8;
+  private static final int ROOT_SIZE = 1 << ROOT_BITS;
+  private static final int ROOT_MASK = ROOT_SIZE - 1;
+  private static final int LEVEL_BITS = 6;
+  private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+  private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+  private static final int LEVELS = 3;
+  private static final long MAX_DELTA = (1L << (ROOT_BITS + LEVELS * LEVEL_BITS)) - 1;
+
+  static final int SLOT_BITS = 24;
+  private static final int MAX_SLOTS = 1 << SLOT_BITS;
+
+  /**
+   * Compute the number of bits needed to encode the index of a wheel among {@code count} wheels.
+   */
+  static int indexBits(int count) {
+    return 32 - Integer.numberOfLeadingZeros(Math.max(count, 1) - 1);
+  }
+
+  /**
+   * @return the index of the wheel encoded in the timer {@code id}
+   */
+  static int index(long id, int indexBits) {
+    return (int) (id & ((1L << indexBits) - 1));
+  }
+
+  private static final class Timeout {
+
+    final long id;
+    final Runnable task;
+    final long period;
+    long deadline;
+    Timeout prev;
+    Timeout next;
+    Timeout[] bucket;
+    int bucketIndex;
+
+    Timeout(long id, Runnable task, long deadline, long period) {
+      this.id = id;
+      this.task = task;
+      this.deadline = deadline;
+      this.period = period;
+    }
+  }
+
+  private final EventLoop eventLoop;
+  private final int index;
+  private final int indexBits;
+  private final long maxSequence;
+  private final long origin = System.nanoTime();
+  private final Timeout[] root = new Timeout[ROOT_SIZE];
+  private final Timeout[][] levels = new Timeout[LEVELS][LEVEL_SIZE];
+  private final Runnable tickTask = this::tick;
+  private final ArrayList<Timeout> expired = new ArrayList<>();
+  private Timeout[] slots = new Timeout[64];
+  private int[] freeSlots = new int[64];
+  private int freeCount;
+  private int slotCount;
+  private long sequence;
+  private long currentTick;
+  private int pending;
+  private long scheduledTick = Long.MAX_VALUE;
+  private ScheduledFuture<?> scheduledFuture;
+
+  /**
+   * Create a standalone wheel, the ids of its timers do not encode a wheel index.
+   *
+   * @param eventLoop the event loop driving the wheel
+   */
+  public TimerWheel(EventLoop eventLoop) {
+    this(eventLoop, 0, 0);
+  }
+
+  TimerWheel(EventLoop eventLoop, int index, int indexBits) {
+    this.eventLoop = eventLoop;
+    this.index = index;
+    this.indexBits = indexBits;
+    this.maxSequence = 1L << (63 - SLOT_BITS - indexBits);
+  }
+
+  private long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+  }
+
+  /**
+   * Schedule a {@code task} to run on the event loop of this wheel after {@code delay} milliseconds.
+   *
+   * @param task the task
+   * @param delay the delay in milliseconds
+   * @param periodic whether the task should be run every {@code delay} milliseconds
+   * @return the id of the timer
+   */
+  public synchronized long schedule(Runnable task, long delay, boolean periodic) {
+    long id = nextId();
+    arm(id, task, delay, periodic);
+    return id;
+  }
+
+  /**
+   * Allocate the id of a timer, so a task can know its id before it is scheduled. The timer must then be scheduled
+   * with {@link #schedule(long, Runnable, long, boolean)}.
+   *
+   * @return the id of the timer
+   */
+  public synchronized long allocate() {
+    return nextId();
+  }
+
+  /**
+   * Schedule a {@code task} to run on the event loop of this wheel after {@code delay} milliseconds with an id
+   * returned by {@link #allocate()}.
+   *
+   * @param id the id of the timer
+   * @param task the task
+   * @param delay the delay in milliseconds
+   * @param periodic whether the task should be run every {@code delay} milliseconds
+   */
+  public synchronized void schedule(long id, Runnable task, long delay, boolean periodic) {
+    arm(id, task, delay, periodic);
+  }
+
+  private long nextId() {
+    int slot = allocateSlot();
+    if (++sequence == maxSequence) {
+      sequence = 1;
+    }
+    return (((sequence << SLOT_BITS) | slot) << indexBits) | index;
+  }
+
+  private void arm(long id, Runnable task, long delay, boolean periodic) {
+    int slot = (int) ((id >>> indexBits) & (MAX_SLOTS - 1));
+    long now = now();
+    if (pending == 0) {
+      // Nothing to expire, the wheel can jump to the current time
+      currentTick = Math.max(currentTick, now);
+    }
+    // The current tick has already started, expire at the end of the last tick so the timer never fires too early
+    Timeout timeout = new Timeout(id, task, now + delay + 1, periodic ? delay : 0L);
+    slots[slot] = timeout;
+    add(timeout);
+    wakeUp();
+  }
+
+  /**
+   * Remove the timer with the given {@code id}, the timer may have expired already in which case the slot
+   * it holds is released.
+   *
+   * @param id the timer id
+   * @return the task of the timer or {@code null} when the timer does not exist
+   */
+  public synchronized Runnable remove(long id) {
+    long slot = (id >>> indexBits) & (MAX_SLOTS - 1);
+    if (id < 0 || slot >= slotCount) {
+      return null;
+    }
+    Timeout timeout = slots[(int) slot];
+    if (timeout == null || timeout.id != id) {
+      return null;
+    }
+    if (timeout.bucket != null) {
+      unlink(timeout);
+    }
+    slots[(int) slot] = null;
+    freeSlots[freeCount++] = (int) slot;
+    return timeout.task;
+  }
+
+  private int allocateSlot() {
+    if (freeCount > 0) {
+      return freeSlots[--freeCount];
+    }
+    if (slotCount == slots.length) {
+      if (slotCount == MAX_SLOTS) {
+        throw new IllegalStateException("Too many timers");
+      }
+      slots = Arrays.copyOf(slots, slotCount * 2);
+      freeSlots = Arrays.copyOf(freeSlots, slotCount * 2);
+    }
+    return slotCount++;
+  }
+
+  private void add(Timeout timeout) {
+    long deadline = timeout.deadline;
+    long delta = deadline - currentTick;
+    Timeout[] bucket;
+    int idx;
+    if (delta < ROOT_SIZE) {
+      bucket = root;
+      // Timers already due are expired with the current tick
+      idx = (int) (delta < 0 ? currentTick : deadline) & ROOT_MASK;
+    } else {
+      if (delta > MAX_DELTA) {
+        // Re-inserted when it cascades down
+        deadline = currentTick + MAX_DELTA;
+      }
+      int level = 0;
+      while (delta >= 1L << (ROOT_BITS + (level + 1) * LEVEL_BITS) && level < LEVELS - 1) {
+        level++;
+      }
+      bucket = levels[level];
+      idx = (int) (deadline >> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK;
+    }
+    Timeout head = bucket[idx];
+    timeout.bucket = bucket;
+    timeout.bucketIndex = idx;
+    timeout.prev = null;
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    bucket[idx] = timeout;
+    pending++;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      timeout.bucket[timeout.bucketIndex] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.bucket = null;
+    timeout.prev = null;
+    timeout.next = null;
+    pending--;
+  }
+
+  private Timeout detach(Timeout[] bucket, int idx) {
+    Timeout list = bucket[idx];
+    bucket[idx] = null;
+    for (Timeout t = list;t != null;t = t.next) {
+      t.bucket = null;
+      pending--;
+    }
+    return list;
+  }
+
+  private void cascade(int level) {
+    int idx = (int) (currentTick >> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK;
+    Timeout t = detach(levels[level], idx);
+    while (t != null) {
+      Timeout next = t.next;
+      add(t);
+      t = next;
+    }
+  }
+
+  /**
+   * Advance the wheel to the current time and run the expired tasks, must be called on the event loop.
+   */
+  private void tick() {
+    synchronized (this) {
+      scheduledFuture = null;
+      scheduledTick = Long.MAX_VALUE;
+      long now = now();
+      while (currentTick <= now && pending > 0) {
+        int idx = (int) currentTick & ROOT_MASK;
+        if (idx == 0) {
+          for (int level = 0;level < LEVELS;level++) {
+            cascade(level);
+            if (((currentTick >> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK) != 0) {
+              break;
+            }
+          }
+        }
+        Timeout t = detach(root, idx);
+        currentTick++;
+        while (t != null) {
+          Timeout next = t.next;
+          t.next = null;
+          t.prev = null;
+          if (t.deadline >= currentTick) {
+            // Clamped timer not yet due
+            add(t);
+          } else {
+            if (t.period > 0) {
+              t.deadline += t.period;
+              add(t);
+            }
+            expired.add(t);
+          }
+          t = next;
+        }
+      }
+      if (pending == 0) {
+        currentTick = Math.max(currentTick, now);
+      }
+      wakeUp();
+    }
+    for (int i = 0;i < expired.size();i++) {
+      try {
+        expired.get(i).task.run();
+      } catch (Throwable t) {
+        log.error("Failed to run timer task", t);
+      }
+    }
+    expired.clear();
+  }
+
+  /**
+   * @return the next tick that needs to be processed: either a non empty bucket of the root level or the
+   *         start of the next rotation of the root level when the higher levels need to be cascaded
+   */
+  private long nextTick() {
+    long t = currentTick;
+    // The higher levels are cascaded at the start of a rotation
+    while (root[(int) t & ROOT_MASK] == null && (t & ROOT_MASK) != 0) {
+      t++;
+    }
+    return t;
+  }
+
+  private void wakeUp() {
+    if (pending == 0) {
+      return;
+    }
+    long next = nextTick();
+    if (next < scheduledTick) {
+      if (scheduledFuture != null) {
+        scheduledFuture.cancel(false);
+      }
+      scheduledTick = next;
+      long delay = next - now();
+      scheduledFuture = eventLoop.schedule(tickTask, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+    }
+  }
+}
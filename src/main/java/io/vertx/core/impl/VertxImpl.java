@@ -38,6 +38,8 @@ import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.impl.HttpClientImpl;
 import io.vertx.core.http.impl.HttpServerImpl;
+import io.vertx.core.impl.cpu.CpuAffinity;
+import io.vertx.core.impl.cpu.CpuCoreSensor;
 import io.vertx.core.impl.resolver.DnsResolverProvider;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
@@ -132,6 +134,12 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   private final int defaultWorkerPoolSize;
   private final long defaultWorkerMaxExecTime;
   private final TimeUnit defaultWorkerMaxExecTimeUnit;
+  private final boolean workStealingWorkerPool;
+  private final boolean eventLoopMetricsEnabled;
+  private final CpuAffinity workerAffinity;
+  private final Map<EventLoop, TimerWheel> timerWheelMap;
+  private final TimerWheel[] timerWheels;
+  private final int timerWheelIndexBits;
   private final CloseHooks closeHooks;
   private final Transport transport;
 
@@ -141,21 +149,76 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
       log.warn("You're already on a Vert.x context, are you sure you want to create a new Vertx instance?");
     }
     closeHooks = new CloseHooks(log);
-    checker = new BlockedThreadChecker(options.getBlockedThreadCheckInterval(), options.getBlockedThreadCheckIntervalUnit(), options.getWarningExceptionTime(), options.getWarningExceptionTimeUnit());
-    eventLoopThreadFactory = new VertxThreadFactory("vert.x-eventloop-thread-", checker, false, options.getMaxEventLoopExecuteTime(), options.getMaxEventLoopExecuteTimeUnit());
+    CpuAffinity eventLoopAffinity = null;
+    CpuAffinity workerAffinity = null;
+    if (options.isEventLoopCpuAffinity()) {
+      // The CPUs of the process affinity mask, e.g restricted by a cgroup cpuset
+      BitSet allowedCpus = CpuCoreSensor.allowedCpus();
+      List<Integer> cpus = options.getEventLoopCpus();
+      if (cpus == null || cpus.isEmpty()) {
+        cpus = CpuAffinity.coreLayout(allowedCpus);
+      } else {
+        CpuAffinity.checkAllowed(cpus, allowedCpus);
+      }
+      if (!CpuAffinity.isSupported()) {
+        log.warn("Binding threads to CPUs requires Java Thread Affinity on the class path, event loop threads will not be bound to CPUs");
+      } else if (cpus.isEmpty()) {
+        log.warn("Cannot determine the CPU layout, event loop threads will not be bound to CPUs");
+      } else {
+        cpus = cpus.subList(0, Math.min(cpus.size(), options.getEventLoopPoolSize()));
+        List<BitSet> eventLoopCpus = new ArrayList<>();
+        BitSet workerCpus = (BitSet) allowedCpus.clone();
+        for (int cpu : cpus) {
+          BitSet set = new BitSet();
+          set.set(cpu);
+          eventLoopCpus.add(set);
+          workerCpus.clear(cpu);
+        }
+        eventLoopAffinity = new CpuAffinity(eventLoopCpus);
+        if (!workerCpus.isEmpty()) {
+          workerAffinity = new CpuAffinity(Collections.singletonList(workerCpus));
+        }
+        log.info("Binding event loop threads to CPUs " + cpus + " and worker threads to CPUs " + (workerAffinity != null ? workerCpus : "any"));
+      }
+    }
+    this.workerAffinity = workerAffinity;
+    checker = new BlockedThreadChecker(options.getBlockedThreadCheckInterval(), options.getBlockedThreadCheckIntervalUnit(), options.getWarningExceptionTime(), options.getWarningExceptionTimeUnit(),
+      options.getBlockedThreadSamplingThreshold(), options.getBlockedThreadSamplingInterval(), options.getBlockedThreadSamplingIntervalUnit());
+    eventLoopThreadFactory = new VertxThreadFactory("vert.x-eventloop-thread-", checker, false, options.getMaxEventLoopExecuteTime(), options.getMaxEventLoopExecuteTimeUnit(), eventLoopAffinity, options.isEventLoopMetricsEnabled());
     eventLoopGroup = transport.eventLoopGroup(options.getEventLoopPoolSize(), eventLoopThreadFactory, NETTY_IO_RATIO);
     ThreadFactory acceptorEventLoopThreadFactory = new VertxThreadFactory("vert.x-acceptor-thread-", checker, false, options.getMaxEventLoopExecuteTime(), options.getMaxEventLoopExecuteTimeUnit());
     // The acceptor event loop thread needs to be from a different pool otherwise can get lags in accepted connections
     // under a lot of load
     acceptorEventLoopGroup = transport.eventLoopGroup(1, acceptorEventLoopThreadFactory, 100);
 
+    if (options.isTimerWheel()) {
+      List<EventLoop> eventLoops = new ArrayList<>();
+      eventLoopGroup.forEach(executor -> eventLoops.add((EventLoop) executor));
+      timerWheelMap = new IdentityHashMap<>();
+      timerWheels = new TimerWheel[eventLoops.size()];
+      timerWheelIndexBits = TimerWheel.indexBits(timerWheels.length);
+      for (int i = 0;i < timerWheels.length;i++) {
+        timerWheels[i] = new TimerWheel(eventLoops.get(i), i, timerWheelIndexBits);
+        timerWheelMap.put(eventLoops.get(i), timerWheels[i]);
+      }
+    } else {
+      timerWheelMap = null;
+      timerWheels = null;
+      timerWheelIndexBits = 0;
+    }
+
     metrics = initialiseMetrics(options);
+    if (metrics != null && options.isEventLoopMetricsEnabled()) {
+      checker.reportEventLoopStatistics(metrics);
+    }
 
-    ExecutorService workerExec = Executors.newFixedThreadPool(options.getWorkerPoolSize(),
-        new VertxThreadFactory("vert.x-worker-thread-", checker, true, options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit()));
+    workStealingWorkerPool = options.isWorkStealingWorkerPool();
+    eventLoopMetricsEnabled = options.isEventLoopMetricsEnabled();
+    ExecutorService workerExec = createWorkerExec(options.getWorkerPoolSize(),
+        new VertxThreadFactory("vert.x-worker-thread-", checker, true, options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit(), workerAffinity));
     PoolMetrics workerPoolMetrics = metrics != null ? metrics.createPoolMetrics("worker", "vert.x-worker-thread", options.getWorkerPoolSize()) : null;
     ExecutorService internalBlockingExec = Executors.newFixedThreadPool(options.getInternalBlockingPoolSize(),
-        new VertxThreadFactory("vert.x-internal-blocking-", checker, true, options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit()));
+        new VertxThreadFactory("vert.x-internal-blocking-", checker, true, options.getMaxWorkerExecuteTime(), options.getMaxWorkerExecuteTimeUnit(), workerAffinity));
     PoolMetrics internalBlockingPoolMetrics = metrics != null ? metrics.createPoolMetrics("worker", "vert.x-internal-blocking", options.getInternalBlockingPoolSize()) : null;
     internalBlockingPool = new WorkerPool(internalBlockingExec, internalBlockingPoolMetrics);
     namedWorkerPools = new HashMap<>();
@@ -174,11 +237,19 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
       this.eventBus = new ClusteredEventBus(this, options, clusterManager);
     } else {
       this.clusterManager = null;
-      this.eventBus = new EventBusImpl(this);
+      this.eventBus = new EventBusImpl(this, options.getEventBusOptions());
     }
     this.sharedData = new SharedDataImpl(this, clusterManager);
   }
 
+  private ExecutorService createWorkerExec(int poolSize, ThreadFactory threadFactory) {
+    if (workStealingWorkerPool) {
+      return new WorkStealingExecutor(poolSize, threadFactory);
+    } else {
+      return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+  }
+
   private void init() {
     eventBus.start(ar -> {});
     if (metrics != null) {
@@ -383,7 +454,13 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   }
 
   public boolean cancelTimer(long id) {
-    InternalTimerHandler handler = timeouts.remove(id);
+    InternalTimerHandler handler;
+    if (timerWheels != null) {
+      TimerWheel wheel = timerWheel(id);
+      handler = wheel != null ? (InternalTimerHandler) wheel.remove(id) : null;
+    } else {
+      handler = timeouts.remove(id);
+    }
     if (handler != null) {
       handler.context.removeCloseHook(handler);
       return handler.cancel();
@@ -474,11 +551,42 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     if (delay < 1) {
       throw new IllegalArgumentException("Cannot schedule a timer with delay < 1 ms");
     }
-    long timerId = timeoutCounter.getAndIncrement();
-    InternalTimerHandler task = new InternalTimerHandler(timerId, handler, periodic, delay, context);
-    timeouts.put(timerId, task);
+    InternalTimerHandler task;
+    if (timerWheels != null) {
+      TimerWheel wheel = timerWheelMap.get(context.nettyEventLoop());
+      if (wheel == null) {
+        // Context created with an event loop that does not belong to this instance
+        wheel = timerWheels[0];
+      }
+      long timerId = wheel.allocate();
+      task = new InternalTimerHandler(timerId, handler, periodic, context);
+      wheel.schedule(timerId, task, delay, periodic);
+    } else {
+      long timerId = timeoutCounter.getAndIncrement();
+      task = new InternalTimerHandler(timerId, handler, periodic, delay, context);
+      timeouts.put(timerId, task);
+    }
     context.addCloseHook(task);
-    return timerId;
+    return task.timerID;
+  }
+
+  /**
+   * @return the wheel of a timer or {@code null} when the id is not the id of a timer of this instance
+   */
+  private TimerWheel timerWheel(long timerId) {
+    int index = TimerWheel.index(timerId, timerWheelIndexBits);
+    return timerId >= 0 && index < timerWheels.length ? timerWheels[index] : null;
+  }
+
+  private void removeTimer(long timerId) {
+    if (timerWheels != null) {
+      TimerWheel wheel = timerWheel(timerId);
+      if (wheel != null) {
+        wheel.remove(timerId);
+      }
+    } else {
+      timeouts.remove(timerId);
+    }
   }
 
   public static Context context() {
@@ -486,7 +594,7 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     if (current instanceof VertxThread) {
       return ((VertxThread) current).getContext();
     }
-    return null;
+    return VirtualThreadExecutor.context();
   }
 
   public ContextImpl getContext() {
@@ -789,6 +897,11 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     return metrics;
   }
 
+  @Override
+  public boolean isEventLoopMetricsEnabled() {
+    return eventLoopMetricsEnabled;
+  }
+
   @Override
   public File resolveFile(String fileName) {
     return fileResolver.resolveFile(fileName);
@@ -858,7 +971,7 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     return haManager;
   }
 
-  private class InternalTimerHandler implements Handler<Void>, Closeable {
+  private class InternalTimerHandler implements Handler<Void>, Closeable, Runnable {
     final Handler<Long> handler;
     final boolean periodic;
     final long timerID;
@@ -868,7 +981,9 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
 
     boolean cancel() {
       if (cancelled.compareAndSet(false, true)) {
-        future.cancel(false);
+        if (future != null) {
+          future.cancel(false);
+        }
         return true;
       } else {
         return false;
@@ -890,6 +1005,20 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
       }
     }
 
+    InternalTimerHandler(long timerID, Handler<Long> runnable, boolean periodic, ContextImpl context) {
+      this.context = context;
+      this.timerID = timerID;
+      this.handler = runnable;
+      this.periodic = periodic;
+      this.cancelled = new AtomicBoolean();
+      this.future = null;
+    }
+
+    // Called by the timer wheel when the timer fires
+    public void run() {
+      context.runOnContext(this);
+    }
+
     public void handle(Void v) {
       if (!cancelled.get()) {
         try {
@@ -904,7 +1033,7 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     }
 
     private void cleanupNonPeriodic() {
-      VertxImpl.this.timeouts.remove(timerID);
+      removeTimer(timerID);
       ContextImpl context = getContext();
       if (context != null) {
         context.removeCloseHook(this);
@@ -913,7 +1042,7 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
 
     // Called via Context close hook when Verticle is undeployed
     public void close(Handler<AsyncResult<Void>> completionHandler) {
-      VertxImpl.this.timeouts.remove(timerID);
+      removeTimer(timerID);
       cancel();
       completionHandler.handle(Future.succeededFuture());
     }
@@ -1066,10 +1195,31 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     if (maxExecuteTime < 1) {
       throw new IllegalArgumentException("maxExecuteTime must be > 0");
     }
+    return createNamedWorkerExecutor(name, poolSize, () -> createWorkerExec(poolSize, new VertxThreadFactory(name + "-", checker, true, maxExecuteTime, maxExecuteTimeUnit, workerAffinity)));
+  }
+
+  @Override
+  public WorkerExecutorImpl createSharedVirtualWorkerExecutor(String name) {
+    return createSharedVirtualWorkerExecutor(name, defaultWorkerMaxExecTime, defaultWorkerMaxExecTimeUnit);
+  }
+
+  @Override
+  public synchronized WorkerExecutorImpl createSharedVirtualWorkerExecutor(String name, long maxExecuteTime, TimeUnit maxExecuteTimeUnit) {
+    if (!VirtualThreadExecutor.isAvailable()) {
+      log.warn("Virtual threads are not supported by this JVM, the " + name + " worker executor uses a worker pool");
+      return createSharedWorkerExecutor(name, defaultWorkerPoolSize, maxExecuteTime, maxExecuteTimeUnit);
+    }
+    if (maxExecuteTime < 1) {
+      throw new IllegalArgumentException("maxExecuteTime must be > 0");
+    }
+    return createNamedWorkerExecutor(name, VirtualThreadExecutor.MAX_POOL_SIZE, () -> new VirtualThreadExecutor(name + "-", checker, maxExecuteTime, maxExecuteTimeUnit));
+  }
+
+  private WorkerExecutorImpl createNamedWorkerExecutor(String name, int maxPoolSize, Supplier<ExecutorService> workerExecFactory) {
     SharedWorkerPool sharedWorkerPool = namedWorkerPools.get(name);
     if (sharedWorkerPool == null) {
-      ExecutorService workerExec = Executors.newFixedThreadPool(poolSize, new VertxThreadFactory(name + "-", checker, true, maxExecuteTime, maxExecuteTimeUnit));
-      PoolMetrics workerMetrics = metrics != null ? metrics.createPoolMetrics("worker", name, poolSize) : null;
+      ExecutorService workerExec = workerExecFactory.get();
+      PoolMetrics workerMetrics = metrics != null ? metrics.createPoolMetrics("worker", name, maxPoolSize) : null;
       namedWorkerPools.put(name, sharedWorkerPool = new SharedWorkerPool(name, workerExec, workerMetrics));
     } else {
       sharedWorkerPool.refCount++;
@@ -1100,4 +1250,14 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   public void removeCloseHook(Closeable hook) {
     closeHooks.remove(hook);
   }
+
+  @Override
+  public Map<String, Long> blockedThreadSamples() {
+    return checker.samples();
+  }
+
+  @Override
+  public void clearBlockedThreadSamples() {
+    checker.clearSamples();
+  }
 }
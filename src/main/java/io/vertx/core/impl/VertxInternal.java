@@ -54,6 +54,11 @@ public interface VertxInternal extends Vertx {
 
   VertxMetrics metricsSPI();
 
+  /**
+   * @return whether the event loop threads record their {@link io.vertx.core.VertxOptions#setEventLoopMetricsEnabled(boolean) statistics}
+   */
+  boolean isEventLoopMetricsEnabled();
+
   Transport transport();
 
   /**
@@ -84,6 +89,12 @@ public interface VertxInternal extends Vertx {
   @Override
   WorkerExecutorInternal createSharedWorkerExecutor(String name, int poolSize, long maxExecuteTime, TimeUnit maxExecuteTimeUnit);
 
+  @Override
+  WorkerExecutorInternal createSharedVirtualWorkerExecutor(String name);
+
+  @Override
+  WorkerExecutorInternal createSharedVirtualWorkerExecutor(String name, long maxExecuteTime, TimeUnit maxExecuteTimeUnit);
+
   void simulateKill();
 
   Deployment getDeployment(String deploymentID);
@@ -128,4 +139,21 @@ public interface VertxInternal extends Vertx {
   void addCloseHook(Closeable hook);
 
   void removeCloseHook(Closeable hook);
+
+  /**
+   * Get the stacks of the event loop threads sampled by the blocked thread checker when
+   * {@link VertxOptions#setBlockedThreadSamplingThreshold(int)} is set.
+   * <p>
+   * Each key is a folded stack: the thread name followed by the frames from the root to the leaf separated by
+   * {@code ;}, the value is the number of samples of this stack. Writing each entry as a {@code stack count} line
+   * gives the input of flame graph tools.
+   *
+   * @return a copy of the sampled stacks
+   */
+  Map<String, Long> blockedThreadSamples();
+
+  /**
+   * Clear the stacks sampled by the blocked thread checker.
+   */
+  void clearBlockedThreadSamples();
 }
@@ -25,6 +25,7 @@ public final class VertxThread extends FastThreadLocalThread {
   private final TimeUnit maxExecTimeUnit;
   private long execStart;
   private ContextImpl context;
+  private EventLoopStatistics statistics;
 
   public VertxThread(Runnable target, String name, boolean worker, long maxExecTime, TimeUnit maxExecTimeUnit) {
     super(target, name);
@@ -41,11 +42,23 @@ public final class VertxThread extends FastThreadLocalThread {
     this.context = context;
   }
 
+  EventLoopStatistics getStatistics() {
+    return statistics;
+  }
+
+  void setStatistics(EventLoopStatistics statistics) {
+    this.statistics = statistics;
+  }
+
   public final void executeStart() {
     execStart = System.nanoTime();
   }
 
   public final void executeEnd() {
+    if (statistics != null && execStart != 0) {
+      // Nested executions reset the start time, they are accounted to the innermost execution
+      statistics.taskDuration.record(System.nanoTime() - execStart);
+    }
     execStart = 0;
   }
 
@@ -12,6 +12,7 @@
 package io.vertx.core.impl;
 
 import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.cpu.CpuAffinity;
 
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -39,13 +40,25 @@ public class VertxThreadFactory implements ThreadFactory {
   private final boolean worker;
   private final long maxExecTime;
   private final TimeUnit maxExecTimeUnit;
+  private final CpuAffinity affinity;
+  private final boolean statistics;
 
   VertxThreadFactory(String prefix, BlockedThreadChecker checker, boolean worker, long maxExecTime, TimeUnit maxExecTimeUnit) {
+    this(prefix, checker, worker, maxExecTime, maxExecTimeUnit, null);
+  }
+
+  VertxThreadFactory(String prefix, BlockedThreadChecker checker, boolean worker, long maxExecTime, TimeUnit maxExecTimeUnit, CpuAffinity affinity) {
+    this(prefix, checker, worker, maxExecTime, maxExecTimeUnit, affinity, false);
+  }
+
+  VertxThreadFactory(String prefix, BlockedThreadChecker checker, boolean worker, long maxExecTime, TimeUnit maxExecTimeUnit, CpuAffinity affinity, boolean statistics) {
     this.prefix = prefix;
     this.checker = checker;
     this.worker = worker;
     this.maxExecTime = maxExecTime;
     this.maxExecTimeUnit = maxExecTimeUnit;
+    this.affinity = affinity;
+    this.statistics = statistics;
   }
 
   public static synchronized void unsetContext(ContextImpl ctx) {
@@ -57,7 +70,19 @@ public class VertxThreadFactory implements ThreadFactory {
   }
 
   public Thread newThread(Runnable runnable) {
-    VertxThread t = new VertxThread(runnable, prefix + threadCount.getAndIncrement(), worker, maxExecTime, maxExecTimeUnit);
+    int index = threadCount.getAndIncrement();
+    if (affinity != null) {
+      // The thread binds itself to its CPUs when it starts
+      Runnable task = runnable;
+      runnable = () -> {
+        affinity.bind(index);
+        task.run();
+      };
+    }
+    VertxThread t = new VertxThread(runnable, prefix + index, worker, maxExecTime, maxExecTimeUnit);
+    if (statistics) {
+      t.setStatistics(new EventLoopStatistics());
+    }
     // Vert.x threads are NOT daemons - we want them to prevent JVM exit so embededd user doesn't
     // have to explicitly prevent JVM from exiting.
     if (checker != null) {
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor running each task on a new virtual thread, when the JVM supports virtual threads.
+ * <p/>
+ * Virtual threads cannot be {@link VertxThread}, so this executor keeps the state a {@link VertxThread} would hold:
+ * the context of the thread is kept in a thread local (see {@link #context()}) and the start time of each execution
+ * is tracked for the {@link BlockedThreadChecker}.
+ */
+class VirtualThreadExecutor extends AbstractExecutorService {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+  /**
+   * The max pool size reported to the pool metrics, the number of virtual threads is not bounded.
+   */
+  static final int MAX_POOL_SIZE = Integer.MAX_VALUE;
+
+  private static final Builder BUILDER = Builder.lookup(Thread.class);
+
+  /**
+   * Creates the virtual thread factories with the {@code Thread.ofVirtual()} builder API, looked up reflectively
+   * so Vert.x can run on JVMs without virtual threads.
+   */
+  static final class Builder {
+
+    /**
+     * Lookup the builder API of a thread class.
+     *
+     * @param threadClass the class declaring the static {@code ofVirtual()} method
+     * @return the builder or {@code null} when the thread class does not support virtual threads
+     */
+    static Builder lookup(Class<?> threadClass) {
+      try {
+        Method ofVirtual = threadClass.getMethod("ofVirtual");
+        Class<?> builderClass = ofVirtual.getReturnType();
+        Method name = builderClass.getMethod("name", String.class, long.class);
+        Method factory = builderClass.getMethod("factory");
+        // Virtual threads might be a preview feature that is not enabled
+        ofVirtual.invoke(null);
+        return new Builder(ofVirtual, name, factory);
+      } catch (Throwable ignore) {
+        return null;
+      }
+    }
+
+    private final Method ofVirtual;
+    private final Method name;
+    private final Method factory;
+
+    private Builder(Method ofVirtual, Method name, Method factory) {
+      this.ofVirtual = ofVirtual;
+      this.name = name;
+      this.factory = factory;
+    }
+
+    /**
+     * @return a factory of virtual threads named with the {@code prefix} followed by a counter
+     */
+    ThreadFactory factory(String prefix) {
+      try {
+        Object builder = ofVirtual.invoke(null);
+        builder = name.invoke(builder, prefix, 0L);
+        return (ThreadFactory) factory.invoke(builder);
+      } catch (Exception e) {
+        throw new IllegalStateException("Could not create virtual thread factory", e);
+      }
+    }
+  }
+
+  private static final ThreadLocal<VirtualThreadExecutor> EXECUTOR = new ThreadLocal<>();
+  private static final ThreadLocal<ContextImpl> CONTEXT = new ThreadLocal<>();
+
+  /**
+   * @return whether the JVM supports virtual threads
+   */
+  static boolean isAvailable() {
+    return BUILDER != null;
+  }
+
+  /**
+   * @return whether the current thread is a virtual thread running a task of a {@link VirtualThreadExecutor}
+   */
+  static boolean isVirtualWorker() {
+    return EXECUTOR.get() != null;
+  }
+
+  /**
+   * @return the context of the current virtual thread
+   */
+  static ContextImpl context() {
+    return CONTEXT.get();
+  }
+
+  static void setContext(ContextImpl context) {
+    CONTEXT.set(context);
+  }
+
+  /**
+   * Like {@link VertxThread#executeStart()} for the current virtual thread.
+   */
+  static void executeStart() {
+    VirtualThreadExecutor executor = EXECUTOR.get();
+    if (executor != null) {
+      executor.running.put(Thread.currentThread(), System.nanoTime());
+    }
+  }
+
+  /**
+   * Like {@link VertxThread#executeEnd()} for the current virtual thread.
+   */
+  static void executeEnd() {
+    VirtualThreadExecutor executor = EXECUTOR.get();
+    if (executor != null) {
+      executor.running.remove(Thread.currentThread());
+    }
+  }
+
+  private final ThreadFactory threadFactory;
+  private final long maxExecTime;
+  private final TimeUnit maxExecTimeUnit;
+  private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+  private final Map<Thread, Long> running = new ConcurrentHashMap<>();
+  private volatile boolean shutdown;
+
+  VirtualThreadExecutor(String prefix, BlockedThreadChecker checker, long maxExecTime, TimeUnit maxExecTimeUnit) {
+    this(BUILDER, prefix, checker, maxExecTime, maxExecTimeUnit);
+  }
+
+  VirtualThreadExecutor(Builder builder, String prefix, BlockedThreadChecker checker, long maxExecTime, TimeUnit maxExecTimeUnit) {
+    if (builder == null) {
+      throw new IllegalStateException("Virtual threads are not supported by this JVM");
+    }
+    this.threadFactory = builder.factory(prefix);
+    this.maxExecTime = maxExecTime;
+    this.maxExecTimeUnit = maxExecTimeUnit;
+    if (checker != null) {
+      checker.registerExecutor(this);
+    }
+  }
+
+  long getMaxExecTime() {
+    return maxExecTime;
+  }
+
+  TimeUnit getMaxExecTimeUnit() {
+    return maxExecTimeUnit;
+  }
+
+  /**
+   * @return the virtual threads currently executing a task mapped to the start time of the execution
+   */
+  Map<Thread, Long> runningThreads() {
+    return running;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    Thread thread = threadFactory.newThread(() -> {
+      Thread current = Thread.currentThread();
+      EXECUTOR.set(this);
+      try {
+        command.run();
+      } catch (Throwable t) {
+        log.error("Caught unexpected Throwable", t);
+      } finally {
+        running.remove(current);
+        threads.remove(current);
+        synchronized (this) {
+          if (shutdown && threads.isEmpty()) {
+            notifyAll();
+          }
+        }
+      }
+    });
+    threads.add(thread);
+    thread.start();
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    threads.forEach(Thread::interrupt);
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && threads.isEmpty();
+  }
+
+  @Override
+  public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!isTerminated()) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+}
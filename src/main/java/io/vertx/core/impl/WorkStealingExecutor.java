@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed size executor where each thread owns a task deque instead of sharing a single blocking queue.
+ * <p/>
+ * Tasks submitted by a thread of the pool are pushed to the deque of this thread, other tasks are pushed to a
+ * random deque. An idle thread first polls its own deque then steals tasks from the deques of the other threads
+ * before parking.
+ * <p/>
+ * Threads are created lazily by the thread factory, so they are {@link VertxThread} when the factory
+ * is a {@link VertxThreadFactory} and the blocked thread checker and context timings keep working.
+ */
+class WorkStealingExecutor extends AbstractExecutorService {
+
+  private static final Logger log = LoggerFactory.getLogger(WorkStealingExecutor.class);
+
+  private static final int RUNNING = 0, SHUTDOWN = 1, STOP = 2;
+
+  private final ThreadFactory threadFactory;
+  private final AtomicReferenceArray<Worker> workers;
+  private final ConcurrentLinkedDeque<Runnable>[] queues;
+  private final AtomicInteger workerCount = new AtomicInteger();
+  private final AtomicInteger aliveCount = new AtomicInteger();
+  private final ConcurrentLinkedQueue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+  private final CountDownLatch terminated = new CountDownLatch(1);
+  // The worker of the current thread, threads are created by the thread factory and cannot carry it
+  private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+  private volatile int state = RUNNING;
+
+  @SuppressWarnings("unchecked")
+  WorkStealingExecutor(int poolSize, ThreadFactory threadFactory) {
+    if (poolSize < 1) {
+      throw new IllegalArgumentException("poolSize must be > 0");
+    }
+    this.threadFactory = threadFactory;
+    this.workers = new AtomicReferenceArray<>(poolSize);
+    this.queues = new ConcurrentLinkedDeque[poolSize];
+    for (int i = 0;i < poolSize;i++) {
+      queues[i] = new ConcurrentLinkedDeque<>();
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (command == null) {
+      throw new NullPointerException();
+    }
+    if (state != RUNNING) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    Worker current = currentWorker.get();
+    if (current != null) {
+      queues[current.index].offerFirst(command);
+    } else {
+      queues[ThreadLocalRandom.current().nextInt(queues.length)].offerLast(command);
+    }
+    if (!startWorker()) {
+      signalIdleWorker();
+    }
+  }
+
+  private boolean startWorker() {
+    while (true) {
+      int count = workerCount.get();
+      if (count >= workers.length()) {
+        return false;
+      }
+      if (workerCount.compareAndSet(count, count + 1)) {
+        Worker worker = new Worker(count);
+        worker.thread = threadFactory.newThread(worker);
+        workers.set(count, worker);
+        aliveCount.incrementAndGet();
+        worker.thread.start();
+        return true;
+      }
+    }
+  }
+
+  private void signalIdleWorker() {
+    Worker worker;
+    while ((worker = idleWorkers.poll()) != null) {
+      if (worker.idle.compareAndSet(true, false)) {
+        LockSupport.unpark(worker.thread);
+        return;
+      }
+    }
+  }
+
+  private Runnable poll(int index) {
+    // Own deque first, then steal from the oldest end of the other deques
+    Runnable task = queues[index].pollFirst();
+    if (task == null) {
+      int len = queues.length;
+      int start = ThreadLocalRandom.current().nextInt(len);
+      for (int i = 0;i < len && task == null;i++) {
+        int victim = (start + i) % len;
+        if (victim != index) {
+          task = queues[victim].pollLast();
+        }
+      }
+    }
+    return task;
+  }
+
+  private boolean isEmpty() {
+    for (ConcurrentLinkedDeque<Runnable> queue : queues) {
+      if (!queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private class Worker implements Runnable {
+
+    private final int index;
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private Thread thread;
+
+    Worker(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      boolean registered = false;
+      currentWorker.set(this);
+      try {
+        while (state != STOP) {
+          Runnable task = poll(index);
+          if (task == null) {
+            if (state != RUNNING && isEmpty()) {
+              break;
+            }
+            if (!registered) {
+              registered = true;
+              idle.set(true);
+              idleWorkers.add(this);
+              // Check again after being registered as idle to not miss a signal
+              task = poll(index);
+            }
+            if (task == null) {
+              if (state == RUNNING) {
+                LockSupport.park(this);
+              }
+              // Still registered after a spurious wake-up
+              registered = idle.get();
+              continue;
+            }
+          }
+          if (registered) {
+            registered = false;
+            if (!idle.compareAndSet(true, false)) {
+              // A producer signaled this worker while it found a task by itself, pass the signal
+              signalIdleWorker();
+            }
+          }
+          if (state == RUNNING) {
+            // Clear interrupts that may come from a previous task
+            Thread.interrupted();
+          }
+          try {
+            task.run();
+          } catch (Throwable t) {
+            log.error("Caught unexpected Throwable", t);
+          }
+        }
+      } finally {
+        currentWorker.remove();
+        if (aliveCount.decrementAndGet() == 0 && state != RUNNING) {
+          terminated.countDown();
+        }
+      }
+    }
+  }
+
+  private void wakeUpWorkers() {
+    for (int i = 0;i < workers.length();i++) {
+      Worker worker = workers.get(i);
+      if (worker != null) {
+        LockSupport.unpark(worker.thread);
+      }
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    if (state == RUNNING) {
+      state = SHUTDOWN;
+    }
+    // Prevent further workers to be created
+    workerCount.getAndSet(workers.length());
+    wakeUpWorkers();
+    if (aliveCount.get() == 0) {
+      terminated.countDown();
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    state = STOP;
+    workerCount.getAndSet(workers.length());
+    for (int i = 0;i < workers.length();i++) {
+      Worker worker = workers.get(i);
+      if (worker != null) {
+        worker.thread.interrupt();
+      }
+    }
+    wakeUpWorkers();
+    if (aliveCount.get() == 0) {
+      terminated.countDown();
+    }
+    List<Runnable> tasks = new ArrayList<>();
+    for (ConcurrentLinkedDeque<Runnable> queue : queues) {
+      Runnable task;
+      while ((task = queue.pollFirst()) != null) {
+        tasks.add(task);
+      }
+    }
+    return tasks;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return state != RUNNING;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return terminated.getCount() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+}
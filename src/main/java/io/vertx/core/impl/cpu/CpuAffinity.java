@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.cpu;
+
+import io.vertx.core.impl.launcher.commands.ExecUtils;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binds threads to CPUs.
+ * <p>
+ * An affinity is a list of CPU sets, the n-th thread created with an affinity is bound to the n-th set modulo the
+ * number of sets. The thread binds itself when it starts, before it runs any task, with
+ * <a href="https://github.com/OpenHFT/Java-Thread-Affinity">Java Thread Affinity</a> which must be on the class path.
+ * When the thread cannot be bound, a warning is logged and the thread runs unbound.
+ */
+public class CpuAffinity {
+
+  private static final Logger log = LoggerFactory.getLogger(CpuAffinity.class);
+
+  private static final Method OPENHFT_SET_AFFINITY;
+
+  static {
+    Method setAffinity = null;
+    try {
+      Class<?> affinityClass = CpuAffinity.class.getClassLoader().loadClass("net.openhft.affinity.Affinity");
+      setAffinity = affinityClass.getMethod("setAffinity", BitSet.class);
+    } catch (Throwable ignore) {
+      // Not on the class path
+    }
+    OPENHFT_SET_AFFINITY = setAffinity;
+  }
+
+  /**
+   * @return whether threads can be bound to CPUs, i.e Java Thread Affinity is on the class path
+   */
+  public static boolean isSupported() {
+    return OPENHFT_SET_AFFINITY != null;
+  }
+
+  /**
+   * Check that CPUs are allowed.
+   *
+   * @param cpus the CPUs
+   * @param allowed the CPUs the process is allowed to run on
+   * @throws IllegalArgumentException when a CPU is not allowed
+   */
+  public static void checkAllowed(List<Integer> cpus, BitSet allowed) {
+    for (int cpu : cpus) {
+      if (!allowed.get(cpu)) {
+        throw new IllegalArgumentException("CPU " + cpu + " is not one of the CPUs " + allowed + " the process is allowed to run on");
+      }
+    }
+  }
+
+  /**
+   * Like {@link #readCoreLayout(File, BitSet)} with all the CPUs allowed.
+   */
+  public static List<Integer> readCoreLayout(File dir) {
+    return readCoreLayout(dir, null);
+  }
+
+  /**
+   * Read the CPU layout of the machine from the sysfs {@code cpu} directory, usually {@code /sys/devices/system/cpu}
+   * and return one online CPU per physical core, hardware threads (SMT) of a core already returned are skipped.
+   *
+   * @param dir the sysfs cpu directory
+   * @param allowed the CPUs the process is allowed to run on, other CPUs are skipped, {@code null} allows all CPUs
+   * @return the list of CPUs, empty when the layout cannot be determined
+   */
+  public static List<Integer> readCoreLayout(File dir, BitSet allowed) {
+    File[] files = dir.listFiles((d, name) -> name.matches("cpu[0-9]+"));
+    if (files == null) {
+      return Collections.emptyList();
+    }
+    List<Integer> cpus = new ArrayList<>();
+    for (File file : files) {
+      cpus.add(Integer.parseInt(file.getName().substring(3)));
+    }
+    Collections.sort(cpus);
+    List<Integer> layout = new ArrayList<>();
+    Set<String> cores = new HashSet<>();
+    for (int cpu : cpus) {
+      if (allowed != null && !allowed.get(cpu)) {
+        continue;
+      }
+      File cpuDir = new File(dir, "cpu" + cpu);
+      try {
+        File online = new File(cpuDir, "online");
+        if (online.exists() && "0".equals(readFirstLine(online))) {
+          continue;
+        }
+        File topology = new File(cpuDir, "topology");
+        String core = readFirstLine(new File(topology, "physical_package_id")) + ":" + readFirstLine(new File(topology, "core_id"));
+        if (cores.add(core)) {
+          layout.add(cpu);
+        }
+      } catch (IOException e) {
+        // No topology, consider it as a core
+        layout.add(cpu);
+      }
+    }
+    return layout;
+  }
+
+  /**
+   * @param allowed the CPUs the process is allowed to run on
+   * @return the automatic layout: one allowed CPU per physical core, or an empty list if the layout cannot be determined
+   */
+  public static List<Integer> coreLayout(BitSet allowed) {
+    if (!ExecUtils.isLinux()) {
+      return Collections.emptyList();
+    }
+    return readCoreLayout(new File("/sys/devices/system/cpu"), allowed);
+  }
+
+  private static String readFirstLine(File file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.US_ASCII)) {
+      String line = reader.readLine();
+      if (line == null) {
+        throw new IOException("Empty file " + file);
+      }
+      return line.trim();
+    }
+  }
+
+  private final List<BitSet> cpuSets;
+
+  /**
+   * Create an affinity.
+   *
+   * @param cpuSets the CPU sets the threads are bound to
+   */
+  public CpuAffinity(List<BitSet> cpuSets) {
+    if (cpuSets.isEmpty()) {
+      throw new IllegalArgumentException("No CPU set");
+    }
+    this.cpuSets = new ArrayList<>(cpuSets);
+  }
+
+  /**
+   * @return the CPU sets of this affinity
+   */
+  public List<BitSet> cpuSets() {
+    return Collections.unmodifiableList(cpuSets);
+  }
+
+  /**
+   * @return the CPU set of the n-th thread
+   */
+  public BitSet cpuSet(int index) {
+    return cpuSets.get(index % cpuSets.size());
+  }
+
+  /**
+   * Bind the current thread to the CPU set of the n-th thread.
+   *
+   * @param index the thread index
+   * @return whether the thread was bound
+   */
+  public boolean bind(int index) {
+    BitSet cpus = cpuSet(index);
+    Thread thread = Thread.currentThread();
+    if (OPENHFT_SET_AFFINITY == null) {
+      log.warn("Cannot bind thread " + thread.getName() + " to CPU " + cpus + " without Java Thread Affinity");
+      return false;
+    }
+    try {
+      OPENHFT_SET_AFFINITY.invoke(null, cpus);
+    } catch (Exception e) {
+      log.warn("Cannot bind thread " + thread.getName() + " to CPU " + cpus, e);
+      return false;
+    }
+    log.debug("Bound thread " + thread.getName() + " to CPU " + cpus);
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return cpuSets.toString();
+  }
+}
@@ -17,6 +17,7 @@ import java.io.*;
 import java.nio.charset.Charset;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.BitSet;
 
 /**
  * Utility class providing the number of CPU cores available. On Linux, to handle CGroups, it reads and
@@ -75,6 +76,83 @@ public class CpuCoreSensor {
     return fromProcFile > 0 ? Math.min(fromJava, fromProcFile) : fromJava;
   }
 
+  /**
+   * Returns the CPUs this process is allowed to run on.
+   * <p>
+   * On Linux the CPU set affinity of the process is read from the proc filesystem, so the CPUs of a cgroup cpuset
+   * or of {@code taskset}/{@code numactl} are returned, otherwise the CPUs {@code 0} to
+   * {@link Runtime#availableProcessors()} are returned.
+   * <p>
+   * Like {@link #availableProcessors()}, this method does not cache the result.
+   *
+   * @return the allowed CPUs
+   */
+  public static BitSet allowedCpus() {
+    if (System.getSecurityManager() != null) {
+      return AccessController.doPrivileged((PrivilegedAction<BitSet>) CpuCoreSensor::determineCpus);
+    }
+
+    return determineCpus();
+  }
+
+  private static BitSet determineCpus() {
+    BitSet fromProcFile = null;
+
+    if (ExecUtils.isLinux()) {
+      try {
+        fromProcFile = readCPUSet(new File("/proc/self/status"));
+      } catch (Exception e) {
+        // We can't do much at this point, we are on linux but using a different /proc format.
+      }
+    }
+
+    if (fromProcFile != null && !fromProcFile.isEmpty()) {
+      return fromProcFile;
+    }
+    BitSet fromJava = new BitSet();
+    fromJava.set(0, Runtime.getRuntime().availableProcessors());
+    return fromJava;
+  }
+
+  /**
+   * Read the {@code Cpus_allowed} mask of a proc status file, a list of comma separated 32 bits hexadecimal words,
+   * the most significant word first.
+   *
+   * @return the set of CPUs or {@code null} when the file has no mask
+   */
+  protected static BitSet readCPUSet(File file) throws IOException {
+    if (file == null  || ! file.exists()) {
+      return null;
+    }
+
+    final FileInputStream stream = new FileInputStream(file);
+    final InputStreamReader inputReader = new InputStreamReader(stream, ASCII);
+
+    try (BufferedReader reader = new BufferedReader(inputReader)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith(CPUS_ALLOWED)) {
+          BitSet cpus = new BitSet();
+          int bit = 0;
+          for (int i = line.length() - 1; i >= CPUS_ALLOWED.length(); i--) {
+            int digit = Character.digit(line.charAt(i), 16);
+            if (digit >= 0) {
+              for (int j = 0; j < 4; j++) {
+                if ((digit & (1 << j)) != 0) {
+                  cpus.set(bit + j);
+                }
+              }
+              bit += 4;
+            }
+          }
+          return cpus;
+        }
+      }
+    }
+
+    return null;
+  }
+
   protected static int readCPUMask(File file) throws IOException {
     if (file == null  || ! file.exists()) {
       return -1;
@@ -132,6 +132,14 @@ public class ConcurrentCyclicSequence<T> implements Iterable<T>, Iterator<T> {
     }
   }
 
+  /**
+   * @return the element at the given {@code index}
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    return (T) elements[index];
+  }
+
   /**
    * @return the size of this sequence
    */
@@ -11,6 +11,7 @@
 
 package io.vertx.core.spi.metrics;
 
+import io.vertx.core.eventbus.OverflowPolicy;
 import io.vertx.core.eventbus.ReplyFailure;
 
 /**
@@ -91,6 +92,40 @@ public interface EventBusMetrics<H> extends Metrics {
   default void endHandleMessage(H handler, Throwable failure) {
   }
 
+  /**
+   * Called when the number of messages buffered by a paused handler changes.<p/>
+   *
+   * No specific thread and context can be expected when this method is called.
+   *
+   * @param handler the handler buffering the messages
+   * @param pending the number of buffered messages
+   */
+  default void pendingMessages(H handler, int pending) {
+  }
+
+  /**
+   * Called when a message is discarded because a paused handler cannot buffer more messages.<p/>
+   *
+   * No specific thread and context can be expected when this method is called.
+   *
+   * @param handler the handler discarding the message
+   * @param local when the discarded message is local
+   * @param policy the overflow policy of the handler
+   */
+  default void discardMessage(H handler, boolean local, OverflowPolicy policy) {
+  }
+
+  /**
+   * Called when a clustered event bus looks up the nodes subscribed to an address in its subscription cache.<p/>
+   *
+   * No specific thread and context can be expected when this method is called.
+   *
+   * @param address the address
+   * @param hit true when the nodes are cached, false when they are looked up in the cluster manager
+   */
+  default void subscriptionCacheLookup(String address, boolean hit) {
+  }
+
   /**
    * Called when a message has been sent or published.<p/>
    *
@@ -128,6 +163,17 @@ public interface EventBusMetrics<H> extends Metrics {
   default void messageWritten(String address, int numberOfBytes) {
   }
 
+  /**
+   * Messages coalesced by a clustered event bus have been sent over the network with a single write and flush.<p/>
+   *
+   * No specific thread and context can be expected when this method is called.
+   *
+   * @param messages the number of messages
+   * @param numberOfBytes the number of bytes written
+   */
+  default void messagesFlushed(int messages, int numberOfBytes) {
+  }
+
   /**
    * A message has been received from the network.<p/>
    *
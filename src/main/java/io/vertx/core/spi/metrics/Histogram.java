@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.spi.metrics;
+
+/**
+ * An immutable histogram of the values recorded during an interval, provided to the metrics SPI by Vert.x.
+ * <p>
+ * Values are recorded with a bounded relative error (about 6%), so the values returned are approximations of
+ * the actual recorded values.
+ */
+public interface Histogram {
+
+  /**
+   * @return the number of values recorded
+   */
+  long getCount();
+
+  /**
+   * @return the lowest recorded value or {@code 0} when the histogram is empty
+   */
+  long getMin();
+
+  /**
+   * @return the highest recorded value or {@code 0} when the histogram is empty
+   */
+  long getMax();
+
+  /**
+   * @return the mean of the recorded values or {@code 0} when the histogram is empty
+   */
+  double getMean();
+
+  /**
+   * Get the value at a given percentile, i.e the value below which {@code percentile} percent of the recorded
+   * values fall.
+   *
+   * @param percentile the percentile between {@code 0} and {@code 100}
+   * @return the value at the percentile or {@code 0} when the histogram is empty
+   */
+  long getValueAtPercentile(double percentile);
+}
@@ -151,6 +151,37 @@ public interface VertxMetrics extends Metrics, Measured {
     return null;
   }
 
+  /**
+   * Called when an event loop has executed a batch of tasks submitted to an event loop context with
+   * {@link io.vertx.core.Context#runOnContext(io.vertx.core.Handler)}.
+   * <p>
+   * The tasks submitted to a context while a batch is scheduled are executed by the same event loop task, the size
+   * of the batches indicates how many event loop wake ups are saved.
+   * <p>
+   * No specific thread and context can be expected when this method is called.
+   *
+   * @param size the number of tasks executed in the batch
+   */
+  default void contextTaskBatchExecuted(int size) {
+  }
+
+  /**
+   * Called periodically with the statistics of an event loop when {@link io.vertx.core.VertxOptions#setEventLoopMetricsEnabled(boolean)}
+   * is enabled. The statistics are the values recorded since the previous call for the same event loop, the call
+   * period is the {@link io.vertx.core.VertxOptions#getBlockedThreadCheckInterval() blocked thread check interval}.
+   * <p>
+   * This method is called from the blocked thread checker thread.
+   *
+   * @param eventLoop the name of the event loop thread
+   * @param taskDuration the execution time of the tasks executed by the event loop, in nanoseconds
+   * @param schedulingLag the time between the submission of {@link io.vertx.core.Context#runOnContext(io.vertx.core.Handler)}
+   *                      tasks and their execution by the event loop, in nanoseconds
+   * @param queueDepth the number of tasks pending in the event loop queue, sampled when the
+   *                   {@link io.vertx.core.Context#runOnContext(io.vertx.core.Handler)} tasks are executed
+   */
+  default void eventLoopStatistics(String eventLoop, Histogram taskDuration, Histogram schedulingLag, Histogram queueDepth) {
+  }
+
   /**
    * Callback to signal when the Vertx instance is fully initialized. Other methods can be called before this method
    * when the instance is being constructed.
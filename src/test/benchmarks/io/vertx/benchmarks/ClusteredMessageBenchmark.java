@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.impl.CodecManager;
+import io.vertx.core.eventbus.impl.clustered.ClusteredMessage;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.impl.ServerID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the wire encoding and decoding of clustered messages with a small {@code String} body, a {@code JsonObject}
+ * body and a {@code String} body with headers, meant to be run with the JMH GC profiler ({@code -prof gc}).
+ */
+public class ClusteredMessageBenchmark extends BenchmarkBase {
+
+  @State(Scope.Thread)
+  public static class MessageState {
+
+    @Param({"String", "JsonObject", "Headers"})
+    String type;
+
+    CodecManager codecManager;
+    ClusteredMessage message;
+    ClusteredMessage.BodySizePredictor bodySize;
+    ClusteredMessage.SenderCache senders;
+    Buffer wire;
+
+    @Setup
+    public void setup() {
+      codecManager = new CodecManager();
+      Object body;
+      MultiMap headers = null;
+      switch (type) {
+        case "JsonObject":
+          body = new JsonObject().put("id", 1234).put("name", "vert.x").put("tags", "event,bus,cluster");
+          break;
+        case "Headers":
+          body = "hello";
+          headers = new CaseInsensitiveHeaders().add("user", "julien").add("trace-id", "5b8aa5a2d2c872e8321cf37308d69df2");
+          break;
+        default:
+          body = "hello";
+          break;
+      }
+      MessageCodec codec = codecManager.lookupCodec(body, null);
+      ServerID sender = new ServerID(5701, "192.168.1.10");
+      message = new ClusteredMessage<>(sender, "some-address", "__vertx.reply.1", headers, body, codec, true, null);
+      bodySize = new ClusteredMessage.BodySizePredictor();
+      senders = new ClusteredMessage.SenderCache();
+      Buffer frame = message.encodeToWire();
+      // The length is read by the record parser
+      wire = frame.slice(4, frame.length());
+    }
+  }
+
+  @Benchmark
+  public Buffer encode(MessageState state) {
+    return state.message.encodeToWire();
+  }
+
+  @Benchmark
+  public int encodePooled(MessageState state) {
+    ByteBuf buf = state.message.encodeToWire(PooledByteBufAllocator.DEFAULT, state.bodySize);
+    int length = buf.readableBytes();
+    buf.release();
+    return length;
+  }
+
+  @Benchmark
+  public Object decode(MessageState state) {
+    ClusteredMessage received = new ClusteredMessage();
+    received.readFromWire(state.wire, state.codecManager, state.senders);
+    received.headers();
+    return received.body();
+  }
+
+  @Benchmark
+  public Object roundTrip(MessageState state) {
+    ByteBuf buf = state.message.encodeToWire(PooledByteBufAllocator.DEFAULT, state.bodySize);
+    try {
+      ClusteredMessage received = new ClusteredMessage();
+      received.readFromWire(Buffer.buffer(buf.slice(4, buf.readableBytes() - 4)), state.codecManager, state.senders);
+      received.headers();
+      return received.body();
+    } finally {
+      buf.release();
+    }
+  }
+}
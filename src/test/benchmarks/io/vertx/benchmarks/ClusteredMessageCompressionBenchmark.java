@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.impl.CodecManager;
+import io.vertx.core.eventbus.impl.clustered.ClusteredMessage;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.impl.ServerID;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the round trip of clustered messages with a {@code JsonObject} body of 1, 10 and 100 records, with and
+ * without body compression. The {@code wireBytes} secondary result divided by the score is the size of a frame.
+ */
+public class ClusteredMessageCompressionBenchmark extends BenchmarkBase {
+
+  @State(Scope.Thread)
+  public static class MessageState {
+
+    @Param({"1", "10", "100"})
+    int records;
+
+    @Param({"-1", "512"})
+    int compressionThreshold;
+
+    CodecManager codecManager;
+    ClusteredMessage message;
+    ClusteredMessage.BodySizePredictor bodySize;
+    ClusteredMessage.BodyCompressor compressor;
+    ClusteredMessage.SenderCache senders;
+    ClusteredMessage.BodyDecompressor decompressor;
+
+    @Setup
+    public void setup() {
+      codecManager = new CodecManager();
+      JsonArray array = new JsonArray();
+      for (int i = 0;i < records;i++) {
+        array.add(new JsonObject()
+          .put("id", 100000 + i)
+          .put("name", "User " + i)
+          .put("email", "user" + i + "@example.com")
+          .put("active", i % 3 != 0)
+          .put("roles", new JsonArray().add("reader").add(i % 2 == 0 ? "writer" : "reviewer"))
+          .put("createdAt", "2018-06-" + (10 + i % 20) + "T10:15:30Z"));
+      }
+      JsonObject body = new JsonObject().put("page", 1).put("total", records).put("users", array);
+      MessageCodec codec = codecManager.lookupCodec(body, null);
+      message = new ClusteredMessage<>(new ServerID(5701, "192.168.1.10"), "users", "__vertx.reply.1", null, body, codec, true, null);
+      bodySize = new ClusteredMessage.BodySizePredictor();
+      compressor = compressionThreshold >= 0 ? new ClusteredMessage.BodyCompressor(compressionThreshold) : null;
+      senders = new ClusteredMessage.SenderCache();
+      decompressor = new ClusteredMessage.BodyDecompressor();
+    }
+
+    @TearDown
+    public void tearDown() {
+      if (compressor != null) {
+        compressor.close();
+      }
+      decompressor.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class WireCounters {
+
+    public long wireBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      wireBytes = 0;
+    }
+  }
+
+  @Benchmark
+  public Object roundTrip(MessageState state, WireCounters counters) {
+    ByteBuf buf = state.message.encodeToWire(PooledByteBufAllocator.DEFAULT, state.bodySize, state.compressor);
+    try {
+      counters.wireBytes += buf.readableBytes();
+      ClusteredMessage received = new ClusteredMessage();
+      received.readFromWire(Buffer.buffer(buf.slice(4, buf.readableBytes() - 4)), state.codecManager, state.senders, state.decompressor);
+      return received.body();
+    } finally {
+      buf.release();
+    }
+  }
+}
@@ -11,9 +11,24 @@
 
 package io.vertx.benchmarks;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.impl.Http1xServerConnection;
+import io.vertx.core.http.impl.HttpHandlers;
+import io.vertx.core.http.impl.VertxHttpRequestDecoder;
 import io.vertx.core.impl.BenchmarkContext;
+import io.vertx.core.impl.EventLoopContext;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.impl.HandlerHolder;
+import io.vertx.core.net.impl.NetSocketImpl;
+import io.vertx.core.net.impl.VertxHandler;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.CompilerControl;
 import org.openjdk.jmh.annotations.Fork;
@@ -46,6 +61,56 @@ public class ContextBenchmark extends BenchmarkBase {
     }
   }
 
+  @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+  public static void consume(final Object o) {
+  }
+
+  /**
+   * Reads delivered by an embedded channel to a {@link NetSocketImpl} and to a {@link Http1xServerConnection}, each read
+   * goes through {@link io.vertx.core.impl.ContextInternal#executeFromIO} on the event loop context of the connection.
+   */
+  @State(Scope.Thread)
+  public static class IOState {
+
+    VertxInternal vertx;
+    EmbeddedChannel netChannel;
+    EmbeddedChannel httpChannel;
+    ByteBuf data;
+    ByteBuf GET;
+
+    @Setup
+    public void setup() {
+      vertx = (VertxInternal) Vertx.vertx();
+      ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+
+      netChannel = new EmbeddedChannel();
+      EventLoopContext netContext = new EventLoopContext(vertx, netChannel.eventLoop(), null, null, null, new JsonObject(), tccl);
+      VertxHandler<NetSocketImpl> netHandler = VertxHandler.create(netContext, chctx -> new NetSocketImpl(vertx, chctx, netContext, null, null));
+      netChannel.pipeline().addLast("handler", netHandler);
+      netHandler.getConnection().handler(ContextBenchmark::consume);
+
+      httpChannel = new EmbeddedChannel(new VertxHttpRequestDecoder(new HttpServerOptions()), new HttpResponseEncoder());
+      EventLoopContext httpContext = new EventLoopContext(vertx, httpChannel.eventLoop(), null, null, null, new JsonObject(), tccl);
+      Handler<HttpServerRequest> app = request -> request.response().end();
+      HandlerHolder<HttpHandlers> holder = new HandlerHolder<>(httpContext, new HttpHandlers(null, app, null, null, null));
+      VertxHandler<Http1xServerConnection> httpHandler = VertxHandler.create(httpContext, chctx -> new Http1xServerConnection(
+        vertx,
+        null,
+        new HttpServerOptions(),
+        chctx,
+        httpContext,
+        "localhost",
+        holder.handler,
+        null));
+      httpChannel.pipeline().addLast("handler", httpHandler);
+
+      data = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer("the-data".getBytes()));
+      GET = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer((
+        "GET / HTTP/1.1\r\n" +
+          "\r\n").getBytes()));
+    }
+  }
+
   @Benchmark
   public void runOnContext(BaselineState state) {
     state.context.runOnContext(state.task);
@@ -67,4 +132,32 @@ public class ContextBenchmark extends BenchmarkBase {
   public void executeFromIONoChecks(BaselineState state) {
     state.context.executeFromIO(state.task);
   }
+
+  @Benchmark
+  public void netSocketRead(IOState state) {
+    state.data.setIndex(0, state.data.capacity());
+    state.netChannel.writeInbound(state.data);
+  }
+
+  @Benchmark
+  @Fork(jvmArgsAppend = { "-Dvertx.threadChecks=false", "-Dvertx.disableContextTimings=true", "-Dvertx.disableTCCL=true" })
+  public void netSocketReadNoChecks(IOState state) {
+    state.data.setIndex(0, state.data.capacity());
+    state.netChannel.writeInbound(state.data);
+  }
+
+  @Benchmark
+  public void httpServerRead(IOState state) {
+    state.GET.setIndex(0, state.GET.capacity());
+    state.httpChannel.writeInbound(state.GET);
+    consume(state.httpChannel.outboundMessages().poll());
+  }
+
+  @Benchmark
+  @Fork(jvmArgsAppend = { "-Dvertx.threadChecks=false", "-Dvertx.disableContextTimings=true", "-Dvertx.disableTCCL=true" })
+  public void httpServerReadNoChecks(IOState state) {
+    state.GET.setIndex(0, state.GET.capacity());
+    state.httpChannel.writeInbound(state.GET);
+    consume(state.httpChannel.outboundMessages().poll());
+  }
 }
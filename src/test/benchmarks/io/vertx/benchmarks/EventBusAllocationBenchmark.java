@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.impl.CodecManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the allocation of local event bus sends of {@code Integer}, {@code Long} and {@code String} bodies without
+ * headers, and of the codec lookup of these bodies, meant to be run with the JMH GC profiler ({@code -prof gc}).
+ */
+public class EventBusAllocationBenchmark extends BenchmarkBase {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final String ADDRESS = "send";
+
+  @State(Scope.Benchmark)
+  public static class EventBusState {
+
+    @Param({"Integer", "Long", "String"})
+    String type;
+
+    Vertx vertx;
+    EventBus eventBus;
+    Context context;
+    Object body;
+    int received;
+    CountDownLatch latch;
+
+    @Setup
+    public void setup() throws Exception {
+      switch (type) {
+        case "Integer":
+          body = 4;
+          break;
+        case "Long":
+          body = 4L;
+          break;
+        default:
+          body = "hello";
+          break;
+      }
+      vertx = Vertx.vertx();
+      eventBus = vertx.eventBus();
+      context = vertx.getOrCreateContext();
+      CountDownLatch started = new CountDownLatch(1);
+      context.runOnContext(v -> {
+        eventBus.consumer(ADDRESS, msg -> {
+          if (++received == BATCH_SIZE) {
+            latch.countDown();
+          }
+        });
+        started.countDown();
+      });
+      started.await();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+      CountDownLatch latch = new CountDownLatch(1);
+      vertx.close(ar -> latch.countDown());
+      latch.await();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class CodecState {
+
+    @Param({"Integer", "Long", "String"})
+    String type;
+
+    CodecManager codecManager;
+    Object body;
+
+    @Setup
+    public void setup() {
+      codecManager = new CodecManager();
+      switch (type) {
+        case "Integer":
+          body = 4;
+          break;
+        case "Long":
+          body = 4L;
+          break;
+        default:
+          body = "hello";
+          break;
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void send(EventBusState state) throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    state.context.runOnContext(v -> {
+      state.received = 0;
+      state.latch = latch;
+      EventBus eventBus = state.eventBus;
+      Object body = state.body;
+      for (int i = 0;i < BATCH_SIZE;i++) {
+        eventBus.send(ADDRESS, body);
+      }
+    });
+    latch.await();
+  }
+
+  @Benchmark
+  public Object lookupCodec(CodecState state) {
+    return state.codecManager.lookupCodec(state.body, null);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.EventBusOptions;
+import io.vertx.core.eventbus.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of local event bus send and request/reply when the sender and the consumer run on the same
+ * event loop context, with the messages delivered with a context task or inline as enabled by
+ * {@link EventBusOptions#setInlineDelivery(boolean)}, and with 0, 1 or 5 pass-through outbound and inbound interceptors.
+ */
+public class EventBusBenchmark extends BenchmarkBase {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final String SEND_ADDRESS = "send";
+  private static final String REQUEST_ADDRESS = "request";
+
+  @State(Scope.Benchmark)
+  public static class EventBusState {
+
+    @Param({"false", "true"})
+    boolean inlineDelivery;
+
+    @Param({"0", "1", "5"})
+    int interceptors;
+
+    Vertx vertx;
+    EventBus eventBus;
+    Context context;
+    int received;
+    CountDownLatch latch;
+
+    @Setup
+    public void setup() throws Exception {
+      vertx = Vertx.vertx(new VertxOptions().setEventBusOptions(new EventBusOptions().setInlineDelivery(inlineDelivery)));
+      eventBus = vertx.eventBus();
+      for (int i = 0;i < interceptors;i++) {
+        eventBus.addOutboundInterceptor(DeliveryContext::next);
+        eventBus.addInboundInterceptor(DeliveryContext::next);
+      }
+      context = vertx.getOrCreateContext();
+      CountDownLatch started = new CountDownLatch(1);
+      context.runOnContext(v -> {
+        eventBus.<String>consumer(SEND_ADDRESS, msg -> {
+          if (++received == BATCH_SIZE) {
+            latch.countDown();
+          }
+        });
+        eventBus.<Integer>consumer(REQUEST_ADDRESS, msg -> msg.reply(msg.body()));
+        started.countDown();
+      });
+      started.await();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+      CountDownLatch latch = new CountDownLatch(1);
+      vertx.close(ar -> latch.countDown());
+      latch.await();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void send(EventBusState state) throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    state.context.runOnContext(v -> {
+      state.received = 0;
+      state.latch = latch;
+      EventBus eventBus = state.eventBus;
+      for (int i = 0;i < BATCH_SIZE;i++) {
+        eventBus.send(SEND_ADDRESS, "hello");
+      }
+    });
+    latch.await();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void requestReply(EventBusState state) throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    state.context.runOnContext(v -> {
+      EventBus eventBus = state.eventBus;
+      Handler<AsyncResult<Message<Integer>>>[] replyHandler = new Handler[1];
+      replyHandler[0] = ar -> {
+        int n = ar.result().body();
+        if (n < BATCH_SIZE) {
+          eventBus.send(REQUEST_ADDRESS, n + 1, replyHandler[0]);
+        } else {
+          latch.countDown();
+        }
+      };
+      eventBus.send(REQUEST_ADDRESS, 1, replyHandler[0]);
+    });
+    latch.await();
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+
+package io.vertx.benchmarks;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.EventBusOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.RoutingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to complete a burst of requests sent to an address consumed by several consumers on different
+ * event loops, one of them being much slower than the others, for each {@link RoutingStrategy}. The sample time mode
+ * reports the tail latency of the bursts: with round robin the slow consumer receives its share of the requests and
+ * delays the completion of the burst.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoutingStrategyBenchmark extends BenchmarkBase {
+
+  private static final int BURST_SIZE = 100;
+  private static final int CONSUMERS = 4;
+  private static final long FAST_NANOS = TimeUnit.MICROSECONDS.toNanos(5);
+  private static final long SLOW_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+  private static final String ADDRESS = "request";
+
+  @State(Scope.Benchmark)
+  public static class RoutingState {
+
+    @Param({"ROUND_ROBIN", "LEAST_PENDING", "POWER_OF_TWO_CHOICES", "CONTEXT_AFFINITY"})
+    RoutingStrategy routingStrategy;
+
+    Vertx vertx;
+    EventBus eventBus;
+    Context context;
+
+    @Setup
+    public void setup() throws Exception {
+      vertx = Vertx.vertx(new VertxOptions()
+        .setEventLoopPoolSize(CONSUMERS + 1)
+        .setEventBusOptions(new EventBusOptions().setRoutingStrategy(routingStrategy)));
+      eventBus = vertx.eventBus();
+      context = vertx.getOrCreateContext();
+      CountDownLatch started = new CountDownLatch(CONSUMERS);
+      for (int i = 0;i < CONSUMERS;i++) {
+        long workNanos = i == 0 ? SLOW_NANOS : FAST_NANOS;
+        vertx.getOrCreateContext().runOnContext(v -> {
+          eventBus.<Integer>consumer(ADDRESS, msg -> {
+            work(workNanos);
+            msg.reply(msg.body());
+          });
+          started.countDown();
+        });
+      }
+      started.await();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+      CountDownLatch latch = new CountDownLatch(1);
+      vertx.close(ar -> latch.countDown());
+      latch.await();
+    }
+  }
+
+  private static void work(long nanos) {
+    long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) {
+      // Busy
+    }
+  }
+
+  @Benchmark
+  public void burst(RoutingState state) throws Exception {
+    CountDownLatch latch = new CountDownLatch(BURST_SIZE);
+    state.context.runOnContext(v -> {
+      EventBus eventBus = state.eventBus;
+      Handler<AsyncResult<Message<Integer>>> replyHandler = ar -> latch.countDown();
+      for (int i = 0;i < BURST_SIZE;i++) {
+        eventBus.send(ADDRESS, i, replyHandler);
+      }
+    });
+    latch.await();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2017 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.core.impl.SynchronizedTaskQueue;
+import io.vertx.core.impl.TaskQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Compares the lock-free {@link TaskQueue} with the former lock based implementation when several producers
+ * submit ordered tasks to the same queue.
+ * <p/>
+ * Tasks are executed with a direct executor so the producer that schedules the queue drains it.
+ */
+public class TaskQueueBenchmark extends BenchmarkBase {
+
+  @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+  public static void consume(final String buf) {
+  }
+
+  @State(Scope.Benchmark)
+  public static class QueueState {
+
+    TaskQueue queue;
+    SynchronizedTaskQueue synchronizedQueue;
+    Executor executor;
+    Runnable task;
+
+    @Setup
+    public void setup() {
+      queue = new TaskQueue();
+      synchronizedQueue = new SynchronizedTaskQueue();
+      executor = Runnable::run;
+      task = () -> consume("the-string");
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void lockFree1(QueueState state) {
+    state.queue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void lockFree4(QueueState state) {
+    state.queue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void lockFree16(QueueState state) {
+    state.queue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void lockFree64(QueueState state) {
+    state.queue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void synchronized1(QueueState state) {
+    state.synchronizedQueue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void synchronized4(QueueState state) {
+    state.synchronizedQueue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void synchronized16(QueueState state) {
+    state.synchronizedQueue.execute(state.task, state.executor);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void synchronized64(QueueState state) {
+    state.synchronizedQueue.execute(state.task, state.executor);
+  }
+}
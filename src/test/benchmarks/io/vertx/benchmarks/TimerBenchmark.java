@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of setting and cancelling a timer on an event loop, with the event loop scheduled task
+ * queue or with a timer wheel, while a number of other timers are pending.
+ * <p/>
+ * Timers are set and cancelled in batches on the event loop of a context, like request timeouts would be.
+ */
+public class TimerBenchmark extends BenchmarkBase {
+
+  private static final int BATCH_SIZE = 1000;
+
+  @State(Scope.Benchmark)
+  public static class TimerState {
+
+    @Param({"false", "true"})
+    boolean timerWheel;
+
+    @Param({"0", "100000"})
+    int pendingTimers;
+
+    Vertx vertx;
+    Context context;
+    Handler<Long> handler;
+
+    @Setup
+    public void setup() throws Exception {
+      vertx = Vertx.vertx(new VertxOptions().setTimerWheel(timerWheel));
+      context = vertx.getOrCreateContext();
+      handler = id -> {};
+      CountDownLatch latch = new CountDownLatch(1);
+      context.runOnContext(v -> {
+        for (int i = 0;i < pendingTimers;i++) {
+          vertx.setTimer(3_600_000 + i, handler);
+        }
+        latch.countDown();
+      });
+      latch.await();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+      CountDownLatch latch = new CountDownLatch(1);
+      vertx.close(ar -> latch.countDown());
+      latch.await();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void setAndCancel(TimerState state) throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    state.context.runOnContext(v -> {
+      Vertx vertx = state.vertx;
+      for (int i = 0;i < BATCH_SIZE;i++) {
+        long id = vertx.setTimer(30_000, state.handler);
+        vertx.cancelTimer(id);
+      }
+      latch.countDown();
+    });
+    latch.await();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void setAndCancelInterleaved(TimerState state) throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    state.context.runOnContext(v -> {
+      Vertx vertx = state.vertx;
+      long[] ids = new long[BATCH_SIZE];
+      for (int i = 0;i < BATCH_SIZE;i++) {
+        ids[i] = vertx.setTimer(1_000 + i, state.handler);
+      }
+      for (int i = 0;i < BATCH_SIZE;i++) {
+        vertx.cancelTimer(ids[i]);
+      }
+      latch.countDown();
+    });
+    latch.await();
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2017 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import java.util.LinkedList;
+import java.util.concurrent.Executor;
+
+/**
+ * The former lock based {@link TaskQueue} implementation, kept as a baseline for benchmarks.
+ */
+public class SynchronizedTaskQueue {
+
+  private static class Task {
+
+    private final Runnable runnable;
+    private final Executor exec;
+
+    public Task(Runnable runnable, Executor exec) {
+      this.runnable = runnable;
+      this.exec = exec;
+    }
+  }
+
+  // @protectedby tasks
+  private final LinkedList<Task> tasks = new LinkedList<>();
+
+  // @protectedby tasks
+  private Executor current;
+
+  private final Runnable runner;
+
+  public SynchronizedTaskQueue() {
+    runner = this::run;
+  }
+
+  private void run() {
+    for (; ; ) {
+      final Task task;
+      synchronized (tasks) {
+        task = tasks.poll();
+        if (task == null) {
+          current = null;
+          return;
+        }
+        if (task.exec != current) {
+          tasks.addFirst(task);
+          task.exec.execute(runner);
+          current = task.exec;
+          return;
+        }
+      }
+      try {
+        task.runnable.run();
+      } catch (Throwable t) {
+        TaskQueue.log.error("Caught unexpected Throwable", t);
+      }
+    }
+  }
+
+  public void execute(Runnable task, Executor executor) {
+    synchronized (tasks) {
+      tasks.add(new Task(task, executor));
+      if (current == null) {
+        current = executor;
+        executor.execute(runner);
+      }
+    }
+  }
+}
@@ -12,11 +12,14 @@
 package io.vertx.core;
 
 import io.vertx.core.*;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.test.core.BlockedThreadWarning;
 import io.vertx.test.core.VertxTestBase;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -119,4 +122,37 @@ public class BlockedThreadCheckerTest extends VertxTestBase {
     await();
     blockedThreadWarning.expectMessage("vert.x-worker-thread", maxWorkerExecuteTime, maxWorkerExecuteTimeUnit);
   }
+
+  @Test
+  public void testBlockedThreadSampling() throws Exception {
+    VertxOptions vertxOptions = new VertxOptions();
+    vertxOptions.setMaxEventLoopExecuteTime(10);
+    vertxOptions.setMaxEventLoopExecuteTimeUnit(SECONDS);
+    // The stacks are sampled although the task completes before the first blocked thread check
+    vertxOptions.setBlockedThreadCheckInterval(10);
+    vertxOptions.setBlockedThreadCheckIntervalUnit(SECONDS);
+    vertxOptions.setBlockedThreadSamplingThreshold(1);
+    vertxOptions.setBlockedThreadSamplingInterval(10);
+    VertxInternal newVertx = (VertxInternal) vertx(vertxOptions);
+    newVertx.runOnContext(v -> {
+      long now = System.nanoTime();
+      while (System.nanoTime() - now < TimeUnit.MILLISECONDS.toNanos(500)) {
+        spin();
+      }
+      testComplete();
+    });
+    await();
+    Map<String, Long> samples = newVertx.blockedThreadSamples();
+    assertTrue(samples.keySet().stream().anyMatch(stack -> stack.startsWith("vert.x-eventloop-thread") &&
+      stack.contains(BlockedThreadCheckerTest.class.getName() + ".spin")));
+    newVertx.clearBlockedThreadSamples();
+    assertEquals(Collections.emptyMap(), newVertx.blockedThreadSamples());
+  }
+
+  private static void spin() {
+    long now = System.nanoTime();
+    while (System.nanoTime() - now < 1000) {
+      // Spin
+    }
+  }
 }
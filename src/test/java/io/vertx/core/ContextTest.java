@@ -12,12 +12,20 @@
 package io.vertx.core;
 
 import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.ContextLocal;
 import io.vertx.core.impl.TaskQueue;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.WorkerPool;
+import io.vertx.core.json.JsonObject;
 import io.vertx.test.core.VertxTestBase;
 import org.junit.Test;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -56,6 +64,115 @@ public class ContextTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testRunOnContextFromManyThreads() throws Exception {
+    int numThreads = 4;
+    int numTasks = 10000;
+    Context ctx = vertx.getOrCreateContext();
+    int[] counters = new int[numThreads];
+    AtomicInteger done = new AtomicInteger();
+    Thread[] threads = new Thread[numThreads];
+    for (int i = 0;i < numThreads;i++) {
+      int id = i;
+      threads[i] = new Thread(() -> {
+        for (int j = 0;j < numTasks;j++) {
+          int val = j;
+          ctx.runOnContext(v -> {
+            assertSame(ctx, Vertx.currentContext());
+            // Tasks submitted by the same thread are executed in order
+            assertEquals(val, counters[id]++);
+            if (val == numTasks - 1 && done.incrementAndGet() == numThreads) {
+              testComplete();
+            }
+          });
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    await();
+  }
+
+  @Test
+  public void testRunOnContextNestedTaskYields() throws Exception {
+    ContextInternal ctx = (ContextInternal) vertx.getOrCreateContext();
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch blocked = new CountDownLatch(1);
+    ctx.runOnContext(v -> {
+      try {
+        blocked.await();
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    ctx.runOnContext(v -> {
+      order.add("a");
+      // A nested task yields to the event loop tasks submitted before
+      ctx.nettyEventLoop().execute(() -> order.add("c"));
+      ctx.runOnContext(v2 -> {
+        order.add("d");
+        assertEquals(Arrays.asList("a", "b", "c", "d"), order);
+        testComplete();
+      });
+    });
+    ctx.runOnContext(v -> order.add("b"));
+    blocked.countDown();
+    await();
+  }
+
+  @Test
+  public void testTcclRestoredAfterHandlerChange() throws Exception {
+    ClassLoader tccl = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ClassLoader other = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ContextInternal ctx = ((VertxInternal) vertx).createEventLoopContext(null, null, new JsonObject(), tccl);
+    ctx.runOnContext(v -> {
+      assertSame(tccl, Thread.currentThread().getContextClassLoader());
+      Thread.currentThread().setContextClassLoader(other);
+      // Same context on the same thread, the TCCL changed by the handler is restored
+      ctx.executeFromIO(v2 -> {
+        assertSame(tccl, Thread.currentThread().getContextClassLoader());
+        Thread.currentThread().setContextClassLoader(other);
+      });
+      ctx.runOnContext(v2 -> {
+        assertSame(ctx, Vertx.currentContext());
+        assertSame(tccl, Thread.currentThread().getContextClassLoader());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testNestedContextDispatch() throws Exception {
+    ClassLoader tccl1 = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ClassLoader tccl2 = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    ContextInternal ctx1 = ((VertxInternal) vertx).createEventLoopContext(null, null, new JsonObject(), tccl1);
+    ContextInternal ctx2 = ((VertxInternal) vertx).createEventLoopContext(null, null, new JsonObject(), tccl2);
+    ctx1.runOnContext(v -> {
+      assertSame(ctx1, Vertx.currentContext());
+      // Dispatch to another context on the same thread
+      ctx2.executeFromIO(v2 -> {
+        assertSame(ctx2, Vertx.currentContext());
+        assertSame(tccl2, Thread.currentThread().getContextClassLoader());
+      });
+      // The next task of the first context switches back
+      ctx1.executeFromIO(v2 -> {
+        assertSame(ctx1, Vertx.currentContext());
+        assertSame(tccl1, Thread.currentThread().getContextClassLoader());
+      });
+      ctx2.executeFromIO(v2 -> {
+        assertSame(ctx2, Vertx.currentContext());
+        ctx1.runOnContext(v3 -> {
+          assertSame(ctx1, Vertx.currentContext());
+          assertSame(tccl1, Thread.currentThread().getContextClassLoader());
+          testComplete();
+        });
+      });
+    });
+    await();
+  }
+
   @Test
   public void testNoContext() throws Exception {
     assertNull(Vertx.currentContext());
@@ -82,6 +199,64 @@ public class ContextTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testContextLocal() throws Exception {
+    ContextInternal ctx = (ContextInternal) vertx.getOrCreateContext();
+    // Registered after the context creation
+    ContextLocal<String> key1 = ContextLocal.registerLocal(String.class);
+    ContextLocal<Integer> key2 = ContextLocal.registerLocal(Integer.class);
+    assertNull(ctx.getLocal(key1));
+    assertFalse(ctx.removeLocal(key1));
+    ctx.put("foo", "bar");
+    ctx.putLocal(key1, "the-value");
+    ctx.putLocal(key2, 4);
+    assertEquals("the-value", ctx.getLocal(key1));
+    assertEquals(4, (int) ctx.getLocal(key2));
+    assertEquals("bar", ctx.get("foo"));
+    assertTrue(ctx.removeLocal(key1));
+    assertNull(ctx.getLocal(key1));
+    assertEquals(4, (int) ctx.getLocal(key2));
+    ctx.runOnContext(v -> {
+      assertEquals(4, (int) ctx.getLocal(key2));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testContextLocalConcurrentUpdates() throws Exception {
+    ContextInternal ctx = (ContextInternal) vertx.getOrCreateContext();
+    int num = 8;
+    List<ContextLocal<Integer>> keys = new ArrayList<>();
+    CyclicBarrier barrier = new CyclicBarrier(num);
+    Thread[] threads = new Thread[num];
+    for (int i = 0;i < num;i++) {
+      keys.add(null);
+      int idx = i;
+      threads[i] = new Thread(() -> {
+        try {
+          barrier.await();
+        } catch (Exception e) {
+          fail(e);
+        }
+        // Each thread registers a key, so the slots grow concurrently with the updates
+        ContextLocal<Integer> key = ContextLocal.registerLocal(Integer.class);
+        keys.set(idx, key);
+        for (int j = 0;j < 1000;j++) {
+          ctx.putLocal(key, j);
+          assertEquals(j, (int) ctx.getLocal(key));
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (ContextLocal<Integer> key : keys) {
+      assertEquals(999, (int) ctx.getLocal(key));
+    }
+  }
+
   @Test
   public void testGettingContextContextUnderContextAnotherInstanceShouldReturnDifferentContext() throws Exception {
     Vertx other = vertx();
@@ -82,6 +82,9 @@ public class DeploymentTest extends VertxTestBase {
     assertEquals(maxWorkerExecuteTime, options.getMaxWorkerExecuteTime());
     assertEquals(options, options.setMaxWorkerExecuteTimeUnit(TimeUnit.MILLISECONDS));
     assertEquals(TimeUnit.MILLISECONDS, options.getMaxWorkerExecuteTimeUnit());
+    assertFalse(options.isUseVirtualThreads());
+    assertEquals(options, options.setUseVirtualThreads(true));
+    assertTrue(options.isUseVirtualThreads());
   }
 
   @Test
@@ -109,6 +112,7 @@ public class DeploymentTest extends VertxTestBase {
     options.setWorkerPoolSize(poolSize);
     options.setMaxWorkerExecuteTime(maxWorkerExecuteTime);
     options.setMaxWorkerExecuteTimeUnit(maxWorkerExecuteTimeUnit);
+    options.setUseVirtualThreads(true);
     DeploymentOptions copy = new DeploymentOptions(options);
     assertEquals(worker, copy.isWorker());
     assertEquals(isolationGroup, copy.getIsolationGroup());
@@ -123,6 +127,15 @@ public class DeploymentTest extends VertxTestBase {
     assertEquals(poolSize, copy.getWorkerPoolSize());
     assertEquals(maxWorkerExecuteTime, copy.getMaxWorkerExecuteTime());
     assertEquals(maxWorkerExecuteTimeUnit, copy.getMaxWorkerExecuteTimeUnit());
+    assertTrue(copy.isUseVirtualThreads());
+  }
+
+  @Test
+  public void testEqualsUseVirtualThreads() {
+    DeploymentOptions options = new DeploymentOptions();
+    assertEquals(options, new DeploymentOptions());
+    assertFalse(options.equals(new DeploymentOptions().setUseVirtualThreads(true)));
+    assertEquals(new DeploymentOptions().setUseVirtualThreads(true), new DeploymentOptions().setUseVirtualThreads(true));
   }
 
   @Test
@@ -139,6 +152,7 @@ public class DeploymentTest extends VertxTestBase {
     assertEquals(def.getWorkerPoolSize(), json.getWorkerPoolSize());
     assertEquals(def.getMaxWorkerExecuteTime(), json.getMaxWorkerExecuteTime());
     assertEquals(def.getMaxWorkerExecuteTimeUnit(), json.getMaxWorkerExecuteTimeUnit());
+    assertEquals(def.isUseVirtualThreads(), json.isUseVirtualThreads());
   }
 
   @Test
@@ -15,6 +15,9 @@ import io.vertx.test.core.VertxTestBase;
 import org.junit.Test;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -161,4 +164,39 @@ public class ExecuteBlockingTest extends VertxTestBase {
     long leeway = 1000;
     assertTrue(now - start < pause + leeway);
   }
+
+  @Test
+  public void testExecuteBlockingWorkStealingPool() throws Exception {
+    Vertx vertx = vertx(new VertxOptions().setWorkStealingWorkerPool(true).setWorkerPoolSize(4));
+    int numExecBlocking = 4;
+    int numOrdered = 100;
+    CountDownLatch latch = new CountDownLatch(numExecBlocking + numOrdered);
+    CyclicBarrier barrier = new CyclicBarrier(numExecBlocking);
+    AtomicInteger order = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      Context ctx = vertx.getOrCreateContext();
+      for (int i = 0; i < numExecBlocking; i++) {
+        vertx.executeBlocking(future -> {
+          assertSame(ctx, vertx.getOrCreateContext());
+          assertTrue(Thread.currentThread().getName().startsWith("vert.x-worker-thread"));
+          assertTrue(Context.isOnWorkerThread());
+          try {
+            // All the tasks must run concurrently
+            barrier.await(10, TimeUnit.SECONDS);
+          } catch (Exception e) {
+            fail(e);
+          }
+          future.complete();
+        }, false, onSuccess(res -> latch.countDown()));
+      }
+      for (int i = 0; i < numOrdered; i++) {
+        int val = i;
+        vertx.executeBlocking(future -> {
+          assertEquals(val, order.getAndIncrement());
+          future.complete();
+        }, true, onSuccess(res -> latch.countDown()));
+      }
+    });
+    awaitLatch(latch);
+  }
 }
@@ -21,9 +21,11 @@ import io.vertx.core.impl.VertxThread;
 import io.vertx.test.core.BlockedThreadWarning;
 import io.vertx.test.core.TestUtils;
 import io.vertx.test.core.VertxTestBase;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -32,6 +34,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.concurrent.TimeUnit.*;
@@ -134,6 +137,121 @@ public class NamedWorkerPoolTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testVirtualWorkerExecutor() {
+    String poolName = "vert.x-" + TestUtils.randomAlphaString(10);
+    WorkerExecutor worker = vertx.createSharedVirtualWorkerExecutor(poolName);
+    int num = 100;
+    AtomicInteger order = new AtomicInteger();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      for (int i = 0;i < num;i++) {
+        int val = i;
+        boolean last = i == num - 1;
+        worker.executeBlocking(fut -> {
+          assertSame(ctx, Vertx.currentContext());
+          assertTrue(Context.isOnVertxThread());
+          assertTrue(Context.isOnWorkerThread());
+          assertFalse(Context.isOnEventLoopThread());
+          assertTrue(Thread.currentThread().getName().startsWith(poolName + "-"));
+          assertEquals(val, order.getAndIncrement());
+          fut.complete(null);
+        }, ar -> {
+          assertSame(ctx, Vertx.currentContext());
+          if (last) {
+            testComplete();
+          }
+        });
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testDeployUsingVirtualThreads() throws Exception {
+    String poolName = "vert.x-" + TestUtils.randomAlphaString(10);
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start(Future<Void> startFuture) throws Exception {
+        vertx.executeBlocking(fut -> {
+          assertSame(context, Vertx.currentContext());
+          assertTrue(Context.isOnWorkerThread());
+          assertTrue(Thread.currentThread().getName().startsWith(poolName + "-"));
+          fut.complete();
+        }, startFuture);
+      }
+    }, new DeploymentOptions().setWorkerPoolName(poolName).setUseVirtualThreads(true), onSuccess(v -> {
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testVirtualWorkerExecutorUsesVirtualThreads() throws Exception {
+    Method isVirtual = virtualThreadsSupport();
+    Assume.assumeTrue("Virtual threads are not available", isVirtual != null);
+    String poolName = "vert.x-" + TestUtils.randomAlphaString(10);
+    WorkerExecutor worker = vertx.createSharedVirtualWorkerExecutor(poolName);
+    int num = 100;
+    // Blocking tasks that all wait on the same latch, more than the number of carrier threads
+    CountDownLatch latch = new CountDownLatch(num);
+    AtomicInteger completed = new AtomicInteger();
+    for (int i = 0;i < num;i++) {
+      worker.executeBlocking(fut -> {
+        try {
+          assertTrue((Boolean) isVirtual.invoke(Thread.currentThread()));
+          assertTrue(Context.isOnWorkerThread());
+          latch.countDown();
+          assertTrue(latch.await(20, TimeUnit.SECONDS));
+          fut.complete();
+        } catch (Exception e) {
+          fut.fail(e);
+        }
+      }, false, onSuccess(v -> {
+        if (completed.incrementAndGet() == num) {
+          testComplete();
+        }
+      }));
+    }
+    await();
+  }
+
+  @Test
+  public void testDeployUsingVirtualThreadsRunsOnVirtualThreads() throws Exception {
+    Method isVirtual = virtualThreadsSupport();
+    Assume.assumeTrue("Virtual threads are not available", isVirtual != null);
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start(Future<Void> startFuture) throws Exception {
+        vertx.executeBlocking(fut -> {
+          try {
+            assertTrue((Boolean) isVirtual.invoke(Thread.currentThread()));
+            assertSame(context, Vertx.currentContext());
+            fut.complete();
+          } catch (Exception e) {
+            fut.fail(e);
+          }
+        }, startFuture);
+      }
+    }, new DeploymentOptions().setUseVirtualThreads(true), onSuccess(v -> {
+      testComplete();
+    }));
+    await();
+  }
+
+  /**
+   * @return the {@code Thread#isVirtual} method when the JVM runs virtual threads, otherwise {@code null}
+   */
+  private static Method virtualThreadsSupport() {
+    try {
+      // Virtual threads might be a preview feature that is not enabled
+      Thread.class.getMethod("ofVirtual").invoke(null);
+      return Thread.class.getMethod("isVirtual");
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
   @Test
   public void testUnordered() throws Exception {
     String poolName = "vert.x-" + TestUtils.randomAlphaString(10);
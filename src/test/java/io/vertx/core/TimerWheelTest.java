@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimerWheelTest extends TimerTest {
+
+  @Override
+  protected VertxOptions getOptions() {
+    return super.getOptions().setTimerWheel(true);
+  }
+
+  @Test
+  public void testCancelManyTimers() {
+    int num = 10000;
+    Set<Long> cancelled = new HashSet<>();
+    AtomicInteger fired = new AtomicInteger();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      Set<Long> ids = new HashSet<>();
+      for (int i = 0;i < num;i++) {
+        long id = vertx.setTimer(1 + i % 1000, timerID -> {
+          assertFalse(cancelled.contains(timerID));
+          if (fired.incrementAndGet() == num / 2) {
+            testComplete();
+          }
+        });
+        assertTrue(ids.add(id));
+        if (i % 2 == 0) {
+          cancelled.add(id);
+        }
+      }
+      cancelled.forEach(id -> {
+        assertTrue(vertx.cancelTimer(id));
+        assertFalse(vertx.cancelTimer(id));
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testCancelTimerFromAnotherThread() throws Exception {
+    long id = vertx.setTimer(500, timerID -> fail());
+    Thread thread = new Thread(() -> {
+      assertTrue(vertx.cancelTimer(id));
+      vertx.setTimer(600, timerID -> testComplete());
+    });
+    thread.start();
+    thread.join();
+    await();
+  }
+
+  @Test
+  public void testTimerIdFromAnotherThread() throws Exception {
+    int num = 1000;
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    Set<Long> fired = ConcurrentHashMap.newKeySet();
+    CountDownLatch latch = new CountDownLatch(num);
+    for (int i = 0;i < num;i++) {
+      // Timers fire on the event loop, possibly before setTimer returns
+      ids.add(vertx.setTimer(1, timerID -> {
+        fired.add(timerID);
+        latch.countDown();
+      }));
+    }
+    awaitLatch(latch);
+    assertEquals(ids, fired);
+  }
+
+  @Test
+  public void testCancelUnknownTimer() {
+    // The number of wheels is not a power of two, some ids encode the index of a wheel that does not exist
+    Vertx vertx = vertx(getOptions().setEventLoopPoolSize(3));
+    assertFalse(vertx.cancelTimer(-1));
+    assertFalse(vertx.cancelTimer(3));
+    assertFalse(vertx.cancelTimer(Long.MAX_VALUE));
+    for (long id = 0;id < 64;id++) {
+      assertFalse(vertx.cancelTimer(id));
+    }
+  }
+}
@@ -12,6 +12,7 @@
 package io.vertx.core;
 
 import io.vertx.core.file.FileSystemOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.metrics.MetricsOptions;
 import io.vertx.core.spi.cluster.ClusterManager;
@@ -20,6 +21,9 @@ import io.vertx.test.core.VertxTestBase;
 import io.vertx.test.fakecluster.FakeClusterManager;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
@@ -205,6 +209,50 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(TimeUnit.MINUTES, options.getWarningExceptionTimeUnit());
     assertEquals(options, options.setBlockedThreadCheckIntervalUnit(TimeUnit.MILLISECONDS));
     assertEquals(TimeUnit.MILLISECONDS, options.getBlockedThreadCheckIntervalUnit());
+    assertFalse(options.isWorkStealingWorkerPool());
+    assertEquals(options, options.setWorkStealingWorkerPool(true));
+    assertTrue(options.isWorkStealingWorkerPool());
+    assertFalse(options.isTimerWheel());
+    assertEquals(options, options.setTimerWheel(true));
+    assertTrue(options.isTimerWheel());
+    assertEquals(0, options.getBlockedThreadSamplingThreshold());
+    assertEquals(options, options.setBlockedThreadSamplingThreshold(50));
+    assertEquals(50, options.getBlockedThreadSamplingThreshold());
+    try {
+      options.setBlockedThreadSamplingThreshold(101);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+    assertEquals(VertxOptions.DEFAULT_BLOCKED_THREAD_SAMPLING_INTERVAL, options.getBlockedThreadSamplingInterval());
+    assertEquals(options, options.setBlockedThreadSamplingInterval(50));
+    assertEquals(50, options.getBlockedThreadSamplingInterval());
+    try {
+      options.setBlockedThreadSamplingInterval(0);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+    assertEquals(TimeUnit.MILLISECONDS, options.getBlockedThreadSamplingIntervalUnit());
+    assertEquals(options, options.setBlockedThreadSamplingIntervalUnit(TimeUnit.MICROSECONDS));
+    assertEquals(TimeUnit.MICROSECONDS, options.getBlockedThreadSamplingIntervalUnit());
+    assertFalse(options.isEventLoopMetricsEnabled());
+    assertEquals(options, options.setEventLoopMetricsEnabled(true));
+    assertTrue(options.isEventLoopMetricsEnabled());
+    assertFalse(options.isEventLoopCpuAffinity());
+    assertEquals(options, options.setEventLoopCpuAffinity(true));
+    assertTrue(options.isEventLoopCpuAffinity());
+    assertEquals(Collections.emptyList(), options.getEventLoopCpus());
+    assertEquals(options, options.setEventLoopCpus(new ArrayList<>(Arrays.asList(0, 2))));
+    assertEquals(Arrays.asList(0, 2), options.getEventLoopCpus());
+    assertEquals(options, options.addEventLoopCpu(4));
+    assertEquals(Arrays.asList(0, 2, 4), options.getEventLoopCpus());
+    try {
+      options.addEventLoopCpu(-1);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
   }
 
   @Test
@@ -227,6 +275,13 @@ public class VertxOptionsTest extends VertxTestBase {
     boolean haEnabled = rand.nextBoolean();
     boolean fileResolverCachingEnabled = rand.nextBoolean();
     boolean metricsEnabled = rand.nextBoolean();
+    boolean workStealingWorkerPool = rand.nextBoolean();
+    boolean timerWheel = rand.nextBoolean();
+    int blockedThreadSamplingThreshold = TestUtils.randomPositiveInt() % 101;
+    long blockedThreadSamplingInterval = 1L + TestUtils.randomPositiveInt();
+    TimeUnit blockedThreadSamplingIntervalUnit = TimeUnit.MICROSECONDS;
+    boolean eventLoopMetricsEnabled = rand.nextBoolean();
+    boolean eventLoopCpuAffinity = rand.nextBoolean();
     int quorumSize = 51214;
     String haGroup = TestUtils.randomAlphaString(100);
     long warningExceptionTime = TestUtils.randomPositiveLong();
@@ -258,6 +313,14 @@ public class VertxOptionsTest extends VertxTestBase {
     options.setMaxWorkerExecuteTimeUnit(maxWorkerExecuteTimeUnit);
     options.setWarningExceptionTimeUnit(warningExceptionTimeUnit);
     options.setBlockedThreadCheckIntervalUnit(blockedThreadCheckIntervalUnit);
+    options.setWorkStealingWorkerPool(workStealingWorkerPool);
+    options.setTimerWheel(timerWheel);
+    options.setBlockedThreadSamplingThreshold(blockedThreadSamplingThreshold);
+    options.setBlockedThreadSamplingInterval(blockedThreadSamplingInterval);
+    options.setBlockedThreadSamplingIntervalUnit(blockedThreadSamplingIntervalUnit);
+    options.setEventLoopMetricsEnabled(eventLoopMetricsEnabled);
+    options.setEventLoopCpuAffinity(eventLoopCpuAffinity);
+    options.setEventLoopCpus(new ArrayList<>(Arrays.asList(1, 3)));
 
     options = new VertxOptions(options);
     assertEquals(clusterPort, options.getClusterPort());
@@ -284,6 +347,14 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(maxWorkerExecuteTimeUnit, options.getMaxWorkerExecuteTimeUnit());
     assertEquals(warningExceptionTimeUnit, options.getWarningExceptionTimeUnit());
     assertEquals(blockedThreadCheckIntervalUnit, options.getBlockedThreadCheckIntervalUnit());
+    assertEquals(workStealingWorkerPool, options.isWorkStealingWorkerPool());
+    assertEquals(timerWheel, options.isTimerWheel());
+    assertEquals(blockedThreadSamplingThreshold, options.getBlockedThreadSamplingThreshold());
+    assertEquals(blockedThreadSamplingInterval, options.getBlockedThreadSamplingInterval());
+    assertEquals(blockedThreadSamplingIntervalUnit, options.getBlockedThreadSamplingIntervalUnit());
+    assertEquals(eventLoopMetricsEnabled, options.isEventLoopMetricsEnabled());
+    assertEquals(eventLoopCpuAffinity, options.isEventLoopCpuAffinity());
+    assertEquals(Arrays.asList(1, 3), options.getEventLoopCpus());
   }
 
   @Test
@@ -311,6 +382,14 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(def.getMaxWorkerExecuteTimeUnit(), json.getMaxWorkerExecuteTimeUnit());
     assertEquals(def.getWarningExceptionTimeUnit(), json.getWarningExceptionTimeUnit());
     assertEquals(def.getBlockedThreadCheckIntervalUnit(), json.getBlockedThreadCheckIntervalUnit());
+    assertEquals(def.isWorkStealingWorkerPool(), json.isWorkStealingWorkerPool());
+    assertEquals(def.isTimerWheel(), json.isTimerWheel());
+    assertEquals(def.getBlockedThreadSamplingThreshold(), json.getBlockedThreadSamplingThreshold());
+    assertEquals(def.getBlockedThreadSamplingInterval(), json.getBlockedThreadSamplingInterval());
+    assertEquals(def.getBlockedThreadSamplingIntervalUnit(), json.getBlockedThreadSamplingIntervalUnit());
+    assertEquals(def.isEventLoopMetricsEnabled(), json.isEventLoopMetricsEnabled());
+    assertEquals(def.isEventLoopCpuAffinity(), json.isEventLoopCpuAffinity());
+    assertEquals(def.getEventLoopCpus(), json.getEventLoopCpus());
   }
 
   @Test
@@ -339,6 +418,13 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(TimeUnit.NANOSECONDS, options.getMaxWorkerExecuteTimeUnit());
     assertEquals(TimeUnit.NANOSECONDS, options.getWarningExceptionTimeUnit());
     assertEquals(TimeUnit.MILLISECONDS, options.getBlockedThreadCheckIntervalUnit());
+    assertFalse(options.isWorkStealingWorkerPool());
+    assertFalse(options.isTimerWheel());
+    assertEquals(0, options.getBlockedThreadSamplingThreshold());
+    assertEquals(VertxOptions.DEFAULT_BLOCKED_THREAD_SAMPLING_INTERVAL, options.getBlockedThreadSamplingInterval());
+    assertEquals(TimeUnit.MILLISECONDS, options.getBlockedThreadSamplingIntervalUnit());
+    assertFalse(options.isEventLoopMetricsEnabled());
+    assertFalse(options.isEventLoopCpuAffinity());
     int clusterPort = TestUtils.randomPortInt();
     int clusterPublicPort = TestUtils.randomPortInt();
     int eventLoopPoolSize = TestUtils.randomPositiveInt();
@@ -361,6 +447,13 @@ public class VertxOptionsTest extends VertxTestBase {
     boolean classPathResolvingEnabled = rand.nextBoolean();
     boolean metricsEnabled = rand.nextBoolean();
     boolean jmxEnabled = rand.nextBoolean();
+    boolean workStealingWorkerPool = rand.nextBoolean();
+    boolean timerWheel = rand.nextBoolean();
+    int blockedThreadSamplingThreshold = TestUtils.randomPositiveInt() % 101;
+    long blockedThreadSamplingInterval = 1L + TestUtils.randomPositiveInt();
+    TimeUnit blockedThreadSamplingIntervalUnit = TimeUnit.MICROSECONDS;
+    boolean eventLoopMetricsEnabled = rand.nextBoolean();
+    boolean eventLoopCpuAffinity = rand.nextBoolean();
     String jmxDomain = TestUtils.randomAlphaString(100);
     TimeUnit maxEventLoopExecuteTimeUnit = TimeUnit.SECONDS;
     TimeUnit maxWorkerExecuteTimeUnit = TimeUnit.MILLISECONDS;
@@ -395,7 +488,15 @@ public class VertxOptionsTest extends VertxTestBase {
         put("maxEventLoopExecuteTimeUnit", maxEventLoopExecuteTimeUnit).
         put("maxWorkerExecuteTimeUnit", maxWorkerExecuteTimeUnit).
         put("warningExceptionTimeUnit", warningExceptionTimeUnit).
-        put("blockedThreadCheckIntervalUnit", blockedThreadCheckIntervalUnit)
+        put("blockedThreadCheckIntervalUnit", blockedThreadCheckIntervalUnit).
+        put("workStealingWorkerPool", workStealingWorkerPool).
+        put("timerWheel", timerWheel).
+        put("blockedThreadSamplingThreshold", blockedThreadSamplingThreshold).
+        put("blockedThreadSamplingInterval", blockedThreadSamplingInterval).
+        put("blockedThreadSamplingIntervalUnit", blockedThreadSamplingIntervalUnit).
+        put("eventLoopMetricsEnabled", eventLoopMetricsEnabled).
+        put("eventLoopCpuAffinity", eventLoopCpuAffinity).
+        put("eventLoopCpus", new JsonArray().add(1).add(3))
     );
     assertEquals(clusterPort, options.getClusterPort());
     assertEquals(clusterPublicPort, options.getClusterPublicPort());
@@ -424,6 +525,14 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(maxWorkerExecuteTimeUnit, options.getMaxWorkerExecuteTimeUnit());
     assertEquals(warningExceptionTimeUnit, options.getWarningExceptionTimeUnit());
     assertEquals(blockedThreadCheckIntervalUnit, options.getBlockedThreadCheckIntervalUnit());
+    assertEquals(workStealingWorkerPool, options.isWorkStealingWorkerPool());
+    assertEquals(timerWheel, options.isTimerWheel());
+    assertEquals(blockedThreadSamplingThreshold, options.getBlockedThreadSamplingThreshold());
+    assertEquals(blockedThreadSamplingInterval, options.getBlockedThreadSamplingInterval());
+    assertEquals(blockedThreadSamplingIntervalUnit, options.getBlockedThreadSamplingIntervalUnit());
+    assertEquals(eventLoopMetricsEnabled, options.isEventLoopMetricsEnabled());
+    assertEquals(eventLoopCpuAffinity, options.isEventLoopCpuAffinity());
+    assertEquals(Arrays.asList(1, 3), options.getEventLoopCpus());
   }
 
   @Test
@@ -100,4 +100,15 @@ public class VertxTest extends AsyncTestBase {
     });
     await();
   }
+
+  @Test
+  public void testEventLoopCpuNotAllowed() {
+    // The process cannot run on this CPU
+    VertxOptions options = new VertxOptions().setEventLoopCpuAffinity(true).addEventLoopCpu(Integer.MAX_VALUE);
+    try {
+      Vertx.vertx(options);
+      fail();
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
 }
@@ -11,13 +11,23 @@
 
 package io.vertx.core.eventbus;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.impl.CodecManager;
+import io.vertx.core.eventbus.impl.clustered.ClusteredMessage;
+import io.vertx.core.eventbus.impl.codecs.ReplyExceptionMessageCodec;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.impl.ServerID;
 import io.vertx.test.core.TestUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -144,6 +154,76 @@ public class ClusteredEventBusTest extends ClusteredEventBusTestBase {
     await();
   }
 
+  @Test
+  public void testSendBatch() throws Exception {
+    startNodes(2);
+    MessageCodec codec = new MyPOJOEncoder1();
+    vertices[0].eventBus().registerCodec(codec);
+    vertices[1].eventBus().registerCodec(codec);
+    List<List<Object>> received = new ArrayList<>();
+    MessageConsumer<Object> reg = vertices[0].eventBus().<Object>consumer(ADDRESS1).batchHandler(batch -> {
+      received.add(new ArrayList<>(batch));
+      if (received.size() == 2) {
+        assertEquals(Arrays.asList("foo", 4, null, new JsonObject().put("foo", "bar")), received.get(0));
+        assertEquals(Arrays.asList("bar", "juu"), received.get(1));
+        testComplete();
+      }
+    });
+    reg.completionHandler(ar -> {
+      assertTrue(ar.succeeded());
+      EventBus eb = vertices[1].eventBus();
+      eb.sendBatch(ADDRESS1, Arrays.asList("foo", 4, null, new JsonObject().put("foo", "bar")));
+      eb.sendBatch(ADDRESS1, Arrays.asList(new MyPOJO("bar"), new MyPOJO("juu")), new DeliveryOptions().setCodecName(codec.name()));
+    });
+    await();
+  }
+
+  @Test
+  public void testOverflowReplyFailureWireFormat() {
+    ReplyExceptionMessageCodec codec = new ReplyExceptionMessageCodec();
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, new ReplyException(ReplyFailure.OVERFLOW, "full"));
+    // Nodes that do not know OVERFLOW decode a RECIPIENT_FAILURE
+    assertEquals(ReplyFailure.RECIPIENT_FAILURE.toInt(), buffer.getByte(0));
+    ReplyException decoded = codec.decodeFromWire(0, buffer);
+    assertEquals(ReplyFailure.OVERFLOW, decoded.failureType());
+    assertEquals("full", decoded.getMessage());
+    // User failure codes are not decoded as an OVERFLOW
+    buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, new ReplyException(ReplyFailure.RECIPIENT_FAILURE, Integer.MIN_VALUE, "failed"));
+    decoded = codec.decodeFromWire(0, buffer);
+    assertEquals(ReplyFailure.RECIPIENT_FAILURE, decoded.failureType());
+    assertEquals(Integer.MIN_VALUE, decoded.failureCode());
+    buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, new ReplyException(ReplyFailure.RECIPIENT_FAILURE, Integer.MIN_VALUE, null));
+    decoded = codec.decodeFromWire(0, buffer);
+    assertEquals(ReplyFailure.RECIPIENT_FAILURE, decoded.failureType());
+    assertNull(decoded.getMessage());
+  }
+
+  @Test
+  public void testOverflowPolicyFailSender() throws Exception {
+    startNodes(2);
+    MessageConsumer<String> consumer = vertices[0].eventBus().<String>consumer(ADDRESS1)
+      .setMaxBufferedMessages(1)
+      .setOverflowPolicy(OverflowPolicy.FAIL_SENDER);
+    consumer.handler(msg -> msg.reply("pong"));
+    consumer.pause();
+    consumer.completionHandler(onSuccess(v -> {
+      EventBus eb = vertices[1].eventBus();
+      eb.send(ADDRESS1, "first", onSuccess(reply -> {
+        assertEquals("pong", reply.body());
+        testComplete();
+      }));
+      eb.send(ADDRESS1, "second", onFailure(err -> {
+        assertTrue(err instanceof ReplyException);
+        assertEquals(ReplyFailure.OVERFLOW, ((ReplyException) err).failureType());
+        consumer.resume();
+      }));
+    }));
+    await();
+  }
+
   // Make sure ping/pong works ok
   @Test
   public void testClusteredPong() throws Exception {
@@ -330,4 +410,214 @@ public class ClusteredEventBusTest extends ClusteredEventBusTestBase {
     }));
     await();
   }
+
+  @Test
+  public void testSubscriptionCacheRemovedBySubscription() {
+    startNodes(2, new VertxOptions().setEventBusOptions(new EventBusOptions().setSubscriptionCacheMaxAge(60_000)));
+    AtomicInteger received0 = new AtomicInteger();
+    AtomicInteger received1 = new AtomicInteger();
+    vertices[1].eventBus().consumer(ADDRESS1, msg -> {
+      if (received1.incrementAndGet() == 1) {
+        // The subscription of node 1 is cached by node 0
+        vertices[0].eventBus().consumer(ADDRESS1, msg2 -> received0.incrementAndGet()).completionHandler(onSuccess(v -> {
+          for (int i = 0;i < 10;i++) {
+            vertices[0].eventBus().send(ADDRESS1, "msg");
+          }
+        }));
+      }
+    }).completionHandler(onSuccess(v -> {
+      vertices[0].eventBus().send(ADDRESS1, "msg");
+    }));
+    waitUntil(() -> received0.get() + received1.get() == 11);
+    assertTrue(received0.get() > 0);
+    assertTrue(received1.get() > 1);
+  }
+
+  @Test
+  public void testSubscriptionCacheMaxAge() {
+    startNodes(3, new VertxOptions().setEventBusOptions(new EventBusOptions().setSubscriptionCacheMaxAge(1000)));
+    AtomicInteger received1 = new AtomicInteger();
+    AtomicInteger received2 = new AtomicInteger();
+    vertices[1].eventBus().consumer(ADDRESS1, msg -> {
+      if (received1.incrementAndGet() == 1) {
+        vertices[2].eventBus().consumer(ADDRESS1, msg2 -> received2.incrementAndGet()).completionHandler(onSuccess(v -> {
+          // The subscription of node 2 is not seen until the cached subscriptions expire
+          for (int i = 0;i < 10;i++) {
+            vertices[0].eventBus().send(ADDRESS1, "msg");
+          }
+        }));
+      }
+    }).completionHandler(onSuccess(v -> {
+      vertices[0].eventBus().send(ADDRESS1, "msg");
+    }));
+    waitUntil(() -> received1.get() == 11);
+    assertEquals(0, received2.get());
+    vertices[0].setTimer(1100, id -> {
+      for (int i = 0;i < 10;i++) {
+        vertices[0].eventBus().send(ADDRESS1, "msg");
+      }
+    });
+    waitUntil(() -> received1.get() + received2.get() == 21);
+    assertTrue(received2.get() > 0);
+  }
+
+  @Test
+  public void testWriteCoalescing() {
+    testWriteCoalescing(EventBusOptions.DEFAULT_WRITE_COALESCING_MAX_BYTES);
+  }
+
+  @Test
+  public void testWriteCoalescingMaxBytes() {
+    // Less than a message
+    testWriteCoalescing(10);
+  }
+
+  private void testWriteCoalescing(int maxBytes) {
+    startNodes(2, new VertxOptions().setEventBusOptions(new EventBusOptions().setWriteCoalescing(true).setWriteCoalescingMaxBytes(maxBytes)));
+    int num = 1000;
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().<Integer>consumer(ADDRESS1, msg -> {
+      assertEquals(received.getAndIncrement(), (int) msg.body());
+      if (received.get() == num) {
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> {
+      vertices[0].runOnContext(v2 -> {
+        for (int i = 0;i < num;i++) {
+          vertices[0].eventBus().send(ADDRESS1, i);
+        }
+      });
+    }));
+    await();
+  }
+
+  @Test
+  public void testClusterConnections() {
+    startNodes(2, new VertxOptions().setEventBusOptions(new EventBusOptions().setClusterConnections(4)));
+    int numAddresses = 8;
+    int num = 100;
+    AtomicInteger received = new AtomicInteger();
+    AtomicInteger registered = new AtomicInteger();
+    for (int i = 0;i < numAddresses;i++) {
+      String address = ADDRESS1 + i;
+      AtomicInteger count = new AtomicInteger();
+      vertices[1].eventBus().<Integer>consumer(address, msg -> {
+        // Messages sent to an address keep their order
+        assertEquals(count.getAndIncrement(), (int) msg.body());
+        msg.reply(msg.body());
+      }).completionHandler(onSuccess(v -> {
+        if (registered.incrementAndGet() == numAddresses) {
+          vertices[0].runOnContext(v2 -> {
+            for (int j = 0;j < num;j++) {
+              for (int k = 0;k < numAddresses;k++) {
+                vertices[0].eventBus().send(ADDRESS1 + k, j, onSuccess(reply -> {
+                  if (received.incrementAndGet() == numAddresses * num) {
+                    testComplete();
+                  }
+                }));
+              }
+            }
+          });
+        }
+      }));
+    }
+    await();
+  }
+
+  @Test
+  public void testCompression() {
+    startNodes(2, new VertxOptions().setEventBusOptions(new EventBusOptions().setCompressionThreshold(256)));
+    JsonObject large = new JsonObject();
+    for (int i = 0;i < 100;i++) {
+      large.put("key" + i, "value" + i);
+    }
+    String random = TestUtils.randomAlphaString(1000);
+    List<Object> bodies = Arrays.asList("small", large, random, large.copy().put("last", true));
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().consumer(ADDRESS1, msg -> {
+      assertEquals(bodies.get(received.getAndIncrement()), msg.body());
+      assertEquals("bar", msg.headers().get("foo"));
+      msg.reply(msg.body());
+    }).completionHandler(onSuccess(v -> {
+      AtomicInteger replies = new AtomicInteger();
+      for (int i = 0;i < bodies.size();i++) {
+        Object body = bodies.get(i);
+        vertices[0].eventBus().send(ADDRESS1, body, new DeliveryOptions().addHeader("foo", "bar"), onSuccess(reply -> {
+          assertEquals(body, reply.body());
+          if (replies.incrementAndGet() == bodies.size()) {
+            testComplete();
+          }
+        }));
+      }
+    }));
+    await();
+  }
+
+  @Test
+  public void testCloseReleasesClusterConnectionsServers() throws Exception {
+    int port;
+    try (java.net.ServerSocket socket = new java.net.ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    VertxOptions options = new VertxOptions()
+      .setEventBusOptions(new EventBusOptions().setClusterConnections(4))
+      .setClusterHost("localhost")
+      .setClusterPort(port)
+      .setClustered(true)
+      .setClusterManager(getClusterManager());
+    clusteredVertx(options, onSuccess(node -> {
+      node.close(onSuccess(v -> {
+        // The servers sharing the port are closed when the close completes
+        try (java.net.ServerSocket socket = new java.net.ServerSocket(port)) {
+          testComplete();
+        } catch (Exception e) {
+          fail(e);
+        }
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testWireFrameBufferIsOnHeap() {
+    CodecManager codecManager = new CodecManager();
+    ClusteredMessage<String, String> message = new ClusteredMessage<>(new ServerID(1234, "localhost"), ADDRESS1, null,
+      null, "ping", codecManager.lookupCodec("ping", null), true, null);
+    Buffer frame = message.encodeToWire();
+    // The buffer is never released, it must be reclaimed by the garbage collector
+    assertFalse(frame.getByteBuf().isDirect());
+    assertEquals(frame.length() - 4, frame.getInt(0));
+  }
+
+  @Test
+  public void testCompressedWireFrame() {
+    CodecManager codecManager = new CodecManager();
+    JsonObject body = new JsonObject();
+    for (int i = 0;i < 100;i++) {
+      body.put("key" + i, "value" + i);
+    }
+    ServerID sender = new ServerID(1234, "localhost");
+    ClusteredMessage<JsonObject, JsonObject> message = new ClusteredMessage<>(sender, ADDRESS1, "reply", null, body,
+      codecManager.lookupCodec(body, null), false, null);
+    ByteBuf plain = message.encodeToWire(UnpooledByteBufAllocator.DEFAULT, null, null);
+    ClusteredMessage.BodyCompressor compressor = new ClusteredMessage.BodyCompressor(256);
+    ByteBuf compressed = message.encodeToWire(UnpooledByteBufAllocator.DEFAULT, null, compressor);
+    compressor.close();
+    assertTrue(compressed.readableBytes() < plain.readableBytes());
+    assertEquals(compressed.readableBytes() - 4, compressed.getInt(0));
+    ClusteredMessage<JsonObject, JsonObject> received = new ClusteredMessage<>();
+    received.readFromWire(Buffer.buffer(compressed.slice(4, compressed.readableBytes() - 4)), codecManager);
+    assertFalse(received.isSend());
+    assertEquals(ADDRESS1, received.address());
+    assertEquals("reply", received.replyAddress());
+    assertEquals(body, received.body());
+    // The decompressor of a connection inflates the bodies of the messages it reads
+    ClusteredMessage.BodyDecompressor decompressor = new ClusteredMessage.BodyDecompressor();
+    for (int i = 0;i < 3;i++) {
+      received = new ClusteredMessage<>();
+      received.readFromWire(Buffer.buffer(compressed.slice(4, compressed.readableBytes() - 4)), codecManager, null, decompressor);
+      assertEquals(body, received.copyBeforeReceive().body());
+    }
+    decompressor.close();
+  }
 }
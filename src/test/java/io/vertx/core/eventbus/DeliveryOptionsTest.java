@@ -25,12 +25,16 @@ public class DeliveryOptionsTest {
   public void toJson() throws Exception {
     JsonObject defaultJson = new JsonObject()
       .put("timeout", DeliveryOptions.DEFAULT_TIMEOUT)
-      .put("localOnly", DeliveryOptions.DEFAULT_LOCAL_ONLY);
+      .put("localOnly", DeliveryOptions.DEFAULT_LOCAL_ONLY)
+      .put("inlineDelivery", DeliveryOptions.DEFAULT_INLINE_DELIVERY)
+      .put("immutableBody", DeliveryOptions.DEFAULT_IMMUTABLE_BODY);
     assertEquals(defaultJson, new DeliveryOptions().toJson());
 
     JsonObject fullJson = new JsonObject()
       .put("timeout", 15000)
       .put("localOnly", true)
+      .put("inlineDelivery", true)
+      .put("immutableBody", true)
       .put("codecName", "pimpo")
       .put("headers", new JsonObject().put("marseille", "om").put("lyon", "ol").put("amsterdam", "ajax"));
 
@@ -38,6 +42,8 @@ public class DeliveryOptionsTest {
       new DeliveryOptions()
         .setSendTimeout(15000)
         .setLocalOnly(true)
+        .setInlineDelivery(true)
+        .setImmutableBody(true)
         .setCodecName("pimpo")
         .addHeader("marseille", "om").addHeader("lyon", "ol").addHeader("amsterdam", "ajax")
         .toJson());
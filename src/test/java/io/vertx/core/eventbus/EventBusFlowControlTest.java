@@ -20,7 +20,10 @@ import io.vertx.core.eventbus.MessageProducer;
 import io.vertx.test.core.VertxTestBase;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -80,6 +83,47 @@ public class EventBusFlowControlTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testFlowControlWriteBatch() {
+    MessageProducer<String> prod = eb.sender("some-address");
+    int numBatches = 1000;
+    int wqms = 2000;
+    prod.setWriteQueueMaxSize(wqms);
+
+    MessageConsumer<String> consumer = eb.consumer("some-address");
+    AtomicInteger cnt = new AtomicInteger();
+    consumer.handler(msg -> {
+      assertEquals("message-" + (cnt.get() % 1500), msg.body());
+      int c = cnt.incrementAndGet();
+      if (c == numBatches * 1500) {
+        testComplete();
+      }
+    });
+    List<String> batch = new ArrayList<>();
+    for (int i = 0;i < 1500;i++) {
+      batch.add("message-" + i);
+    }
+    vertx.runOnContext(v -> {
+      writeBatch(prod, batch, numBatches, 0);
+    });
+    await();
+  }
+
+  private void writeBatch(MessageProducer<String> prod, List<String> batch, int numBatches, int batchNumber) {
+    while (batchNumber < numBatches) {
+      prod.writeBatch(batch);
+      if (prod.writeQueueFull()) {
+        int nextBatch = batchNumber + 1;
+        prod.drainHandler(v -> {
+          writeBatch(prod, batch, numBatches, nextBatch);
+        });
+        break;
+      } else {
+        batchNumber++;
+      }
+    }
+  }
+
   private void sendBatch(MessageProducer<String> prod, int batchSize, int numBatches, int batchNumber) {
     while (batchNumber < numBatches) {
       for (int i = 0; i < batchSize; i++) {
@@ -196,6 +240,158 @@ public class EventBusFlowControlTest extends VertxTestBase {
     assertNotNull(handlerContext.get());
   }
 
+  @Test
+  public void testRequestStream() {
+    int num = 10_000;
+    eb.<Integer>consumer("some-address", msg -> {
+      MessageProducer<String> prod = msg.replyStream();
+      writeReplies(prod, 0, msg.body());
+    });
+    AtomicInteger cnt = new AtomicInteger();
+    MessageConsumer<String> replies = eb.requestStream("some-address", num);
+    replies.endHandler(v -> {
+      assertEquals(num, cnt.get());
+      assertFalse(replies.isRegistered());
+      testComplete();
+    });
+    replies.handler(msg -> {
+      assertEquals("reply-" + cnt.getAndIncrement(), msg.body());
+    });
+    await();
+  }
+
+  private void writeReplies(MessageProducer<String> prod, int from, int num) {
+    while (from < num) {
+      prod.write("reply-" + from++);
+      if (prod.writeQueueFull()) {
+        int next = from;
+        prod.drainHandler(v -> writeReplies(prod, next, num));
+        return;
+      }
+    }
+    prod.end();
+  }
+
+  @Test
+  public void testRequestStreamPauseConsumer() {
+    int wqms = 10;
+    AtomicReference<MessageProducer<String>> producer = new AtomicReference<>();
+    eb.<Integer>consumer("some-address", msg -> {
+      MessageProducer<String> prod = msg.replyStream();
+      prod.setWriteQueueMaxSize(wqms);
+      producer.set(prod);
+      int count = 0;
+      while (!prod.writeQueueFull()) {
+        prod.write("reply-" + count++);
+      }
+      // More than the write queue max size
+      prod.write("reply-" + count);
+      prod.end();
+    });
+    List<String> received = new ArrayList<>();
+    MessageConsumer<String> replies = eb.requestStream("some-address", null);
+    replies.pause();
+    replies.endHandler(v -> {
+      assertEquals(wqms + 1, received.size());
+      for (int i = 0;i <= wqms;i++) {
+        assertEquals("reply-" + i, received.get(i));
+      }
+      testComplete();
+    });
+    replies.handler(msg -> received.add(msg.body()));
+    waitUntil(() -> producer.get() != null);
+    vertx.setTimer(100, id -> {
+      // No reply delivered and no credit sent back
+      assertTrue(received.isEmpty());
+      assertTrue(producer.get().writeQueueFull());
+      replies.resume();
+    });
+    await();
+  }
+
+  @Test
+  public void testRequestStreamFailure() {
+    eb.consumer("some-address", msg -> {
+      MessageProducer<String> prod = msg.replyStream();
+      prod.write("reply");
+      msg.fail(3, "failed");
+    });
+    AtomicInteger cnt = new AtomicInteger();
+    MessageConsumer<String> replies = eb.requestStream("some-address", null);
+    replies.endHandler(v -> fail());
+    replies.exceptionHandler(err -> {
+      assertEquals(1, cnt.get());
+      assertEquals(ReplyFailure.RECIPIENT_FAILURE, ((ReplyException) err).failureType());
+      assertEquals(3, ((ReplyException) err).failureCode());
+      testComplete();
+    });
+    replies.handler(msg -> cnt.incrementAndGet());
+    await();
+  }
+
+  @Test
+  public void testRequestStreamNoHandlers() {
+    MessageConsumer<String> replies = eb.requestStream("some-address", null);
+    replies.exceptionHandler(err -> {
+      assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+      assertFalse(replies.isRegistered());
+      testComplete();
+    });
+    replies.handler(msg -> fail());
+    await();
+  }
+
+  @Test
+  public void testRequestStreamPlainReply() {
+    eb.consumer("some-address", msg -> msg.reply("pong"));
+    AtomicInteger cnt = new AtomicInteger();
+    MessageConsumer<String> replies = eb.requestStream("some-address", "ping");
+    replies.endHandler(v -> {
+      assertEquals(1, cnt.get());
+      testComplete();
+    });
+    replies.handler(msg -> {
+      assertEquals("pong", msg.body());
+      cnt.incrementAndGet();
+    });
+    await();
+  }
+
+  @Test
+  public void testRequestStreamTimeout() {
+    eb.consumer("some-address", msg -> {
+      // Never replies
+    });
+    MessageConsumer<String> replies = eb.requestStream("some-address", null, new DeliveryOptions().setSendTimeout(100));
+    replies.endHandler(v -> fail());
+    replies.exceptionHandler(err -> {
+      assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) err).failureType());
+      assertFalse(replies.isRegistered());
+      testComplete();
+    });
+    replies.handler(msg -> fail());
+    await();
+  }
+
+  @Test
+  public void testRequestStreamBatchHandler() {
+    eb.<Integer>consumer("some-address", msg -> {
+      MessageProducer<String> prod = msg.replyStream();
+      writeReplies(prod, 0, msg.body());
+    });
+    List<String> received = new ArrayList<>();
+    MessageConsumer<String> replies = eb.requestStream("some-address", 3);
+    replies.endHandler(v -> {
+      assertEquals(Arrays.asList("reply-0", "reply-1", "reply-2"), received);
+      testComplete();
+    });
+    replies.batchHandler(batch -> {
+      assertEquals(1, batch.size());
+      received.addAll(batch);
+    });
+    await();
+  }
+
   @Override
   public void setUp() throws Exception {
     super.setUp();
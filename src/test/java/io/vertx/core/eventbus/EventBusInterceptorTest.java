@@ -193,6 +193,33 @@ public class EventBusInterceptorTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testRemoveOutboundInterceptorDuringDelivery() {
+    AtomicInteger cnt = new AtomicInteger();
+    Handler<DeliveryContext<Object>> second = sc -> {
+      cnt.incrementAndGet();
+      sc.next();
+    };
+    Handler<DeliveryContext<Object>>[] first = new Handler[1];
+    first[0] = sc -> {
+      // The message being sent keeps the interceptors it was sent with
+      eb.removeOutboundInterceptor(first[0]);
+      eb.removeOutboundInterceptor(second);
+      sc.next();
+    };
+    eb.addOutboundInterceptor(first[0]).addOutboundInterceptor(second);
+    eb.consumer("some-address", msg -> {
+      assertEquals(1, cnt.get());
+      if (msg.body().equals("armadillo")) {
+        eb.send("some-address", "aardvark");
+      } else {
+        testComplete();
+      }
+    });
+    eb.send("some-address", "armadillo");
+    await();
+  }
+
   @Test
   public void testOutboundInterceptorOnReply() {
     AtomicInteger cnt = new AtomicInteger();
@@ -16,6 +16,7 @@ import io.vertx.core.eventbus.*;
 import io.vertx.core.eventbus.impl.HandlerRegistration;
 import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.impl.*;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.streams.Pump;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
@@ -23,8 +24,11 @@ import io.vertx.test.core.Repeat;
 import io.vertx.test.core.TestUtils;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
@@ -150,6 +154,29 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testReplyHandlerRemovedWhenSenderUndeployed() {
+    io.vertx.core.Future<Message<String>> received = io.vertx.core.Future.future();
+    eb.<String>consumer(ADDRESS1, received::complete);
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        vertx.eventBus().send(ADDRESS1, "ping", ar -> fail("Should not be called"));
+      }
+    }, onSuccess(deploymentID -> {
+      received.setHandler(onSuccess(msg -> {
+        vertx.undeploy(deploymentID, onSuccess(v -> {
+          // The reply handler has been removed with the deployment
+          msg.reply("pong", onFailure(err -> {
+            assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+            testComplete();
+          }));
+        }));
+      }));
+    }));
+    await();
+  }
+
   @Test
   public void testRegisterLocal1() {
     String str = TestUtils.randomUnicodeString(100);
@@ -325,6 +352,132 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testInlineDelivery() {
+    Context ctx = vertx.getOrCreateContext();
+    Context other = vertx.getOrCreateContext();
+    ctx.runOnContext(v1 -> {
+      AtomicInteger received = new AtomicInteger();
+      eb.<String>consumer(ADDRESS1).handler(msg -> {
+        assertSame(ctx, Vertx.currentContext());
+        received.incrementAndGet();
+      });
+      eb.send(ADDRESS1, "foo", new DeliveryOptions().setInlineDelivery(true));
+      assertEquals(1, received.get());
+      eb.send(ADDRESS1, "foo");
+      assertEquals(1, received.get());
+      // Not delivered inline while a message is scheduled for the consumer
+      eb.send(ADDRESS1, "foo", new DeliveryOptions().setInlineDelivery(true));
+      assertEquals(1, received.get());
+      // Not delivered inline on another context
+      other.runOnContext(v2 -> {
+        eb.send(ADDRESS1, "foo", new DeliveryOptions().setInlineDelivery(true));
+        ctx.runOnContext(v3 -> {
+          assertEquals(4, received.get());
+          testComplete();
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testInlineAndScheduledDeliveryOrder() {
+    int num = 100;
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v1 -> {
+      List<Integer> received = new ArrayList<>();
+      eb.<Integer>consumer(ADDRESS1).handler(msg -> {
+        received.add(msg.body());
+        if (received.size() == num) {
+          for (int i = 0;i < num;i++) {
+            assertEquals(i, received.get(i).intValue());
+          }
+          testComplete();
+        }
+      });
+      for (int i = 0;i < num;i++) {
+        // Interleave inline and scheduled deliveries to the same consumer
+        eb.send(ADDRESS1, i, new DeliveryOptions().setInlineDelivery(i % 3 != 0));
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testRoutingStrategy() {
+    Context ctxA = vertx.getOrCreateContext();
+    Context ctxB = vertx.getOrCreateContext();
+    int num = 20;
+    AtomicInteger receivedA = new AtomicInteger();
+    AtomicInteger receivedB = new AtomicInteger();
+    ctxA.runOnContext(v1 -> {
+      MessageConsumer<Integer> consumerA = eb.<Integer>consumer(ADDRESS1).handler(msg -> {
+        if (receivedA.incrementAndGet() == num) {
+          assertEquals(10, receivedB.get());
+          testComplete();
+        }
+      });
+      consumerA.pause();
+      ctxB.runOnContext(v2 -> {
+        eb.<Integer>consumer(ADDRESS1).handler(msg -> {
+          if (receivedB.incrementAndGet() == 10) {
+            ctxA.runOnContext(v -> consumerA.resume());
+          }
+        });
+        ctxA.runOnContext(v3 -> {
+          // All sent to the paused consumer of the sender context
+          eb.setRoutingStrategy(ADDRESS1, RoutingStrategy.CONTEXT_AFFINITY);
+          for (int i = 0;i < num;i++) {
+            eb.send(ADDRESS1, i);
+          }
+          ctxA.runOnContext(v4 -> {
+            assertEquals(0, receivedA.get());
+            assertEquals(0, receivedB.get());
+            // The paused consumer has a higher load than the other consumer
+            eb.setRoutingStrategy(ADDRESS1, RoutingStrategy.LEAST_PENDING);
+            for (int i = 0;i < 5;i++) {
+              eb.send(ADDRESS1, i);
+            }
+            eb.setRoutingStrategy(ADDRESS1, RoutingStrategy.POWER_OF_TWO_CHOICES);
+            for (int i = 0;i < 5;i++) {
+              eb.send(ADDRESS1, i);
+            }
+          });
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testInlineDeliveryPingPong() throws Exception {
+    vertx.close();
+    vertx = Vertx.vertx(new VertxOptions().setEventBusOptions(new EventBusOptions().setInlineDelivery(true)));
+    eb = vertx.eventBus();
+    int num = 10000;
+    vertx.runOnContext(v -> {
+      eb.<Integer>consumer(ADDRESS1).handler(msg -> msg.reply(msg.body()));
+      List<Integer> received = new ArrayList<>();
+      Handler<AsyncResult<Message<Integer>>>[] replyHandler = new Handler[1];
+      replyHandler[0] = onSuccess(reply -> {
+        received.add(reply.body());
+        if (reply.body() < num) {
+          // Sent from a reply handler called inline, delivered after the reply handler returns
+          eb.send(ADDRESS1, reply.body() + 1, replyHandler[0]);
+          assertEquals(reply.body().intValue(), received.size());
+        }
+      });
+      eb.send(ADDRESS1, 1, replyHandler[0]);
+      assertEquals(num, received.size());
+      for (int i = 0;i < num;i++) {
+        assertEquals(i + 1, received.get(i).intValue());
+      }
+      testComplete();
+    });
+    await();
+  }
+
   @Test
   public void testReplyToReply() {
     String str = TestUtils.randomUnicodeString(1000);
@@ -430,6 +583,31 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testReplyAfterTimeout() {
+    AtomicInteger calls = new AtomicInteger();
+    eb.<String>consumer(ADDRESS1).handler(msg -> {
+      vertx.setTimer(200, id -> {
+        msg.reply("late", onFailure(err -> {
+          // The reply handler was removed by the timeout
+          assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+          assertEquals(1, calls.get());
+          testComplete();
+        }));
+      });
+    });
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      eb.send(ADDRESS1, "ping", new DeliveryOptions().setSendTimeout(50), ar -> {
+        assertSame(ctx, Vertx.currentContext());
+        assertEquals(1, calls.incrementAndGet());
+        assertTrue(ar.failed());
+        assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) ar.cause()).failureType());
+      });
+    });
+    await();
+  }
+
   @Test
   public void testSendWithTimeoutNoHandlers() {
     String str = TestUtils.randomUnicodeString(1000);
@@ -586,6 +764,179 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testPublishImmutableBody() {
+    JsonObject body = new JsonObject().put("foo", "bar");
+    int num = 3;
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0;i < num;i++) {
+      eb.<JsonObject>consumer(ADDRESS1).handler(msg -> {
+        assertEquals(body, msg.body());
+        if (msg.headers().contains("immutable")) {
+          assertSame(body, msg.body());
+        } else {
+          assertNotSame(body, msg.body());
+        }
+        if (count.incrementAndGet() == 2 * num) {
+          testComplete();
+        }
+      });
+    }
+    eb.publish(ADDRESS1, body);
+    eb.publish(ADDRESS1, body, new DeliveryOptions().setImmutableBody(true).addHeader("immutable", "true"));
+    await();
+  }
+
+  @Test
+  public void testSendBatch() {
+    AtomicInteger interceptions = new AtomicInteger();
+    eb.addOutboundInterceptor(ctx -> {
+      interceptions.incrementAndGet();
+      ctx.next();
+    });
+    List<Object> received = new ArrayList<>();
+    eb.consumer(ADDRESS1, msg -> {
+      assertEquals("bar", msg.headers().get("foo"));
+      assertNull(msg.replyAddress());
+      received.add(msg.body());
+      if (received.size() == 4) {
+        assertEquals(Arrays.asList("foo", 3, null, new JsonObject().put("foo", "bar")), received);
+        assertEquals(1, interceptions.get());
+        testComplete();
+      }
+    });
+    eb.sendBatch(ADDRESS1, Arrays.asList("foo", 3, null, new JsonObject().put("foo", "bar")),
+      new DeliveryOptions().addHeader("foo", "bar"));
+    await();
+  }
+
+  @Test
+  public void testSendBatchToBatchHandler() {
+    JsonObject json = new JsonObject().put("foo", "bar");
+    List<List<Object>> received = new ArrayList<>();
+    eb.<Object>consumer(ADDRESS1).batchHandler(batch -> {
+      received.add(new ArrayList<>(batch));
+      if (received.size() == 2) {
+        assertEquals(Arrays.asList(Arrays.asList("foo", "bar", json), Collections.singletonList("juu")), received);
+        assertNotSame(json, received.get(0).get(2));
+        testComplete();
+      }
+    });
+    eb.sendBatch(ADDRESS1, Collections.emptyList());
+    eb.sendBatch(ADDRESS1, Arrays.asList("foo", "bar", json));
+    eb.send(ADDRESS1, "juu");
+    await();
+  }
+
+  @Test
+  public void testPublishBatch() {
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0;i < 2;i++) {
+      eb.<Integer>consumer(ADDRESS1).batchHandler(batch -> {
+        assertEquals(Arrays.asList(1, 2, 3), batch);
+        if (count.incrementAndGet() == 2) {
+          testComplete();
+        }
+      });
+    }
+    eb.publishBatch(ADDRESS1, Arrays.asList(1, 2, 3));
+    await();
+  }
+
+  @Test
+  public void testPatternConsumerSend() {
+    assertIllegalArgumentException(() -> eb.patternConsumer("orders.#.created"));
+    assertIllegalArgumentException(() -> eb.patternConsumer("orders#"));
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+    eb.<String>patternConsumer("orders.*.created", msg -> {
+      received.add(msg.address());
+      msg.reply("created");
+    });
+    eb.<String>patternConsumer("orders.#", msg -> {
+      received.add("#" + msg.address());
+      msg.reply("any");
+    });
+    eb.send("orders.1.created", "foo", onSuccess(reply -> {
+      assertEquals("created", reply.body());
+      eb.send("orders.1.deleted", "foo", onSuccess(reply2 -> {
+        assertEquals("any", reply2.body());
+        eb.send("customers.1.created", "foo", onFailure(err -> {
+          assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+          assertEquals(Arrays.asList("orders.1.created", "#orders.1.deleted"), received);
+          testComplete();
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testPatternConsumerSendPrecedence() {
+    eb.<String>patternConsumer("orders.*", msg -> fail());
+    eb.<String>consumer("orders.1", msg -> msg.reply("exact"));
+    eb.send("orders.1", "foo", onSuccess(reply -> {
+      assertEquals("exact", reply.body());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testPatternConsumerPublish() throws Exception {
+    Set<String> received = new ConcurrentHashSet<>();
+    CountDownLatch latch = new CountDownLatch(4);
+    BiFunction<String, CountDownLatch, Handler<Message<String>>> handler = (name, l) -> msg -> {
+      received.add(name + ":" + msg.address());
+      l.countDown();
+    };
+    eb.consumer("orders.1.created", handler.apply("exact", latch));
+    eb.patternConsumer("orders.*.created", handler.apply("one", latch));
+    eb.patternConsumer("orders.#", handler.apply("any", latch));
+    eb.patternConsumer("#", handler.apply("all", latch));
+    eb.patternConsumer("orders.*", handler.apply("none", latch));
+    eb.publish("orders.1.created", "foo");
+    awaitLatch(latch);
+    assertEquals(new HashSet<>(Arrays.asList("exact:orders.1.created", "one:orders.1.created", "any:orders.1.created",
+      "all:orders.1.created")), received);
+  }
+
+  @Test
+  public void testPatternConsumerUnregister() {
+    MessageConsumer<String> consumer = eb.patternConsumer("orders.*", msg -> msg.reply("ok"));
+    consumer.completionHandler(onSuccess(v1 -> {
+      eb.send("orders.1", "foo", onSuccess(reply -> {
+        consumer.unregister(onSuccess(v2 -> {
+          eb.send("orders.1", "foo", onFailure(err -> {
+            assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+            testComplete();
+          }));
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testPatternConsumerRegisteredAfterNoMatch() {
+    eb.patternConsumer("customers.*", msg -> fail());
+    eb.send("orders.1", "foo", onFailure(err1 -> {
+      assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err1).failureType());
+      MessageConsumer<String> consumer = eb.patternConsumer("orders.*", msg -> msg.reply("ok"));
+      consumer.completionHandler(onSuccess(v1 -> {
+        eb.send("orders.1", "foo", onSuccess(reply -> {
+          assertEquals("ok", reply.body());
+          consumer.unregister(onSuccess(v2 -> {
+            eb.send("orders.1", "foo", onFailure(err2 -> {
+              assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err2).failureType());
+              testComplete();
+            }));
+          }));
+        }));
+      }));
+    }));
+    await();
+  }
+
   @Test
   public void testPublishSameHandlerRegisteredTwice() {
     String str = TestUtils.randomUnicodeString(1000);
@@ -904,6 +1255,18 @@ public class LocalEventBusTest extends EventBusTestBase {
     assertIllegalArgumentException(() -> vertx.eventBus().send(ADDRESS1, new MyPOJO("foo")));
   }
 
+  @Test
+  public void testUnregisterDefaultDecoderAfterSend() throws Exception {
+    vertx.eventBus().registerDefaultCodec(MyPOJO.class, new MyPOJOEncoder1());
+    vertx.eventBus().send(ADDRESS1, new MyPOJO("foo"));
+    vertx.eventBus().unregisterDefaultCodec(MyPOJO.class);
+    assertIllegalArgumentException(() -> vertx.eventBus().send(ADDRESS1, new MyPOJO("foo")));
+    MessageCodec codec = new MyPOJOEncoder2();
+    vertx.eventBus().registerDefaultCodec(MyPOJO.class, codec);
+    MyPOJO pojo = new MyPOJO(TestUtils.randomAlphaString(100));
+    testSend(pojo, pojo, null, null);
+  }
+
   @Test
   public void testRegisterDefaultTwice() throws Exception {
     MessageCodec codec = new MyPOJOEncoder1();
@@ -1082,6 +1445,55 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testOverflowPolicyDropOldest() {
+    vertx.runOnContext(v1 -> {
+      List<Integer> received = new ArrayList<>();
+      MessageConsumer<Integer> consumer = eb.<Integer>consumer(ADDRESS1)
+        .setMaxBufferedMessages(5)
+        .setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+      assertEquals(OverflowPolicy.DROP_OLDEST, consumer.getOverflowPolicy());
+      consumer.handler(msg -> {
+        received.add(msg.body());
+        if (received.size() == 5) {
+          assertEquals(Arrays.asList(5, 6, 7, 8, 9), received);
+          testComplete();
+        }
+      });
+      List<Integer> discarded = new ArrayList<>();
+      ((HandlerRegistration<Integer>) consumer).discardHandler(msg -> discarded.add(msg.body()));
+      consumer.pause();
+      for (int i = 0;i < 10;i++) {
+        eb.send(ADDRESS1, i);
+      }
+      // Runs after the messages are delivered to the consumer
+      vertx.runOnContext(v2 -> {
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), discarded);
+        consumer.resume();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testOverflowPolicyFailSender() {
+    MessageConsumer<String> consumer = eb.<String>consumer(ADDRESS1)
+      .setMaxBufferedMessages(1)
+      .setOverflowPolicy(OverflowPolicy.FAIL_SENDER);
+    consumer.handler(msg -> msg.reply("pong"));
+    consumer.pause();
+    eb.send(ADDRESS1, "first", onSuccess(reply -> {
+      assertEquals("pong", reply.body());
+      testComplete();
+    }));
+    eb.send(ADDRESS1, "second", onFailure(err -> {
+      assertTrue(err instanceof ReplyException);
+      assertEquals(ReplyFailure.OVERFLOW, ((ReplyException) err).failureType());
+      consumer.resume();
+    }));
+    await();
+  }
+
   @Test
   public void testExceptionWhenDeliveringBufferedMessageWithMessageStream() {
     testExceptionWhenDeliveringBufferedMessage((consumer, handler) -> consumer.handler(message -> handler.handle(message.body())));
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.spi.metrics.Histogram;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramRecorderTest {
+
+  @Test
+  public void testBuckets() {
+    assertEquals(0, HistogramRecorder.bucketIndex(-5));
+    for (long value = 0;value < 2 * HistogramRecorder.SUB_BUCKETS;value++) {
+      int index = HistogramRecorder.bucketIndex(value);
+      assertEquals(value, HistogramRecorder.lowestValue(index));
+      assertEquals(value, HistogramRecorder.highestValue(index));
+    }
+    int prev = HistogramRecorder.bucketIndex(2 * HistogramRecorder.SUB_BUCKETS - 1);
+    for (long value = 2 * HistogramRecorder.SUB_BUCKETS;value > 0 && value < Long.MAX_VALUE / 2;value += 1 + value / 7) {
+      int index = HistogramRecorder.bucketIndex(value);
+      assertTrue(index >= prev);
+      assertTrue(HistogramRecorder.lowestValue(index) <= value);
+      assertTrue(HistogramRecorder.highestValue(index) >= value);
+      assertTrue(HistogramRecorder.highestValue(index) - HistogramRecorder.lowestValue(index) <= value / HistogramRecorder.SUB_BUCKETS);
+      prev = index;
+    }
+    assertEquals(HistogramRecorder.BUCKETS - 1, HistogramRecorder.bucketIndex(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testSnapshot() {
+    HistogramRecorder recorder = new HistogramRecorder();
+    Histogram empty = recorder.snapshot();
+    assertEquals(0, empty.getCount());
+    assertEquals(0, empty.getMin());
+    assertEquals(0, empty.getMax());
+    assertEquals(0, empty.getValueAtPercentile(50));
+    for (int i = 1;i <= 100;i++) {
+      recorder.record(i);
+    }
+    Histogram histogram = recorder.snapshot();
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(50.5, histogram.getMean(), 0.001);
+    assertEquals(10, histogram.getValueAtPercentile(10));
+    long p50 = histogram.getValueAtPercentile(50);
+    assertTrue(p50 >= 50 && p50 <= 53);
+    long max = histogram.getMax();
+    assertTrue(max >= 100 && max <= 103);
+    assertEquals(max, histogram.getValueAtPercentile(100));
+    // Only the values recorded since the previous snapshot
+    recorder.record(1000);
+    histogram = recorder.snapshot();
+    assertEquals(1, histogram.getCount());
+    assertEquals(1000, histogram.getMean(), 0.001);
+    assertTrue(histogram.getMin() <= 1000 && histogram.getMax() >= 1000);
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TaskQueueTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testConcurrentProducers() throws Exception {
+    int numProducers = 8;
+    int numTasks = 10000;
+    TaskQueue queue = new TaskQueue();
+    List<List<Integer>> received = new ArrayList<>();
+    for (int i = 0;i < numProducers;i++) {
+      // Only accessed by the tasks of the queue
+      received.add(new ArrayList<>());
+    }
+    AtomicInteger running = new AtomicInteger();
+    AtomicBoolean overlap = new AtomicBoolean();
+    CountDownLatch done = new CountDownLatch(numProducers * numTasks);
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] producers = new Thread[numProducers];
+    for (int i = 0;i < numProducers;i++) {
+      int producer = i;
+      producers[i] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int j = 0;j < numTasks;j++) {
+          int seq = j;
+          queue.execute(() -> {
+            if (running.incrementAndGet() != 1) {
+              overlap.set(true);
+            }
+            received.get(producer).add(seq);
+            running.decrementAndGet();
+            done.countDown();
+          }, executor);
+        }
+      });
+      producers[i].start();
+    }
+    start.countDown();
+    assertTrue(done.await(30, TimeUnit.SECONDS));
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertFalse(overlap.get());
+    CountDownLatch visible = new CountDownLatch(1);
+    List<List<Integer>> snapshot = new ArrayList<>();
+    queue.execute(() -> {
+      snapshot.addAll(received);
+      visible.countDown();
+    }, executor);
+    assertTrue(visible.await(10, TimeUnit.SECONDS));
+    for (List<Integer> seqs : snapshot) {
+      assertEquals(numTasks, seqs.size());
+      for (int j = 0;j < numTasks;j++) {
+        assertEquals(j, (int) seqs.get(j));
+      }
+    }
+  }
+
+  @Test
+  public void testReEnqueue() throws Exception {
+    TaskQueue queue = new TaskQueue();
+    List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(1);
+    queue.execute(() -> {
+      order.add(0);
+      queue.execute(() -> {
+        order.add(2);
+        queue.execute(() -> {
+          order.add(3);
+          done.countDown();
+        }, executor);
+      }, executor);
+      order.add(1);
+    }, executor);
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(0, 1, 2, 3), order);
+  }
+
+  @Test
+  public void testExecutorHandOff() throws Exception {
+    ExecutorService other = Executors.newSingleThreadExecutor();
+    try {
+      TaskQueue queue = new TaskQueue();
+      List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+      CountDownLatch done = new CountDownLatch(1);
+      for (int i = 0;i < 100;i++) {
+        int val = i;
+        queue.execute(() -> order.add(val), i % 2 == 0 ? executor : other);
+      }
+      queue.execute(done::countDown, executor);
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+      assertEquals(100, order.size());
+      for (int i = 0;i < 100;i++) {
+        assertEquals(i, (int) order.get(i));
+      }
+    } finally {
+      other.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testRejectedExecution() throws Exception {
+    Executor rejecting = task -> {
+      throw new RejectedExecutionException();
+    };
+    TaskQueue queue = new TaskQueue();
+    AtomicBoolean ran = new AtomicBoolean();
+    try {
+      queue.execute(() -> ran.set(true), rejecting);
+      fail();
+    } catch (RejectedExecutionException ignore) {
+    }
+    // The rejected task is removed and the queue accepts new tasks
+    CountDownLatch done = new CountDownLatch(1);
+    queue.execute(done::countDown, executor);
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertFalse(ran.get());
+  }
+
+  @Test
+  public void testRejectedExecutionOnHandOff() throws Exception {
+    Executor rejecting = task -> {
+      throw new RejectedExecutionException();
+    };
+    TaskQueue queue = new TaskQueue();
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean ran = new AtomicBoolean();
+    queue.execute(() -> {
+      blocked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ignore) {
+      }
+    }, executor);
+    assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    // Queued behind the running task, the rejection happens when the runner is handed off
+    queue.execute(() -> ran.set(true), rejecting);
+    CountDownLatch done = new CountDownLatch(1);
+    queue.execute(done::countDown, executor);
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertFalse(ran.get());
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the executor with a stub of the {@code Thread.ofVirtual()} builder API creating platform threads, so the
+ * virtual thread path is tested on JVMs without virtual threads.
+ */
+public class VirtualThreadExecutorTest {
+
+  public static class StubThread {
+    public static StubBuilder ofVirtual() {
+      return new StubBuilder();
+    }
+  }
+
+  public static class StubBuilder {
+    private String prefix;
+    private long start;
+    public StubBuilder name(String prefix, long start) {
+      this.prefix = prefix;
+      this.start = start;
+      return this;
+    }
+    public ThreadFactory factory() {
+      AtomicLong counter = new AtomicLong(start);
+      return runnable -> new Thread(runnable, prefix + counter.getAndIncrement());
+    }
+  }
+
+  @Test
+  public void testLookup() {
+    assertNotNull(VirtualThreadExecutor.Builder.lookup(StubThread.class));
+    assertNull(VirtualThreadExecutor.Builder.lookup(Object.class));
+  }
+
+  @Test
+  public void testUnsupported() {
+    try {
+      new VirtualThreadExecutor(null, "test-", null, 1, TimeUnit.SECONDS);
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    VirtualThreadExecutor executor = new VirtualThreadExecutor(VirtualThreadExecutor.Builder.lookup(StubThread.class), "test-", null, 1, TimeUnit.SECONDS);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<String> name = new AtomicReference<>();
+    AtomicBoolean virtualWorker = new AtomicBoolean();
+    executor.execute(() -> {
+      name.set(Thread.currentThread().getName());
+      virtualWorker.set(VirtualThreadExecutor.isVirtualWorker());
+      VirtualThreadExecutor.executeStart();
+      running.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ignore) {
+      }
+      VirtualThreadExecutor.executeEnd();
+    });
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+    assertEquals("test-0", name.get());
+    assertTrue(virtualWorker.get());
+    assertFalse(VirtualThreadExecutor.isVirtualWorker());
+    assertEquals(1, executor.runningThreads().size());
+    executor.shutdown();
+    assertFalse(executor.isTerminated());
+    try {
+      executor.execute(() -> {});
+      fail();
+    } catch (RejectedExecutionException ignore) {
+    }
+    release.countDown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertTrue(executor.isTerminated());
+    assertEquals(0, executor.runningThreads().size());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2018 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.core.impl.cpu;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * Tests that we can read the CPU layout from the sysfs cpu directory.
+ */
+public class CpuAffinityTest {
+
+  @Test
+  public void readCoreLayout() throws Exception {
+    // cpu2 and cpu3 are hardware threads of the cores of cpu0 and cpu1, cpu4 is offline
+    File dir = new File("src/test/resources/cpus/sys");
+    assertThat(CpuAffinity.readCoreLayout(dir), is(Arrays.asList(0, 1)));
+  }
+
+  @Test
+  public void readCoreLayoutOfAllowedCpus() throws Exception {
+    // cpu0 is not allowed, its hardware thread cpu2 is used for its core
+    BitSet allowed = new BitSet();
+    allowed.set(1, 5);
+    File dir = new File("src/test/resources/cpus/sys");
+    assertThat(CpuAffinity.readCoreLayout(dir, allowed), is(Arrays.asList(1, 2)));
+  }
+
+  @Test
+  public void readMissingDirectory() throws Exception {
+    File dir = new File("src/test/resources/cpus/does-not-exist");
+    assertThat(CpuAffinity.readCoreLayout(dir), is(Collections.emptyList()));
+  }
+
+  @Test
+  public void cpuSets() throws Exception {
+    BitSet cpu0 = new BitSet();
+    cpu0.set(0);
+    BitSet cpu1 = new BitSet();
+    cpu1.set(1);
+    CpuAffinity affinity = new CpuAffinity(Arrays.asList(cpu0, cpu1));
+    assertEquals(cpu0, affinity.cpuSet(0));
+    assertEquals(cpu1, affinity.cpuSet(1));
+    assertEquals(cpu0, affinity.cpuSet(2));
+  }
+
+  @Test
+  public void checkAllowed() throws Exception {
+    BitSet allowed = new BitSet();
+    allowed.set(1, 3);
+    CpuAffinity.checkAllowed(Arrays.asList(1, 2), allowed);
+    try {
+      CpuAffinity.checkAllowed(Arrays.asList(1, 3), allowed);
+      fail();
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
+
+  @Test
+  public void bindWithoutJavaThreadAffinity() throws Exception {
+    BitSet cpu0 = new BitSet();
+    cpu0.set(0);
+    CpuAffinity affinity = new CpuAffinity(Collections.singletonList(cpu0));
+    assertEquals(CpuAffinity.isSupported(), affinity.bind(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noCpuSet() throws Exception {
+    new CpuAffinity(Collections.emptyList());
+  }
+}
@@ -15,6 +15,7 @@ import io.vertx.core.impl.cpu.CpuCoreSensor;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.BitSet;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
@@ -55,4 +56,24 @@ public class CpuCoreSensorTest {
     assertThat(CpuCoreSensor.readCPUMask(file), is(-1));
   }
 
+  @Test
+  public void readCPUSet() throws Exception {
+    BitSet expected = new BitSet();
+    expected.set(1);
+    assertThat(CpuCoreSensor.readCPUSet(new File("src/test/resources/cpus/status-1.txt")), is(expected));
+    expected.set(0);
+    assertThat(CpuCoreSensor.readCPUSet(new File("src/test/resources/cpus/status-2.txt")), is(expected));
+  }
+
+  @Test
+  public void readCPUSetMissingEntry() throws Exception {
+    assertNull(CpuCoreSensor.readCPUSet(new File("src/test/resources/cpus/missing.txt")));
+    assertNull(CpuCoreSensor.readCPUSet(new File("src/test/resources/cpus/does-not-exist")));
+  }
+
+  @Test
+  public void allowedCpus() throws Exception {
+    assertFalse(CpuCoreSensor.allowedCpus().isEmpty());
+  }
+
 }
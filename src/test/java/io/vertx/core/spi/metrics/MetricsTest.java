@@ -1097,6 +1097,57 @@ public class MetricsTest extends VertxTestBase {
     };
   }
 
+  @Test
+  public void testContextTaskBatches() throws Exception {
+    FakeVertxMetrics metrics = FakeMetricsBase.getMetrics(vertx);
+    Context ctx = vertx.getOrCreateContext();
+    int num = 1000;
+    CountDownLatch latch = new CountDownLatch(num);
+    long batches = metrics.contextTaskBatches();
+    long tasks = metrics.contextTasks();
+    // Block the event loop so the tasks submitted from this thread are batched
+    CountDownLatch blocked = new CountDownLatch(1);
+    ctx.runOnContext(v -> {
+      try {
+        blocked.await();
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    for (int i = 0;i < num;i++) {
+      ctx.runOnContext(v -> latch.countDown());
+    }
+    blocked.countDown();
+    awaitLatch(latch);
+    waitUntil(() -> metrics.contextTasks() - tasks == num + 1);
+    assertTrue(metrics.contextTaskBatches() - batches < num);
+  }
+
+  @Test
+  public void testEventLoopStatistics() throws Exception {
+    vertx.close(); // Close the instance automatically created
+    vertx = Vertx.vertx(getOptions()
+      .setEventLoopMetricsEnabled(true)
+      .setBlockedThreadCheckInterval(100));
+    FakeVertxMetrics metrics = FakeMetricsBase.getMetrics(vertx);
+    Context ctx = vertx.getOrCreateContext();
+    CountDownLatch latch = new CountDownLatch(1);
+    ctx.runOnContext(v -> {
+      // Long enough to be recorded
+      long now = System.nanoTime();
+      while (System.nanoTime() - now < 10_000_000) {
+        Thread.yield();
+      }
+      latch.countDown();
+    });
+    awaitLatch(latch);
+    waitUntil(() -> metrics.eventLoopStatistics().stream().anyMatch(statistics -> statistics[0].getMax() >= 10_000_000));
+    Histogram[] statistics = metrics.eventLoopStatistics().stream().filter(s -> s[0].getMax() >= 10_000_000).findFirst().get();
+    assertTrue(statistics[0].getValueAtPercentile(100) >= 10_000_000);
+    assertTrue(statistics[0].getMin() <= statistics[0].getMax());
+    waitUntil(() -> metrics.eventLoopStatistics().stream().anyMatch(s -> s[1].getCount() > 0 && s[2].getCount() > 0));
+  }
+
   @Test
   public void testInitialization() {
     assertSame(vertx, ((FakeVertxMetrics)FakeMetricsBase.getMetrics(vertx)).vertx());
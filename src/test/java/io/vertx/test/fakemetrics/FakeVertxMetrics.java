@@ -21,17 +21,39 @@ import io.vertx.core.net.NetServerOptions;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.core.spi.metrics.*;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 public class FakeVertxMetrics extends FakeMetricsBase implements VertxMetrics {
 
   private volatile Vertx vertx;
+  private final AtomicLong contextTaskBatches = new AtomicLong();
+  private final AtomicLong contextTasks = new AtomicLong();
+  private final List<Histogram[]> eventLoopStatistics = new CopyOnWriteArrayList<>();
 
   public Vertx vertx() {
     return vertx;
   }
 
+  public long contextTaskBatches() {
+    return contextTaskBatches.get();
+  }
+
+  public long contextTasks() {
+    return contextTasks.get();
+  }
+
+  /**
+   * @return the reported event loop statistics: task duration, scheduling lag and queue depth
+   */
+  public List<Histogram[]> eventLoopStatistics() {
+    return eventLoopStatistics;
+  }
+
   @Override
   public boolean isMetricsEnabled() {
     return true;
@@ -120,6 +142,17 @@ public class FakeVertxMetrics extends FakeMetricsBase implements VertxMetrics {
     return new FakePoolMetrics(poolName, maxPoolSize);
   }
 
+  @Override
+  public void contextTaskBatchExecuted(int size) {
+    contextTaskBatches.incrementAndGet();
+    contextTasks.addAndGet(size);
+  }
+
+  @Override
+  public void eventLoopStatistics(String eventLoop, Histogram taskDuration, Histogram schedulingLag, Histogram queueDepth) {
+    eventLoopStatistics.add(new Histogram[] { taskDuration, schedulingLag, queueDepth });
+  }
+
   public boolean isEnabled() {
     return true;
   }